@@ -40,13 +40,27 @@ import org.auraframework.throwable.quickfix.InvalidExpressionException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+
 /**
  * adapter that calls our expression factory
+ *
+ * The same expression text shows up over and over again across components, so parsed expressions are kept in a
+ * bounded cache keyed by text. The cached trees carry no location and are never handed out, each caller gets a copy
+ * carrying its own location. Expressions that fail to parse are not cached.
  */
 @ServiceComponent("auraExpressionBuilder")
 public class AuraExpressionBuilder implements ExpressionBuilder {
 
+    private static final int PARSED_CACHE_SIZE = 10000;
+
     private final ExpressionFunctions functions;
+    private final Cache<String, Expression> parsed = CacheBuilder.newBuilder()
+            .maximumSize(PARSED_CACHE_SIZE)
+            .concurrencyLevel(8)
+            .build();
     
     @Lazy
     @Autowired
@@ -56,6 +70,21 @@ public class AuraExpressionBuilder implements ExpressionBuilder {
 
     @Override
     public Expression buildExpression(String s, Location l) throws AuraValidationException {
+        Expression template = parsed.getIfPresent(s);
+        if (template != null) {
+            return new ExpressionFactory(functions, l).copy(template);
+        }
+        Expression e = parse(s, l);
+        parsed.put(s, new ExpressionFactory(functions, null).copy(e));
+        return e;
+    }
+
+    @VisibleForTesting
+    void clearCache() {
+        parsed.invalidateAll();
+    }
+
+    private Expression parse(String s, Location l) throws AuraValidationException {
         ExpressionLexer lexer;
         try {
             lexer = new ExpressionLexer(new CaseInsensitiveReaderStream(new StringReader(s)));
@@ -0,0 +1,103 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.auraframework.expression.Expression;
+import org.auraframework.impl.expression.functions.Function;
+import org.auraframework.instance.ValueProvider;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+/**
+ * Compiles an expression tree into a tree of evaluators for server side evaluation.
+ *
+ * The function of each call is resolved once, when compiling, and calls with up to three arguments go through the
+ * matching {@link Function#invoke() invoke} method rather than a list. Literal values are bound into their
+ * evaluators. Every argument is still evaluated, in order, exactly as {@link Expression#evaluate(ValueProvider)}
+ * does, so the results and any exceptions are the same.
+ */
+public final class ExpressionCompiler {
+
+    /**
+     * A compiled expression.
+     */
+    @FunctionalInterface
+    public interface Evaluator {
+        Object evaluate(ValueProvider vp) throws QuickFixException;
+    }
+
+    private static final Evaluator NULL = vp -> null;
+
+    private ExpressionCompiler() {
+    }
+
+    /**
+     * Compile an expression.
+     *
+     * @param e the expression to compile
+     * @return an evaluator giving the same result as {@code e.evaluate(vp)}
+     */
+    public static Evaluator compile(Expression e) {
+        if (e instanceof LiteralImpl) {
+            Object value = ((LiteralImpl) e).getValue();
+            return value == null ? NULL : vp -> value;
+        }
+        if (e instanceof FunctionCallImpl) {
+            FunctionCallImpl fc = (FunctionCallImpl) e;
+            return compileCall(fc.getFunction(), fc.getArguments());
+        }
+        // property references look up their value on every evaluation, nothing to bind
+        return e::evaluate;
+    }
+
+    private static Evaluator compileCall(Function f, List<Expression> args) {
+        int size = args.size();
+        Evaluator[] compiled = new Evaluator[size];
+        for (int i = 0; i < size; i++) {
+            compiled[i] = compile(args.get(i));
+        }
+
+        switch (size) {
+        case 0:
+            return vp -> f.invoke();
+        case 1: {
+            Evaluator a0 = compiled[0];
+            return vp -> f.invoke(a0.evaluate(vp));
+        }
+        case 2: {
+            Evaluator a0 = compiled[0];
+            Evaluator a1 = compiled[1];
+            return vp -> f.invoke(a0.evaluate(vp), a1.evaluate(vp));
+        }
+        case 3: {
+            Evaluator a0 = compiled[0];
+            Evaluator a1 = compiled[1];
+            Evaluator a2 = compiled[2];
+            return vp -> f.invoke(a0.evaluate(vp), a1.evaluate(vp), a2.evaluate(vp));
+        }
+        default:
+            return vp -> {
+                List<Object> values = new ArrayList<>(compiled.length);
+                for (Evaluator a : compiled) {
+                    values.add(a.evaluate(vp));
+                }
+                return f.evaluate(values);
+            };
+        }
+    }
+}
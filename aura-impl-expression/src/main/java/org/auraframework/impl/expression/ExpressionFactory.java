@@ -15,11 +15,17 @@
  */
 package org.auraframework.impl.expression;
 
+import static org.auraframework.impl.expression.functions.BooleanFunctions.AND;
+import static org.auraframework.impl.expression.functions.BooleanFunctions.OR;
 import static org.auraframework.impl.expression.functions.BooleanFunctions.TERNARY;
+import static org.auraframework.impl.expression.functions.BooleanFunctions.isTruthy;
+
+import java.util.ArrayList;
 
 import java.util.List;
 
 import org.auraframework.expression.Expression;
+import org.auraframework.expression.ExpressionType;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.impl.expression.functions.Function;
 import org.auraframework.system.Location;
@@ -29,6 +35,11 @@ import com.google.common.collect.ImmutableList;
 
 /**
  * factory used by the parser to create the expression objects
+ *
+ * Calls to {@link Function#isFoldable() foldable} functions are simplified as they are created: a call with only
+ * literal arguments becomes a literal of its result, and and/or/ternary with a literal condition become the argument
+ * they would pick. Literals are serialized as plain values, so folded expressions are neither bound nor evaluated on
+ * the client.
  */
 public class ExpressionFactory {
 
@@ -70,21 +81,21 @@ public class ExpressionFactory {
      * for unary ops
      */
     public Expression createFunction(Function ft, Expression e1) {
-        return new FunctionCallImpl(ft, ImmutableList.of(e1), l);
+        return createCall(ft, ImmutableList.of(e1));
     }
 
     /**
      * for binary ops
      */
     public Expression createFunction(Function ft, Expression e1, Expression e2) {
-        return new FunctionCallImpl(ft, ImmutableList.of(e1, e2), l);
+        return createCall(ft, ImmutableList.of(e1, e2));
     }
 
     /**
      * for ternary op
      */
     public Expression createTernaryFunction(Expression e1, Expression e2, Expression e3) {
-        return new FunctionCallImpl(TERNARY, ImmutableList.of(e1, e2, e3), l);
+        return createCall(TERNARY, ImmutableList.of(e1, e2, e3));
     }
 
     /**
@@ -96,6 +107,107 @@ public class ExpressionFactory {
             // TODO: typed exception
             throw new AuraRuntimeException("No function found for key: " + name, l);
         }
-        return new FunctionCallImpl(f, (args == null) ? ImmutableList.<Expression> of() : ImmutableList.copyOf(args), l);
+        return createCall(f, (args == null) ? ImmutableList.<Expression> of() : ImmutableList.copyOf(args));
+    }
+
+    private Expression createCall(Function f, List<Expression> args) {
+        if (f.isFoldable()) {
+            Expression simplified = simplify(f, args);
+            if (simplified != null) {
+                return simplified;
+            }
+        }
+        return new FunctionCallImpl(f, args, l);
+    }
+
+    /**
+     * @return the simplified expression, or null if the call has to stay.
+     */
+    private Expression simplify(Function f, List<Expression> args) {
+        int size = args.size();
+        if (size > 0 && isLiteral(args.get(0))) {
+            boolean condition = isTruthy(((LiteralImpl) args.get(0)).getValue());
+            if (size == 2 && f == AND) {
+                return select(condition ? args.get(1) : args.get(0));
+            }
+            if (size == 2 && f == OR) {
+                return select(condition ? args.get(0) : args.get(1));
+            }
+            if (f == TERNARY && (size == 2 || size == 3)) {
+                if (condition) {
+                    return select(args.get(1));
+                }
+                return size == 3 ? select(args.get(2)) : new LiteralImpl(null, l);
+            }
+        }
+
+        List<Object> values = new ArrayList<>(size);
+        for (Expression arg : args) {
+            if (!isLiteral(arg)) {
+                return null;
+            }
+            values.add(((LiteralImpl) arg).getValue());
+        }
+        if (!f.isFoldable(values)) {
+            return null;
+        }
+        Object result;
+        try {
+            result = f.evaluate(values);
+        } catch (RuntimeException e) {
+            // leave it to fail the same way when it is evaluated
+            return null;
+        }
+        return isLiteralValue(result) ? new LiteralImpl(result, l) : null;
+    }
+
+    /**
+     * A call can be replaced by the argument it selects, unless that is a property reference: the call is bound one
+     * way, but a bare property reference would be bound two ways and be assignable.
+     *
+     * @return the selected argument, or null if the call has to stay.
+     */
+    private static Expression select(Expression selected) {
+        return selected.getExpressionType() == ExpressionType.PROPERTY ? null : selected;
+    }
+
+    private static boolean isLiteral(Expression e) {
+        return e instanceof LiteralImpl;
+    }
+
+    /**
+     * Only values that are written the same way in JSON and in compiled javascript can be literals, so NaN and the
+     * infinities are left to be computed.
+     */
+    private static boolean isLiteralValue(Object value) {
+        if (value == null || value instanceof String || value instanceof Boolean) {
+            return true;
+        }
+        if (value instanceof Double) {
+            return !((Double) value).isNaN() && !((Double) value).isInfinite();
+        }
+        return value instanceof Integer || value instanceof Long;
+    }
+
+    /**
+     * Copy an expression built by this class, giving every node of the copy this factory's location. Nothing mutable
+     * is shared with the original.
+     */
+    Expression copy(Expression e) {
+        switch (e.getExpressionType()) {
+        case LITERAL:
+            return new LiteralImpl(((LiteralImpl) e).getValue(), l);
+        case PROPERTY:
+            return new PropertyReferenceImpl(((PropertyReferenceImpl) e).getList(), l);
+        case FUNCTION:
+            FunctionCallImpl fc = (FunctionCallImpl) e;
+            ImmutableList.Builder<Expression> args = ImmutableList.builder();
+            for (Expression arg : fc.getArguments()) {
+                args.add(copy(arg));
+            }
+            return new FunctionCallImpl(fc.getFunction(), args.build(), l);
+        default:
+            throw new AuraRuntimeException("Unknown expression type: " + e.getExpressionType(), l);
+        }
     }
 }
@@ -16,7 +16,6 @@
 package org.auraframework.impl.expression;
 
 import java.io.IOException;
-import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 
@@ -47,6 +46,7 @@ public class FunctionCallImpl implements FunctionCall, JsonSerializable {
     private final Function f;
     private final Location l;
     private boolean byValue = false;
+    private transient ExpressionCompiler.Evaluator evaluator;
 
     public FunctionCallImpl(Function f, List<Expression> args, Location l) {
         this.args = args;
@@ -66,11 +66,13 @@ public class FunctionCallImpl implements FunctionCall, JsonSerializable {
 
     @Override
     public Object evaluate(ValueProvider vp) throws QuickFixException {
-        List<Object> list = new ArrayList<>(args.size());
-        for (Expression e : args) {
-            list.add(e.evaluate(vp));
+        ExpressionCompiler.Evaluator compiled = evaluator;
+        if (compiled == null) {
+            // compiled on first use, a race only compiles it more than once
+            compiled = ExpressionCompiler.compile(this);
+            evaluator = compiled;
         }
-        return f.evaluate(list);
+        return compiled.evaluate(vp);
     }
 
     @Override
@@ -93,6 +95,10 @@ public class FunctionCallImpl implements FunctionCall, JsonSerializable {
         return this.args;
     }
 
+    Function getFunction() {
+        return this.f;
+    }
+
     @Override
     public void setByValue(boolean byValue) {
         this.byValue = byValue;
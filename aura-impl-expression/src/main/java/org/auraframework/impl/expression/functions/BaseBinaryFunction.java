@@ -37,6 +37,26 @@ public abstract class BaseBinaryFunction implements Function {
 
     public abstract Object evaluate(Object arg1, Object arg2);
 
+    @Override
+    public final Object invoke() {
+        return null;
+    }
+
+    @Override
+    public final Object invoke(Object a0) {
+        return a0;
+    }
+
+    @Override
+    public final Object invoke(Object a0, Object a1) {
+        return evaluate(a0, a1);
+    }
+
+    @Override
+    public final Object invoke(Object a0, Object a1, Object a2) {
+        return evaluate(a0, a1);
+    }
+
 	@Override
 	public final void compile(Appendable out, List<Expression> args) throws IOException {
         int size = args.size();
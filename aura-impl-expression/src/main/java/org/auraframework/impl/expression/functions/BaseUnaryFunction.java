@@ -34,6 +34,26 @@ public abstract class BaseUnaryFunction implements Function {
 
     public abstract Object evaluate(Object arg);
 
+    @Override
+    public final Object invoke() {
+        return null;
+    }
+
+    @Override
+    public final Object invoke(Object a0) {
+        return evaluate(a0);
+    }
+
+    @Override
+    public final Object invoke(Object a0, Object a1) {
+        return evaluate(a0);
+    }
+
+    @Override
+    public final Object invoke(Object a0, Object a1, Object a2) {
+        return evaluate(a0);
+    }
+
 	@Override
 	public final void compile(Appendable out, List<Expression> args) throws IOException {
         int size = args.size();
@@ -76,6 +76,11 @@ public class BooleanFunctions {
         public String[] getKeys() {
             return new String[] { "and" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     /**
@@ -105,6 +110,11 @@ public class BooleanFunctions {
         public String[] getKeys() {
             return new String[] { "or" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     /**
@@ -129,6 +139,11 @@ public class BooleanFunctions {
         public String[] getKeys() {
             return new String[] { "not" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     /**
@@ -153,11 +168,36 @@ public class BooleanFunctions {
             return null;
         }
 
+        @Override
+        public Object invoke() {
+            return null;
+        }
+
+        @Override
+        public Object invoke(Object a0) {
+            return null;
+        }
+
+        @Override
+        public Object invoke(Object a0, Object a1) {
+            return isTruthy(a0) ? a1 : null;
+        }
+
+        @Override
+        public Object invoke(Object a0, Object a1, Object a2) {
+            return isTruthy(a0) ? a1 : a2;
+        }
+
         @Override
         public String[] getKeys() {
             return new String[] { "if" };
         }
 
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
+
         @Override
     	public void compile(Appendable out, List<Expression> args) throws IOException {
         	int size = args.size();
@@ -30,6 +30,8 @@ import java.util.List;
 public class Format extends BaseMultiFunction {
 
     private static final long serialVersionUID = -7261120970634674388L;
+
+    private static final Object[] NO_ARGUMENTS = new Object[0];
     
     private static final Format INSTANCE = new Format();
     
@@ -51,20 +53,49 @@ public class Format extends BaseMultiFunction {
             return "";
         }
 
-        Object a0 = args.get(0);
+        Object[] formatArguments = new Object[size - 1];
+        for (int index = 1; index < size; index++) {
+            formatArguments[index - 1] = args.get(index);
+        }
+        return format(args.get(0), formatArguments);
+    }
+
+    @Override
+    public Object invoke() {
+        return "";
+    }
+
+    @Override
+    public Object invoke(Object a0) {
+        return format(a0, NO_ARGUMENTS);
+    }
+
+    @Override
+    public Object invoke(Object a0, Object a1) {
+        return format(a0, new Object[] { a1 });
+    }
+
+    @Override
+    public Object invoke(Object a0, Object a1, Object a2) {
+        return format(a0, new Object[] { a1, a2 });
+    }
+
+    /**
+     * @param formatArguments the arguments after the format string, replaced by their string values.
+     */
+    private static String format(Object a0, Object[] formatArguments) {
         if (a0 == null) {
             return "";
         }
 
         String formatString = JavascriptHelpers.stringify(a0);
-        if (size == 1) {
+        if (formatArguments.length == 0) {
             return formatString;
         }
 
-        Object[] formatArguments = new Object[size - 1];
-        for (int index = 1; index < size; index++) {
-            Object ai = args.get(index);
-            formatArguments[index - 1] = (ai == null) ? "" : JavascriptHelpers.stringify(ai);
+        for (int index = 0; index < formatArguments.length; index++) {
+            Object ai = formatArguments[index];
+            formatArguments[index] = (ai == null) ? "" : JavascriptHelpers.stringify(ai);
         }
 
         return MessageFormat.format(formatString, formatArguments);
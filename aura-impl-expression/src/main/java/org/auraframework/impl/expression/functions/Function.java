@@ -17,6 +17,8 @@ package org.auraframework.impl.expression.functions;
 
 import java.io.IOException;
 import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 
 import org.auraframework.expression.Expression;
@@ -32,5 +34,42 @@ public interface Function extends Serializable {
 
     Object evaluate(List<Object> args);
 
+    /**
+     * The same as {@link #evaluate(List)} with no arguments. This and the other invoke methods let calls with up to
+     * three arguments skip building a list, the defaults only wrap the arguments in one.
+     */
+    default Object invoke() {
+        return evaluate(Collections.emptyList());
+    }
+
+    default Object invoke(Object a0) {
+        return evaluate(Collections.singletonList(a0));
+    }
+
+    default Object invoke(Object a0, Object a1) {
+        return evaluate(Arrays.asList(a0, a1));
+    }
+
+    default Object invoke(Object a0, Object a1, Object a2) {
+        return evaluate(Arrays.asList(a0, a1, a2));
+    }
+
+    /**
+     * Whether a call with only literal arguments can be replaced by its result when the expression is parsed. This
+     * holds when the result depends on nothing but the arguments and is the same as the client would compute.
+     */
+    default boolean isFoldable() {
+        return false;
+    }
+
+    /**
+     * Whether a call with these literal argument values can be replaced by its result, for a function that is
+     * {@link #isFoldable() foldable}. Functions whose result matches the client only for some argument types
+     * narrow it down here.
+     */
+    default boolean isFoldable(List<Object> args) {
+        return isFoldable();
+    }
+
 	void compile(Appendable out, List<Expression> args) throws IOException;
 }
@@ -56,13 +56,19 @@ public class JavascriptHelpers {
         if (o == null) {
         	return "";
         } else if (o instanceof Number) {
-        	Number n = (Number)o;
+        	double value = ((Number)o).doubleValue();
         	
                 // Oh fun. Don't know of another way to detect this.
-        	if (n.doubleValue() == 0 && (1.0/n.doubleValue() == Double.NEGATIVE_INFINITY)) {
+        	if (value == 0 && (1.0/value == Double.NEGATIVE_INFINITY)) {
         	    return "-0";
         	}
-            return String.valueOf(getNumber(n.doubleValue()));
+            // the same as String.valueOf(getNumber(value)), without boxing
+            if (value == (int)Math.round(value)) {
+                return Integer.toString((int)value);
+            } else if (value == Math.round(value)) {
+                return Long.toString((long)value);
+            }
+            return Double.toString(value);
         } else if (o instanceof Iterable) {
             String comma = "";
             StringBuffer sb = new StringBuffer();
@@ -123,4 +129,28 @@ public class JavascriptHelpers {
             }
         }
     }
+
+    /**
+     * Convert an object into a double by JSs conversion rules, the same as {@link #convertToNumber(Object)} without
+     * boxing the result.
+     *
+     * @param o the object to convert.
+     * @return the value as a double.
+     */
+    public static double toDouble(Object o) {
+        if (o instanceof Number) {
+            return ((Number)o).doubleValue();
+        }
+        if (o == null || "".equals(o)) {
+            return 0;
+        }
+        if (o instanceof Boolean) {
+            return ((Boolean)o).booleanValue() ? 1 : 0;
+        }
+        try {
+            return Double.parseDouble(stringify(o));
+        } catch (NumberFormatException nfe) {
+            return Double.NaN;
+        }
+    }
 }
@@ -47,11 +47,40 @@ public class Join extends BaseMultiFunction {
         if (size == 2){
             return JavascriptHelpers.stringify(args.get(1));
         }
-        Object a0 = args.get(0);
-        String separator = JavascriptHelpers.stringify(a0 != null ? a0 : "");
         Object[] formatArguments = new Object[size - 1];
         for (int index = 1; index < size; index++) {
-            formatArguments[index - 1] = JavascriptHelpers.stringify(args.get(index));
+            formatArguments[index - 1] = args.get(index);
+        }
+        return join(args.get(0), formatArguments);
+    }
+
+    @Override
+    public Object invoke() {
+        return "";
+    }
+
+    @Override
+    public Object invoke(Object a0) {
+        return "";
+    }
+
+    @Override
+    public Object invoke(Object a0, Object a1) {
+        return JavascriptHelpers.stringify(a1);
+    }
+
+    @Override
+    public Object invoke(Object a0, Object a1, Object a2) {
+        return join(a0, new Object[] { a1, a2 });
+    }
+
+    /**
+     * @param formatArguments the values to join, replaced by their string values.
+     */
+    private static String join(Object a0, Object[] formatArguments) {
+        String separator = JavascriptHelpers.stringify(a0 != null ? a0 : "");
+        for (int index = 0; index < formatArguments.length; index++) {
+            formatArguments[index] = JavascriptHelpers.stringify(formatArguments[index]);
         }
 
         return Joiner.on(separator).skipNulls().join(formatArguments);
@@ -38,21 +38,26 @@ public class MathFunctions {
 
         @Override
         public Object evaluate(Object o1, Object o2) {
-            Number a1, a2;
+            double a1, a2;
             if (allowString && (o1 instanceof String || o2 instanceof String)
                     && !(o1 instanceof Number || o2 instanceof Number)) {
                 String s1 = JavascriptHelpers.stringify(o1);
                 String s2 = JavascriptHelpers.stringify(o2);
                 a1 = s1.compareTo(s2);
-                a2 = Double.valueOf(0);
+                a2 = 0;
             } else {
-                a1 = JavascriptHelpers.convertToNumber(o1);
-                a2 = JavascriptHelpers.convertToNumber(o2);
+                a1 = JavascriptHelpers.toDouble(o1);
+                a2 = JavascriptHelpers.toDouble(o2);
             }
-            return evaluate(a1, a2);
+            return Double.valueOf(evaluate(a1, a2));
         }
 
-        public abstract Object evaluate(Number n1, Number n2);
+        public abstract double evaluate(double n1, double n2);
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     public static class Subtract extends BinaryNumberFunction {
@@ -63,8 +68,8 @@ public class MathFunctions {
         }
 
         @Override
-        public Object evaluate(Number n1, Number n2) {
-            return Double.valueOf(n1.doubleValue() - n2.doubleValue());
+        public double evaluate(double n1, double n2) {
+            return n1 - n2;
         }
 
 		@Override
@@ -86,8 +91,8 @@ public class MathFunctions {
         }
 
         @Override
-        public Object evaluate(Number n1, Number n2) {
-            return Double.valueOf(n1.doubleValue() * n2.doubleValue());
+        public double evaluate(double n1, double n2) {
+            return n1 * n2;
         }
 
 		@Override
@@ -109,8 +114,8 @@ public class MathFunctions {
         }
 
         @Override
-        public Object evaluate(Number n1, Number n2) {
-            return Double.valueOf(n1.doubleValue() / n2.doubleValue());
+        public double evaluate(double n1, double n2) {
+            return n1 / n2;
         }
 
 		@Override
@@ -132,8 +137,8 @@ public class MathFunctions {
         }
 
         @Override
-        public Object evaluate(Number n1, Number n2) {
-            return Double.valueOf(n1.doubleValue() % n2.doubleValue());
+        public double evaluate(double n1, double n2) {
+            return n1 % n2;
         }
 
 		@Override
@@ -152,8 +157,7 @@ public class MathFunctions {
 
         @Override
         public Object evaluate(Object arg) {
-            Number a1 = JavascriptHelpers.convertToNumber(arg);
-            return Double.valueOf(-a1.doubleValue());
+            return Double.valueOf(-JavascriptHelpers.toDouble(arg));
         }
 
         @Override
@@ -165,6 +169,11 @@ public class MathFunctions {
         public String[] getKeys() {
             return new String[] { "neg", "negate" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     public static class Absolute extends BaseUnaryFunction {
@@ -172,8 +181,7 @@ public class MathFunctions {
 
         @Override
         public Object evaluate(Object arg) {
-            Number a1 = JavascriptHelpers.convertToNumber(arg);
-            return Double.valueOf(Math.abs(a1.doubleValue()));
+            return Double.valueOf(Math.abs(JavascriptHelpers.toDouble(arg)));
         }
 
         @Override
@@ -185,5 +193,10 @@ public class MathFunctions {
         public String[] getKeys() {
             return new String[] { "abs" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 }
@@ -15,6 +15,8 @@
  */
 package org.auraframework.impl.expression.functions;
 
+import java.util.List;
+
 /**
  * functions that can have multiple different types of arguments
  */
@@ -33,21 +35,26 @@ public class MultiFunctions {
 
         @Override
         public Object evaluate(Object o1, Object o2) {
-            Number a1, a2;
+            double a1, a2;
 
             if ((o1 instanceof String || o2 instanceof String) && !(o1 instanceof Number || o2 instanceof Number)) {
                 String s1 = JavascriptHelpers.stringify(o1);
                 String s2 = JavascriptHelpers.stringify(o2);
                 a1 = s1.compareTo(s2);
-                a2 = Double.valueOf(0);
+                a2 = 0;
             } else {
-                a1 = JavascriptHelpers.convertToNumber(o1);
-                a2 = JavascriptHelpers.convertToNumber(o2);
+                a1 = JavascriptHelpers.toDouble(o1);
+                a2 = JavascriptHelpers.toDouble(o2);
             }
-            return compareNumbers(a1, a2);
+            return Boolean.valueOf(compareNumbers(a1, a2));
         }
 
-        public abstract Boolean compareNumbers(Number n1, Number n2);
+        public abstract boolean compareNumbers(double n1, double n2);
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     /**
@@ -59,13 +66,7 @@ public class MultiFunctions {
         @Override
         public Object evaluate(Object o1, Object o2) {
             if ((o1 instanceof Number || o1 == null)  && (o2 instanceof Number || o2 == null)) {
-                if (o1 == null) {
-                    o1 = Double.valueOf(0);
-                }
-                if (o2 == null) {
-                    o2 = Double.valueOf(0);
-                }
-                return JavascriptHelpers.getNumber(((Number) o1).doubleValue() + ((Number) o2).doubleValue());
+                return JavascriptHelpers.getNumber(JavascriptHelpers.toDouble(o1) + JavascriptHelpers.toDouble(o2));
             } else {
                 return JavascriptHelpers.stringify(o1)+JavascriptHelpers.stringify(o2);
             }
@@ -80,6 +81,25 @@ public class MultiFunctions {
         public String[] getKeys() {
             return new String[] { "add", "concat" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
+
+        /**
+         * The client adds by javascript rules, which only agree with {@link #evaluate(Object, Object)} when both
+         * arguments are strings or both are numbers, e.g. null + null is "" and true + 1 is 2 there.
+         */
+        @Override
+        public boolean isFoldable(List<Object> args) {
+            if (args.size() != 2) {
+                return false;
+            }
+            Object o1 = args.get(0);
+            Object o2 = args.get(1);
+            return (o1 instanceof String && o2 instanceof String) || (o1 instanceof Number && o2 instanceof Number);
+        }
     }
 
     public static class Equals extends BaseBinaryFunction {
@@ -106,6 +126,11 @@ public class MultiFunctions {
         public String[] getKeys() {
             return new String[] { "eq", "equals" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     public static class NotEquals extends BaseBinaryFunction {
@@ -125,14 +150,19 @@ public class MultiFunctions {
         public String[] getKeys() {
             return new String[] { "ne", "notequals" };
         }
+
+        @Override
+        public boolean isFoldable() {
+            return true;
+        }
     }
 
     public static class GreaterThan extends BinaryComparisonFunction {
         private static final long serialVersionUID = 3074104624547345817L;
 
         @Override
-        public Boolean compareNumbers(Number n1, Number n2) {
-            return Boolean.valueOf(n1.doubleValue() > n2.doubleValue());
+        public boolean compareNumbers(double n1, double n2) {
+            return n1 > n2;
         }
 
         @Override
@@ -150,8 +180,8 @@ public class MultiFunctions {
         private static final long serialVersionUID = 3829111446062691280L;
 
         @Override
-        public Boolean compareNumbers(Number n1, Number n2) {
-            return Boolean.valueOf(n1.doubleValue() >= n2.doubleValue());
+        public boolean compareNumbers(double n1, double n2) {
+            return n1 >= n2;
         }
 
         @Override
@@ -169,8 +199,8 @@ public class MultiFunctions {
         private static final long serialVersionUID = 6388516633368411081L;
 
         @Override
-        public Boolean compareNumbers(Number n1, Number n2) {
-            return Boolean.valueOf(n1.doubleValue() < n2.doubleValue());
+        public boolean compareNumbers(double n1, double n2) {
+            return n1 < n2;
         }
 
         @Override
@@ -188,8 +218,8 @@ public class MultiFunctions {
         private static final long serialVersionUID = 5236251545372152801L;
 
         @Override
-        public Boolean compareNumbers(Number n1, Number n2) {
-            return Boolean.valueOf(n1.doubleValue() <= n2.doubleValue());
+        public boolean compareNumbers(double n1, double n2) {
+            return n1 <= n2;
         }
 
         @Override
@@ -0,0 +1,132 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.expression;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.auraframework.expression.Expression;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.instance.ValueProvider;
+import org.auraframework.service.ContextService;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Test;
+import org.mockito.Mock;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+
+/**
+ * Tests for the ExpressionCompiler
+ */
+public class ExpressionCompilerTest extends UnitTestCase {
+
+    @Mock
+    ContextService contextService;
+
+    @Mock
+    DefinitionService definitionService;
+
+    private static final ImmutableMap<String, Object> VALUES = ImmutableMap.<String, Object> builder()
+            .put("v.zero", 0)
+            .put("v.one", 1)
+            .put("v.half", 0.5)
+            .put("v.empty", "")
+            .put("v.label", "label")
+            .put("v.yes", Boolean.TRUE)
+            .put("v.no", Boolean.FALSE)
+            .build();
+
+    private static final String[] EXPRESSIONS = {
+        "5", "'text'", "null", "true", "v.one", "v.missing",
+        "v.one + v.half", "v.label + v.one", "v.missing + 1", "'a' + null",
+        "v.one - v.half * 3 / 7 % 2", "-v.one", "!v.empty", "!!v.label",
+        "v.one == 1", "v.one != v.half", "v.label == 'label'", "v.zero < v.half", "v.label >= 'abc'",
+        "v.yes && v.label", "v.no || v.zero", "v.zero && v.missing",
+        "v.yes ? v.one : v.label", "v.empty ? 1 : 2", "if(v.yes, 'y')", "if(v.no, 'y')",
+        "empty(v.label)", "empty(v.missing)", "format('{0} of {1}', v.one, v.half)",
+        "join(',', v.label, v.one)", "add(v.one)", "concat(v.label, 'x', v.one)", "not(v.no, v.yes)",
+        "eq()", "abs(-3)", "v.one + (v.yes ? 2 : v.half) * -(v.zero - 4)"
+    };
+
+    private final List<String> lookups = new ArrayList<>();
+
+    private final ValueProvider vp = new ValueProvider() {
+        @Override
+        public Object getValue(PropertyReference key) {
+            lookups.add(key.toString());
+            return VALUES.get(key.toString());
+        }
+    };
+
+    private AuraExpressionBuilder builder;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+    }
+
+    /**
+     * Evaluate the tree the way FunctionCallImpl did before it was compiled.
+     */
+    private Object interpret(Expression e) throws Exception {
+        if (e instanceof FunctionCallImpl) {
+            FunctionCallImpl fc = (FunctionCallImpl) e;
+            List<Object> values = new ArrayList<>();
+            for (Expression arg : fc.getArguments()) {
+                values.add(interpret(arg));
+            }
+            return fc.getFunction().evaluate(values);
+        }
+        return e.evaluate(vp);
+    }
+
+    @Test
+    public void testCompiledMatchesInterpreted() throws Exception {
+        for (String expression : EXPRESSIONS) {
+            Expression e = builder.buildExpression(expression, null);
+
+            lookups.clear();
+            Object expected = interpret(e);
+            List<String> expectedLookups = new ArrayList<>(lookups);
+
+            lookups.clear();
+            Object actual = ExpressionCompiler.compile(e).evaluate(vp);
+
+            assertEquals("Unexpected evaluation of <" + expression + ">", expected, actual);
+            assertEquals("Unexpected lookups for <" + expression + ">", expectedLookups, lookups);
+        }
+    }
+
+    @Test
+    public void testAllArgumentsEvaluatedInOrder() throws Exception {
+        Expression e = builder.buildExpression("v.yes ? v.one : v.label", null);
+
+        assertEquals(1, e.evaluate(vp));
+        assertEquals("All branches of a ternary are evaluated", ImmutableList.of("v.yes", "v.one", "v.label"), lookups);
+    }
+
+    @Test
+    public void testRepeatedEvaluation() throws Exception {
+        Expression e = builder.buildExpression("v.label + v.one", null);
+
+        assertEquals("label1", e.evaluate(vp));
+        assertEquals("label1", e.evaluate(vp));
+        assertEquals(ImmutableList.of("v.label", "v.one", "v.label", "v.one"), lookups);
+    }
+}
@@ -18,6 +18,7 @@ package org.auraframework.impl.expression;
 import static org.auraframework.impl.expression.functions.BooleanFunctions.AND;
 import static org.auraframework.impl.expression.functions.BooleanFunctions.NOT;
 import static org.auraframework.impl.expression.functions.BooleanFunctions.OR;
+import static org.auraframework.impl.expression.functions.BooleanFunctions.TERNARY;
 import static org.auraframework.impl.expression.functions.MathFunctions.SUBTRACT;
 import static org.auraframework.impl.expression.functions.MultiFunctions.ADD;
 
@@ -25,12 +26,14 @@ import java.math.BigDecimal;
 
 import org.auraframework.expression.Expression;
 import org.auraframework.expression.ExpressionType;
+import org.auraframework.expression.FunctionCall;
 import org.auraframework.expression.PropertyReference;
 import org.auraframework.instance.ValueProvider;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.Location;
 import org.auraframework.util.test.util.UnitTestCase;
+import org.junit.Assume;
 import org.junit.Test;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -138,9 +141,9 @@ public class ExpressionTest extends UnitTestCase {
 
     @Test
     public void testFunctionWithNullOperands() throws Exception {
-        verifyEvaluateResult("true && null", ExpressionType.FUNCTION, null, null);
+        verifyEvaluateResult("true && null", ExpressionType.LITERAL, null, null);
         verifyEvaluateResult("null + 1", ExpressionType.FUNCTION, null, 1);
-        verifyEvaluateResult("'null' == null", ExpressionType.FUNCTION, null, false);
+        verifyEvaluateResult("'null' == null", ExpressionType.LITERAL, null, false);
     }
 
     // currently throws NullPointerException
@@ -161,7 +164,7 @@ public class ExpressionTest extends UnitTestCase {
         verifyEvaluateResult("3 + ' little piggies'", ExpressionType.FUNCTION, null, "3 little piggies");
 
         verifyEvaluateResult("'5' + 6", ExpressionType.FUNCTION, null, "56");
-        verifyEvaluateResult("'2' == 2", ExpressionType.FUNCTION, null, false);
+        verifyEvaluateResult("'2' == 2", ExpressionType.LITERAL, null, false);
     }
 
     @Test
@@ -177,7 +180,137 @@ public class ExpressionTest extends UnitTestCase {
 
     @Test
     public void testMultilineFunction() throws Exception {
-        verifyEvaluateResult("5 +\r\n1\r\n!=\r\n'null'", ExpressionType.FUNCTION, null, true);
+        verifyEvaluateResult("5 +\r\n1\r\n!=\r\n'null'", ExpressionType.LITERAL, null, true);
+    }
+
+    @Test
+    public void testConstantsAreFolded() throws Exception {
+        verifyEvaluateResult("'slds-' + 'button'", ExpressionType.LITERAL, null, "slds-button");
+        verifyEvaluateResult("true", ExpressionType.LITERAL, null, true);
+        verifyEvaluateResult("1 + 2", ExpressionType.LITERAL, null, 3);
+        verifyEvaluateResult("!!false", ExpressionType.LITERAL, null, false);
+        verifyEvaluateResult("abs(-3) * (2 > 1 ? 2 : 0)", ExpressionType.LITERAL, null, 6.0);
+    }
+
+    @Test
+    public void testFoldingKeepsReferences() throws Exception {
+        verifyEvaluateResult("v.label + ('-' + 'x')", ExpressionType.FUNCTION, values, "-x");
+        verifyEvaluateResult("v.label && true", ExpressionType.FUNCTION, values, null);
+        verifyEvaluateResult("format('{0}', 1)", ExpressionType.FUNCTION, null, "1");
+    }
+
+    /**
+     * The client adds by javascript rules, so only strings or numbers on both sides are added while parsing.
+     */
+    @Test
+    public void testAddIsFoldedOnlyForStringsOrNumbers() throws Exception {
+        AuraExpressionBuilder builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+
+        assertEquals(ExpressionType.FUNCTION, builder.buildExpression("null + null", l).getExpressionType());
+        assertEquals(ExpressionType.FUNCTION, builder.buildExpression("true + 1", l).getExpressionType());
+        assertEquals(ExpressionType.FUNCTION, builder.buildExpression("true + true", l).getExpressionType());
+        assertEquals(ExpressionType.FUNCTION, builder.buildExpression("1 + 'a'", l).getExpressionType());
+        assertEquals(ExpressionType.LITERAL, builder.buildExpression("'a' + 'b'", l).getExpressionType());
+        assertEquals(ExpressionType.LITERAL, builder.buildExpression("1.5 + 2", l).getExpressionType());
+    }
+
+    @Test
+    public void testBooleanIdentitiesAreSimplified() throws Exception {
+        AuraExpressionBuilder builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+
+        assertEquals(NOT, ((FunctionCallImpl) builder.buildExpression("true && !v.a", l)).getFunction());
+        assertEquals(ADD, ((FunctionCallImpl) builder.buildExpression("false || v.a + 1", l)).getFunction());
+        assertEquals(NOT, ((FunctionCallImpl) builder.buildExpression("false ? v.a : !v.b", l)).getFunction());
+        assertEquals(ExpressionType.LITERAL, builder.buildExpression("0 && v.a", l).getExpressionType());
+        assertEquals(ExpressionType.LITERAL, builder.buildExpression("if(null, v.a)", l).getExpressionType());
+    }
+
+    /**
+     * The calls are bound one way, so they must not become bare property references, which would be assignable.
+     */
+    @Test
+    public void testSelectedReferencesStayWrapped() throws Exception {
+        AuraExpressionBuilder builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+
+        assertEquals(AND, ((FunctionCallImpl) builder.buildExpression("true && v.a", l)).getFunction());
+        assertEquals(OR, ((FunctionCallImpl) builder.buildExpression("false || v.a", l)).getFunction());
+        assertEquals(TERNARY, ((FunctionCallImpl) builder.buildExpression("true ? v.a : v.b", l)).getFunction());
+        assertEquals(TERNARY, ((FunctionCallImpl) builder.buildExpression("if('yes', v.a)", l)).getFunction());
+        verifyEvaluateResult("true && v.label", ExpressionType.FUNCTION, values, null);
+    }
+
+    @Test
+    public void testCachedExpressionTakesCallerLocation() throws Exception {
+        AuraExpressionBuilder builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+        Location first = new Location("first", 1, 1, -1);
+        Location second = new Location("second", 2, 2, -1);
+
+        FunctionCall e1 = (FunctionCall) builder.buildExpression("v.a + 'b'", first);
+        FunctionCall e2 = (FunctionCall) builder.buildExpression("v.a + 'b'", second);
+
+        assertNotSame(e1, e2);
+        assertEquals(first, e1.getLocation());
+        assertEquals(second, e2.getLocation());
+        assertEquals(second, e2.getArguments().get(0).getLocation());
+        assertEquals(second, e2.getArguments().get(1).getLocation());
+        assertEquals(e1.getArguments().get(0), e2.getArguments().get(0));
+    }
+
+    @Test
+    public void testCachedExpressionIsNotShared() throws Exception {
+        AuraExpressionBuilder builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+
+        FunctionCall e1 = (FunctionCall) builder.buildExpression("v.a + v.b", l);
+        e1.setByValue(true);
+        FunctionCall e2 = (FunctionCall) builder.buildExpression("v.a + v.b", l);
+
+        assertTrue(((PropertyReference) e1.getArguments().get(0)).isByValue());
+        assertFalse(((PropertyReference) e2.getArguments().get(0)).isByValue());
+    }
+
+    /**
+     * Micro benchmark of building expressions, parsing against the cached lookup, over a synthetic corpus of
+     * component expressions.
+     *
+     * Only runs with -Daura.benchmark=true, and reports timings rather than asserting on them, since they depend on
+     * the machine running the test.
+     */
+    @Test
+    public void testBenchmarkCachedParse() throws Exception {
+        Assume.assumeTrue(Boolean.getBoolean("aura.benchmark"));
+        AuraExpressionBuilder builder = new AuraExpressionBuilder(new ExpressionFunctions(contextService, definitionService));
+        String[] corpus = new String[500];
+        for (int i = 0; i < corpus.length; i++) {
+            switch (i % 5) {
+            case 0: corpus[i] = "v.item" + i; break;
+            case 1: corpus[i] = "!empty(v.items" + i + ")"; break;
+            case 2: corpus[i] = "v.selected == " + i + " ? 'slds-is-active' : ''"; break;
+            case 3: corpus[i] = "c.handleClick" + i; break;
+            default: corpus[i] = "v.label" + i + " + ' (' + v.count + ')'"; break;
+            }
+        }
+        int passes = 20;
+        long parseNanos = 0;
+        long cachedNanos = 0;
+
+        for (int pass = 0; pass < passes; pass++) {
+            builder.clearCache();
+            long start = System.nanoTime();
+            for (String expression : corpus) {
+                builder.buildExpression(expression, l);
+            }
+            parseNanos += System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (String expression : corpus) {
+                builder.buildExpression(expression, l);
+            }
+            cachedNanos += System.nanoTime() - start;
+        }
+
+        int builds = passes * corpus.length;
+        System.out.println(String.format("AuraExpressionBuilder: parse %d ns/expression, cached %d ns/expression",
+                parseNanos / builds, cachedNanos / builds));
     }
 
     private void verifyEvaluateResult(String expression, ExpressionType type, ValueProvider vp, Object result)
@@ -34,10 +34,13 @@ import static org.auraframework.impl.expression.functions.MultiFunctions.LESS_TH
 import static org.auraframework.impl.expression.functions.MultiFunctions.NOTEQUALS;
 import static org.junit.Assert.assertEquals;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 import java.util.Map;
 
+import org.junit.Assume;
 import org.junit.Test;
 
 import com.google.common.collect.Lists;
@@ -50,9 +53,32 @@ public class FunctionsTest {
     
     private static final Empty  EMPTY  = Empty.getInstance();
     private static final Format FORMAT = Format.getInstance();
+
+    /** keeps the benchmark results alive */
+    static int blackhole;
     
+    /**
+     * Evaluate through the list, checking that the arity specific invoke gives the same.
+     */
     private Object evaluate(Function f, Object... args) {
-        return f.evaluate(Lists.newArrayList(args));
+        Object result = f.evaluate(Lists.newArrayList(args));
+        if (args.length <= 3) {
+            assertEquals("invoke does not match evaluate", result, invoke(f, args));
+        }
+        return result;
+    }
+
+    private static Object invoke(Function f, Object... args) {
+        switch (args.length) {
+        case 0:
+            return f.invoke();
+        case 1:
+            return f.invoke(args[0]);
+        case 2:
+            return f.invoke(args[0], args[1]);
+        default:
+            return f.invoke(args[0], args[1], args[2]);
+        }
     }
 
     /* ADD
@@ -1948,4 +1974,56 @@ public class FunctionsTest {
     	assertEquals("X{0}Y", evaluate(FORMAT, "X{0}Y"));
     }
 
+    /**
+     * Micro benchmark of calling functions through an argument list against the arity specific invoke.
+     *
+     * Only runs with -Daura.benchmark=true, and reports timings rather than asserting on them, since they depend on
+     * the machine running the test.
+     */
+    @Test
+    public void testBenchmarkInvoke() {
+        Assume.assumeTrue(Boolean.getBoolean("aura.benchmark"));
+        Object[][] calls = {
+            { "add", ADD, 314, 2.5 },
+            { "eq", EQUALS, "slds", "slds" },
+            { "ne", NOTEQUALS, 1L, 2.0 },
+            { "and", AND, true, "x" },
+            { "or", OR, false, 0 },
+            { "not", NOT, "" },
+            { "concat", ADD, "slds-", "button" },
+            { "format", FORMAT, "{0} of {1}", 1, 10 }
+        };
+        int iterations = 200000;
+        int sink = 0;
+
+        for (Object[] call : calls) {
+            Function f = (Function) call[1];
+            Object[] args = Arrays.copyOfRange(call, 2, call.length);
+            long listNanos = 0;
+            long invokeNanos = 0;
+
+            // the last round is the one measured
+            for (int round = 0; round < 3; round++) {
+                long start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    List<Object> values = new ArrayList<>(args.length);
+                    for (Object arg : args) {
+                        values.add(arg);
+                    }
+                    sink += f.evaluate(values).hashCode();
+                }
+                listNanos = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for (int i = 0; i < iterations; i++) {
+                    sink += invoke(f, args).hashCode();
+                }
+                invokeNanos = System.nanoTime() - start;
+            }
+
+            System.out.println(String.format("%s: list %d ns/call, invoke %d ns/call",
+                    call[0], listNanos / iterations, invokeNanos / iterations));
+        }
+        blackhole = sink;
+    }
 }
@@ -20,10 +20,19 @@ import org.apache.log4j.Logger;
 import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
+import org.auraframework.css.StyleTokenIndex;
+import org.auraframework.def.BaseStyleDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.Definition;
+import org.auraframework.def.TokensDef;
+import org.auraframework.http.BootstrapResponse;
+import org.auraframework.http.ComponentDefinitionResponse;
+import org.auraframework.http.ParsedContextConfig;
 import org.auraframework.impl.cache.CacheImpl;
 import org.auraframework.impl.cache.HardCacheImpl;
+import org.auraframework.impl.css.StyleDefWriter;
+import org.auraframework.instance.CachedActionResult;
 import org.auraframework.service.CachingService;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.RegistrySet;
@@ -37,7 +46,10 @@ import org.springframework.stereotype.Component;
 import javax.annotation.PostConstruct;
 import javax.inject.Inject;
 import java.lang.ref.WeakReference;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Lock;
@@ -62,11 +74,29 @@ public class CachingServiceImpl implements CachingService {
     private final static int ALT_STRINGS_CACHE_SIZE = 100;
     private final static int CSS_STRINGS_CACHE_SIZE = 50;
 
+    /** Default size of the rendered style def cache, in number of entries */
+    private final static int STYLE_DEF_OUTPUT_CACHE_SIZE = 16384;
+
     /** Default size of client lib caches, in number of entries */
     private final static int CLIENT_LIB_CACHE_SIZE = 30;
     
     /** Default size of registry sets, in number of entries */
     private final static int REGISTRY_SET_CACHE_SIZE = 100;
+
+    /** Default size of the component definition response cache, in number of entries */
+    private final static int COMPONENT_DEFINITION_RESPONSE_CACHE_SIZE = 4096;
+
+    /** Default size of the publicly cacheable action result cache, in number of entries */
+    private final static int ACTION_RESULT_CACHE_SIZE = 1024;
+
+    /** Default size of the resource ETag cache, in number of entries */
+    private final static int RESOURCE_ETAG_CACHE_SIZE = 16384;
+
+    /** Default size of the bootstrap response cache, in number of entries */
+    private final static int BOOTSTRAP_RESPONSE_CACHE_SIZE = 512;
+
+    /** Default size of the parsed aura.context cache, in number of entries */
+    private final static int CONTEXT_CONFIG_CACHE_SIZE = 2048;
     
     private LoggingAdapter loggingAdapter;
 
@@ -83,6 +113,8 @@ public class CachingServiceImpl implements CachingService {
     private Cache<String, String> stringsCache;
     private Cache<String, String> altStringsCache;
     private Cache<String, String> cssStringsCache;
+    private Cache<String, String> styleDefOutputCache;
+    private final StyleTokenIndex styleTokenIndex = new StyleTokenIndex();
     private Cache<String, Set<DefDescriptor<?>>> descriptorFilterCache;
     /**
      * depsCache contains multiple entries for dependencies.
@@ -93,6 +125,11 @@ public class CachingServiceImpl implements CachingService {
     private Cache<String, DependencyEntry> depsCache;
     private Cache<String, String> clientLibraryOutputCache;
     private Cache<RegistrySet.RegistrySetKey, RegistrySet> registrySetCache;
+    private Cache<String, ComponentDefinitionResponse> componentDefinitionResponseCache;
+    private Cache<String, CachedActionResult> actionResultCache;
+    private Cache<String, Long> resourceETagCache;
+    private Cache<String, BootstrapResponse> bootstrapResponseCache;
+    private Cache<String, ParsedContextConfig> contextConfigCache;
 
     private static final Logger logger = Logger.getLogger(CachingServiceImpl.class);
 
@@ -144,6 +181,15 @@ public class CachingServiceImpl implements CachingService {
                 .setName("cssStringsCache")
                 .setSoftValues(true).build();      
 
+        size = getCacheSize("aura.cache.styleDefOutputCacheSize", STYLE_DEF_OUTPUT_CACHE_SIZE);
+        styleDefOutputCache = this.<String, String>getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setRecordStats(true)
+                .setName("styleDefOutputCache")
+                .setSoftValues(true).build();
+
         size = getCacheSize("aura.cache.filterCacheSize", FILTER_CACHE_SIZE);
         descriptorFilterCache = this
                 .<String, Set<DefDescriptor<?>>> getCacheBuilder()
@@ -182,7 +228,50 @@ public class CachingServiceImpl implements CachingService {
                    .setName("registrySetCache")
                    .setRecordStats(true)
                    .build();
-        
+
+        size = getCacheSize("aura.cache.componentDefinitionResponseCacheSize", COMPONENT_DEFINITION_RESPONSE_CACHE_SIZE);
+        componentDefinitionResponseCache = this.<String, ComponentDefinitionResponse> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setSoftValues(true)
+                .setName("componentDefinitionResponseCache")
+                .setRecordStats(true).build();
+
+        size = getCacheSize("aura.cache.actionResultCacheSize", ACTION_RESULT_CACHE_SIZE);
+        actionResultCache = this.<String, CachedActionResult> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setSoftValues(true)
+                .setName("actionResultCache")
+                .setRecordStats(true).build();
+
+        size = getCacheSize("aura.cache.resourceETagCacheSize", RESOURCE_ETAG_CACHE_SIZE);
+        resourceETagCache = this.<String, Long> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setName("resourceETagCache")
+                .setRecordStats(true).build();
+
+        size = getCacheSize("aura.cache.bootstrapResponseCacheSize", BOOTSTRAP_RESPONSE_CACHE_SIZE);
+        bootstrapResponseCache = this.<String, BootstrapResponse> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setSoftValues(true)
+                .setName("bootstrapResponseCache")
+                .setRecordStats(true).build();
+
+        size = getCacheSize("aura.cache.contextConfigCacheSize", CONTEXT_CONFIG_CACHE_SIZE);
+        contextConfigCache = this.<String, ParsedContextConfig> getCacheBuilder()
+                .setInitialSize(size)
+                .setLoggingAdapter(loggingAdapter)
+                .setMaximumSize(size)
+                .setSoftValues(true)
+                .setName("contextConfigCache")
+                .setRecordStats(true).build();
     }
 
     @Override
@@ -210,6 +299,16 @@ public class CachingServiceImpl implements CachingService {
         return cssStringsCache;
     }
 
+    @Override
+    public Cache<String, String> getStyleDefOutputCache() {
+        return styleDefOutputCache;
+    }
+
+    @Override
+    public StyleTokenIndex getStyleTokenIndex() {
+        return styleTokenIndex;
+    }
+
     @Override
     public final Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache() {
         return descriptorFilterCache;
@@ -230,6 +329,31 @@ public class CachingServiceImpl implements CachingService {
         return registrySetCache;
     }
     
+    @Override
+    public Cache<String, ComponentDefinitionResponse> getComponentDefinitionResponseCache() {
+        return componentDefinitionResponseCache;
+    }
+
+    @Override
+    public Cache<String, CachedActionResult> getActionResultCache() {
+        return actionResultCache;
+    }
+
+    @Override
+    public Cache<String, Long> getResourceETagCache() {
+        return resourceETagCache;
+    }
+
+    @Override
+    public Cache<String, BootstrapResponse> getBootstrapResponseCache() {
+        return bootstrapResponseCache;
+    }
+
+    @Override
+    public Cache<String, ParsedContextConfig> getContextConfigCache() {
+        return contextConfigCache;
+    }
+
     @Override
     public Lock getReadLock() {
         return rwLock.readLock();
@@ -269,7 +393,9 @@ public class CachingServiceImpl implements CachingService {
                 return;
             }
 
-            // successfully acquired the lock, start clearing caches
+            // successfully acquired the lock, start clearing caches. The changed tokens are looked up before the
+            // defs are dropped.
+            invalidateTokenDependents(filePath);
             invalidateSourceRelatedCaches();
 
             // notify provided listeners, presumably to clear caches
@@ -294,6 +420,50 @@ public class CachingServiceImpl implements CachingService {
         }
     }
 
+    /**
+     * Drops the rendered output of the style defs referencing the tokens declared in the given source, if it is a
+     * loaded tokens def. The output of other style defs is kept for the next app.css.
+     */
+    private void invalidateTokenDependents(String filePath) {
+        if (filePath == null) {
+            return;
+        }
+
+        Set<String> tokenNames = new HashSet<>();
+        for (DefDescriptor<?> descriptor : defsCache.getKeySet()) {
+            if (descriptor.getDefType() == DefType.TOKENS) {
+                Optional<? extends Definition> def = defsCache.getIfPresent(descriptor);
+                if (def != null && def.isPresent() && def.get().getLocation() != null
+                        && filePath.equals(def.get().getLocation().getFileName())) {
+                    tokenNames.addAll(((TokensDef) def.get()).getDeclaredNames());
+                }
+            }
+        }
+        if (tokenNames.isEmpty()) {
+            return;
+        }
+
+        Set<String> prefixes = new HashSet<>();
+        for (DefDescriptor<? extends BaseStyleDef> style : styleTokenIndex.removeDependents(tokenNames)) {
+            prefixes.add(StyleDefWriter.getOutputKeyPrefix(style));
+        }
+        if (prefixes.isEmpty()) {
+            return;
+        }
+
+        // one pass over the keys rather than an invalidatePartial for each style def
+        List<String> stale = new ArrayList<>();
+        for (String key : styleDefOutputCache.getKeySet()) {
+            if (prefixes.contains(key.substring(0, key.indexOf('|') + 1))) {
+                stale.add(key);
+            }
+        }
+        styleDefOutputCache.invalidate(stale);
+    }
+
+    // styleDefOutputCache is not cleared here, its keys carry the own hash of each style def and the resolved values
+    // of the tokens it references, so entries for changed sources are never hit again and age out. Entries depending
+    // on changed tokens are dropped early by invalidateTokenDependents.
     private void invalidateSourceRelatedCaches() {
         depsCache.invalidateAll();
         descriptorFilterCache.invalidateAll();
@@ -301,6 +471,11 @@ public class CachingServiceImpl implements CachingService {
         altStringsCache.invalidateAll();
         clientLibraryOutputCache.invalidateAll();
         registrySetCache.invalidateAll();
+        componentDefinitionResponseCache.invalidateAll();
+        actionResultCache.invalidateAll();
+        resourceETagCache.invalidateAll();
+        bootstrapResponseCache.invalidateAll();
+        contextConfigCache.invalidateAll();
         defsCache.invalidateAll();
         existsCache.invalidateAll();
     }
@@ -134,6 +134,16 @@ public class ContextAdapterImpl implements ContextAdapter {
         return currentContext.get() != null;
     }
 
+    @Override
+    public boolean isAttachSupported() {
+        return true;
+    }
+
+    @Override
+    public void attach(AuraContext context) {
+        currentContext.set(context);
+    }
+
     @Override
     public void release() {
         currentContext.set(null);
@@ -49,4 +49,14 @@ public class LoggingAdapterImpl implements LoggingAdapter {
     public LoggingContext getLoggingContext() {
         return currentContext.get();
     }
+
+    @Override
+    public boolean isAttachSupported() {
+        return true;
+    }
+
+    @Override
+    public void attach(LoggingContext loggingContext) {
+        currentContext.set(loggingContext);
+    }
 }
@@ -23,14 +23,23 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.TreeMap;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.adapter.ContextAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
+import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
 import org.auraframework.adapter.StyleAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
@@ -53,6 +62,7 @@ import org.auraframework.def.module.ModuleDef;
 import org.auraframework.http.BootstrapUtil;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.impl.cache.ApplicationInitializerCache;
+import org.auraframework.impl.context.SynchronizedLoggingContext;
 import org.auraframework.impl.css.CssVariableWriter;
 import org.auraframework.impl.css.StyleDefWriter;
 import org.auraframework.impl.util.BrowserUserAgent;
@@ -61,8 +71,10 @@ import org.auraframework.impl.util.UserAgent;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.ApplicationInitializer;
 import org.auraframework.instance.BaseComponent;
+import org.auraframework.instance.CachedActionResult;
 import org.auraframework.instance.Component;
 import org.auraframework.instance.Event;
+import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.Instance;
 import org.auraframework.service.CSPInliningService;
 import org.auraframework.service.CachingService;
@@ -75,9 +87,11 @@ import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.DependencyEntry;
+import org.auraframework.system.LoggingContext;
 import org.auraframework.system.LoggingContext.KeyValueLogger;
 import org.auraframework.system.Message;
 import org.auraframework.throwable.AuraExecutionException;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil.JSONEscapedFunctionStringBuilder;
 import org.auraframework.util.javascript.Literal;
@@ -92,6 +106,8 @@ import com.google.common.base.Throwables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.common.util.concurrent.UncheckedExecutionException;
 
 @ServiceComponent
 public class ServerServiceImpl implements ServerService {
@@ -144,8 +160,20 @@ public class ServerServiceImpl implements ServerService {
     @Lazy
     private ApplicationInitializerCache applicationInitializerCache;
 
+    @Inject
+    @Lazy
+    private ContextAdapter contextAdapter;
+
+    @Inject
+    @Lazy
+    private LoggingAdapter loggingAdapter;
+
     private ManifestUtil manifestUtil;
 
+    private volatile ExecutorService concurrentActionExecutor;
+
+    private volatile ExecutorService styleWriterExecutor;
+
     @PostConstruct
     public void createManifestUtil() {
         manifestUtil = new ManifestUtil(definitionService, contextService, configAdapter);
@@ -168,6 +196,17 @@ public class ServerServiceImpl implements ServerService {
 
     @Override
     public void run(Message message, AuraContext context, Writer out, Map<?,?> extras) throws IOException {
+        run(message, context, out, extras, 0);
+    }
+
+    @Override
+    public void runPubliclyCacheable(Message message, AuraContext context, Writer out, Map<?,?> extras,
+            long expiration) throws IOException {
+        run(message, context, out, extras, expiration);
+    }
+
+    private void run(Message message, AuraContext context, Writer out, Map<?,?> extras, long publicCacheExpiration)
+            throws IOException {
         if (message == null) {
             return;
         }
@@ -185,7 +224,11 @@ public class ServerServiceImpl implements ServerService {
             }
             json.writeMapKey("actions");
             json.writeArrayBegin();
-            run(actions, json, 0);
+            if (publicCacheExpiration > 0 && actions.size() == 1) {
+                runPubliclyCacheable(actions.get(0), json, 0, context, publicCacheExpiration);
+            } else {
+                run(actions, json, 0);
+            }
             json.writeArrayEnd();
 
             loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
@@ -281,54 +324,387 @@ public class ServerServiceImpl implements ServerService {
 
     private int run(List<Action> actions, JsonEncoder json, int idx) throws IOException {
         AuraContext context = contextService.getCurrentContext();
+        ExecutorService executor = getConcurrentActionExecutor();
+        int counter = idx;
+        int i = 0;
+        while (i < actions.size()) {
+            int end = i;
+            if (executor != null) {
+                // the same action instance may be queued more than once, it must never overlap itself.
+                Set<Action> group = Sets.newIdentityHashSet();
+                while (end < actions.size() && actions.get(end).isConcurrent() && group.add(actions.get(end))) {
+                    end++;
+                }
+            }
+            if (end - i > 1) {
+                counter = runConcurrently(actions.subList(i, end), json, counter, context, executor);
+                i = end;
+            } else {
+                counter = run(actions.get(i), json, counter, context);
+                i++;
+            }
+        }
+        return counter;
+    }
+
+    /**
+     * Run a single action on the request thread and serialize it, followed by any actions it added.
+     */
+    private int run(Action action, JsonEncoder json, int idx, AuraContext context) throws IOException {
         int counter = idx;
-        for (Action action : actions) {
-            StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
-            KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
-            if (logger != null) {
-                action.logParams(logger);
-            }
-            String aap = String.valueOf(++counter)+"$"+actionAndParams.toString();
-            loggingService.startAction(aap, action);
+        String aap = getActionLogName(action, ++counter);
+        boolean earlyCleanup;
+        loggingService.startAction(aap, action);
+        try {
             setupCallingDefinition(action, context);
-            Action oldAction = context.setCurrentAction(action);
-            boolean earlyCleanup = false;
-            try {
-                action.setup();
-                action.run();
-            } catch (AuraExecutionException x) {
-                earlyCleanup = true;
-                exceptionAdapter.handleException(x, action);
-            } finally {
-                if (earlyCleanup){
-                    action.cleanup();
+            earlyCleanup = runAction(action, context);
+        } finally {
+            loggingService.stopAction(aap);
+        }
+        return serializeAction(action, json, counter, earlyCleanup);
+    }
+
+    /**
+     * Run a publicly cacheable action, reusing its serialized result while that has not expired.
+     *
+     * Loading goes through the cache, so concurrent requests for the same key wait for a single run of the action
+     * instead of all running it. Only successful results without additional actions are kept; anything else is
+     * written out once and dropped, and requests that were waiting on it run the action themselves. A cached result
+     * is written without running the action, so results of actions that added anything to the context of the
+     * response, such as definitions, labels or events, are not kept either. The id of the action is not part of the
+     * cached result, each request gets its own written in.
+     */
+    private int runPubliclyCacheable(Action action, JsonEncoder json, int idx, AuraContext context,
+            long expiration) throws IOException {
+        Cache<String, CachedActionResult> cache = cachingService.getActionResultCache();
+        if (cache == null || action.getId() == null) {
+            return run(action, json, idx, context);
+        }
+        String key = getActionResultCacheKey(action, context);
+        CachedActionResult cached = cache.getIfPresent(key);
+        if (cached != null && cached.isExpired(System.currentTimeMillis())) {
+            cache.invalidate(key);
+        }
+        int counter = idx + 1;
+        JsonSerializationContext serializationContext = json.getSerializationContext();
+        String[] loaded = new String[1];
+        CachedActionResult result;
+        try {
+            result = cache.get(key,
+                    () -> runForCache(action, counter, context, expiration, serializationContext, loaded));
+        } catch (ExecutionException ee) {
+            Throwables.propagateIfPossible(ee.getCause());
+            throw new AuraRuntimeException(ee.getCause());
+        } catch (UncheckedExecutionException uee) {
+            // the action failed the same way it would have uncached.
+            Throwables.propagateIfPossible(uee.getCause());
+            throw new AuraRuntimeException(uee.getCause());
+        }
+        if (loaded[0] != null) {
+            writeActionPayload(json, loaded[0]);
+            if (result.isExpired(System.currentTimeMillis())) {
+                cache.invalidate(key);
+            }
+            List<Action> additionalActions = action.getActions();
+            if (additionalActions != null && !additionalActions.isEmpty()) {
+                return run(additionalActions, json, counter);
+            }
+            return counter;
+        }
+        if (result.isExpired(System.currentTimeMillis())) {
+            return run(action, json, idx, context);
+        }
+        writeActionPayload(json, result.getPayload(JsonEncoder.serialize(action.getId(), serializationContext)));
+        return counter;
+    }
+
+    /**
+     * Run an action for the action result cache.
+     *
+     * @param payload receives the payload written for the action, including its id.
+     * @return the result to cache, already expired if it must not be reused.
+     */
+    private CachedActionResult runForCache(Action action, int counter, AuraContext context, long expiration,
+            JsonSerializationContext serializationContext, String[] payload) {
+        String aap = getActionLogName(action, counter);
+        boolean earlyCleanup;
+        List<Object> contributions;
+        loggingService.startAction(aap, action);
+        try {
+            setupCallingDefinition(action, context);
+            contributions = getContextContributions(context);
+            earlyCleanup = runAction(action, context);
+        } finally {
+            loggingService.stopAction(aap);
+        }
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+        try {
+            payload[0] = JsonEncoder.serialize(action, serializationContext);
+        } finally {
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+            if (!earlyCleanup) {
+                action.cleanup();
+            }
+        }
+        List<Object> errors = action.getErrors();
+        List<Action> additionalActions = action.getActions();
+        boolean cacheable = action.getState() == Action.State.SUCCESS
+                && (errors == null || errors.isEmpty())
+                && (additionalActions == null || additionalActions.isEmpty())
+                && contributions.equals(getContextContributions(context));
+
+        // the id is the first entry written for an action.
+        String serializedId = JsonEncoder.serialize(action.getId(), serializationContext);
+        int idKey = payload[0].indexOf("\"id\"");
+        int idStart = idKey < 0 ? -1 : payload[0].indexOf(serializedId, idKey + 4);
+        if (idStart < 0) {
+            return new CachedActionResult(payload[0], "", 0);
+        }
+        return new CachedActionResult(payload[0].substring(0, idStart),
+                payload[0].substring(idStart + serializedId.length()),
+                cacheable ? System.currentTimeMillis() + expiration * 1000 : 0);
+    }
+
+    /**
+     * Everything an action can add to the context part of its response, to tell whether running it added anything.
+     */
+    private static List<Object> getContextContributions(AuraContext context) {
+        List<Object> contributions = Lists.newArrayList();
+        contributions.add(Sets.newHashSet(context.filterLocalDefs(context.getPreloadedDefinitions()).keySet()));
+        contributions.add(Maps.newHashMap(context.getLoaded()));
+        contributions.add(Integer.valueOf(context.getClientEvents().size()));
+        for (GlobalValueProvider valueProvider : context.getGlobalProviders().values()) {
+            contributions.add(valueProvider.isEmpty() ? null : JsonEncoder.serialize(valueProvider.getData()));
+        }
+        return contributions;
+    }
+
+    private static void writeActionPayload(JsonEncoder json, String payload) throws IOException {
+        json.writeComma();
+        json.writeIndent();
+        json.writeLiteral(payload);
+    }
+
+    /**
+     * The key of a publicly cacheable action result: everything a client can vary to get a different result, or
+     * to pass different access and version checks. Parameters are sorted by name so that the order they were sent
+     * in does not matter. The id is left out, it is written into the result for each request.
+     */
+    private static String getActionResultCacheKey(Action action, AuraContext context) {
+        Map<String, Object> params = action.getParams();
+        DefDescriptor<? extends BaseComponentDef> callingDescriptor = action.getCallingDescriptor();
+        DefDescriptor<? extends BaseComponentDef> app = context.getApplicationDescriptor();
+        return Joiner.on('|').useForNull("").join(
+                action.getDescriptor().getQualifiedName(),
+                params != null ? JsonEncoder.serialize(new TreeMap<>(params)) : null,
+                action.isStorable(),
+                callingDescriptor != null ? callingDescriptor.getQualifiedName() : null,
+                action.getCallerVersion(),
+                app != null ? app.getQualifiedName() : null,
+                context.getRequestedLocales(),
+                context.getActionPublicCacheKey(),
+                context.getMode());
+    }
+
+    /**
+     * Run a group of consecutive concurrent actions in parallel.
+     *
+     * Calling definitions are set up on the request thread, in order, before anything is submitted. Each action
+     * then runs on a worker with the request's context attached, and results are serialized on the request thread
+     * in the original order as soon as each one is available. While the group is running, the request's logging
+     * context is shared by all threads through a {@link SynchronizedLoggingContext}.
+     */
+    private int runConcurrently(List<Action> actions, JsonEncoder json, int idx, AuraContext context,
+            ExecutorService executor) throws IOException {
+        int counter = idx;
+        LoggingContext requestLoggingContext = loggingAdapter.getLoggingContext();
+        LoggingContext sharedLoggingContext = requestLoggingContext;
+        if (requestLoggingContext != null && !(requestLoggingContext instanceof SynchronizedLoggingContext)) {
+            sharedLoggingContext = new SynchronizedLoggingContext(requestLoggingContext);
+        }
+        loggingAdapter.attach(sharedLoggingContext);
+        List<Future<Boolean>> results = Lists.newArrayListWithCapacity(actions.size());
+        try {
+            for (Action action : actions) {
+                String aap = getActionLogName(action, ++counter);
+                setupCallingDefinition(action, context);
+                results.add(submitAction(executor, action, aap, context, sharedLoggingContext));
+            }
+            for (int i = 0; i < actions.size(); i++) {
+                boolean earlyCleanup = getActionResult(results.get(i));
+                counter = serializeAction(actions.get(i), json, counter, earlyCleanup);
+            }
+        } finally {
+            // never give the request thread its unsynchronized logging context back while workers still use it.
+            for (Future<Boolean> result : results) {
+                try {
+                    result.get();
+                } catch (Exception e) {
+                    // already reported, or the request is failing anyway.
                 }
-                context.setCurrentAction(oldAction);
-                loggingService.stopAction(aap);
             }
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
-            loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingAdapter.attach(requestLoggingContext);
+        }
+        return counter;
+    }
+
+    private Future<Boolean> submitAction(ExecutorService executor, Action action, String aap, AuraContext context,
+            LoggingContext loggingContext) {
+        FutureTask<Boolean> task = new FutureTask<>(() -> {
+            AuraContext previousContext = contextAdapter.getCurrentContext();
+            LoggingContext previousLoggingContext = loggingAdapter.getLoggingContext();
+            contextAdapter.attach(context);
+            loggingAdapter.attach(loggingContext);
+            context.beginConcurrentWork();
             try {
-                json.writeArrayEntry(action);
-            } finally {
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
-                loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
-                if (!earlyCleanup){
-                    action.cleanup();
+                loggingService.startAction(aap, action);
+                try {
+                    return runAction(action, context);
+                } finally {
+                    loggingService.stopAction(aap);
                 }
+            } finally {
+                context.endConcurrentWork();
+                contextAdapter.attach(previousContext);
+                loggingAdapter.attach(previousLoggingContext);
             }
+        });
+        try {
+            executor.execute(task);
+        } catch (RejectedExecutionException ree) {
+            // the pool is shutting down, just run it here.
+            task.run();
+        }
+        return task;
+    }
 
-            List<Action> additionalActions = action.getActions();
+    private static boolean getActionResult(Future<Boolean> result) {
+        try {
+            return result.get().booleanValue();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new AuraRuntimeException(ie);
+        } catch (ExecutionException ee) {
+            Throwables.propagateIfPossible(ee.getCause());
+            throw new AuraRuntimeException(ee.getCause());
+        }
+    }
 
-            // Recursively process any additional actions created by the
-            // action
-            if (additionalActions != null && !additionalActions.isEmpty()) {
-                counter = run(additionalActions, json, counter);
+    private String getActionLogName(Action action, int counter) {
+        StringBuffer actionAndParams = new StringBuffer(action.getDescriptor().getQualifiedName());
+        KeyValueLogger logger = loggingService.getKeyValueLogger(actionAndParams);
+        if (logger != null) {
+            action.logParams(logger);
+        }
+        return String.valueOf(counter)+"$"+actionAndParams.toString();
+    }
+
+    /**
+     * Run an action with the given context.
+     *
+     * @return true if the action was already cleaned up because it failed.
+     */
+    private boolean runAction(Action action, AuraContext context) {
+        Action oldAction = context.setCurrentAction(action);
+        boolean earlyCleanup = false;
+        try {
+            action.setup();
+            action.run();
+        } catch (AuraExecutionException x) {
+            earlyCleanup = true;
+            exceptionAdapter.handleException(x, action);
+        } finally {
+            if (earlyCleanup){
+                action.cleanup();
+            }
+            context.setCurrentAction(oldAction);
+        }
+        return earlyCleanup;
+    }
+
+    private int serializeAction(Action action, JsonEncoder json, int idx, boolean earlyCleanup) throws IOException {
+        int counter = idx;
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION);
+        loggingService.startTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+        try {
+            json.writeArrayEntry(action);
+        } finally {
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION_AURA);
+            loggingService.stopTimer(LoggingService.TIMER_SERIALIZATION);
+            if (!earlyCleanup){
+                action.cleanup();
             }
         }
+
+        List<Action> additionalActions = action.getActions();
+
+        // Recursively process any additional actions created by the
+        // action
+        if (additionalActions != null && !additionalActions.isEmpty()) {
+            counter = run(additionalActions, json, counter);
+        }
         return counter;
     }
 
+    /**
+     * Get the executor for concurrent actions, creating it on first use.
+     *
+     * @return the executor, or null if concurrent actions are disabled or the adapters cannot attach contexts to
+     *         other threads.
+     */
+    private ExecutorService getConcurrentActionExecutor() {
+        ExecutorService executor = concurrentActionExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        int threadCount = configAdapter.getConcurrentActionThreadCount();
+        if (threadCount <= 0 || !contextAdapter.isAttachSupported() || !loggingAdapter.isAttachSupported()) {
+            return null;
+        }
+        synchronized (this) {
+            if (concurrentActionExecutor == null) {
+                concurrentActionExecutor = Executors.newFixedThreadPool(threadCount,
+                        new ThreadFactoryBuilder().setNameFormat("aura-concurrent-action-%d").setDaemon(true).build());
+            }
+            return concurrentActionExecutor;
+        }
+    }
+
+    @PreDestroy
+    public void shutdownExecutors() {
+        for (ExecutorService executor : new ExecutorService[] { concurrentActionExecutor, styleWriterExecutor }) {
+            if (executor != null) {
+                executor.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Get the executor for rendering the style defs of app.css, creating it on first use.
+     *
+     * @return the executor, or null if style defs are rendered serially, as they are when the context adapter cannot
+     *         attach contexts to other threads.
+     */
+    private ExecutorService getStyleWriterExecutor() {
+        ExecutorService executor = styleWriterExecutor;
+        if (executor != null) {
+            return executor;
+        }
+        int threadCount = configAdapter.getStyleWriterThreadCount();
+        if (threadCount <= 0 || !contextAdapter.isAttachSupported()) {
+            return null;
+        }
+        synchronized (this) {
+            if (styleWriterExecutor == null) {
+                styleWriterExecutor = Executors.newFixedThreadPool(threadCount,
+                        new ThreadFactoryBuilder().setNameFormat("aura-style-writer-%d").setDaemon(true).build());
+            }
+            return styleWriterExecutor;
+        }
+    }
+
     @Override
     public void writeAppCss(final Set<DefDescriptor<?>> dependencies, Writer out) throws IOException, QuickFixException {
         AuraContext context = contextService.getCurrentContext();
@@ -393,7 +769,9 @@ public class ServerServiceImpl implements ServerService {
         Collection<BaseStyleDef> orderedStyleDefs = filterAndLoad(BaseStyleDef.class, dependencies, null);
         StringBuffer sb = new StringBuffer();
         styleAdapter.setSkipCssTransform(!enableCssVarOutput);
-        new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext())
+        new StyleDefWriter(definitionService, styleAdapter, contextService.getCurrentContext(), contextAdapter,
+                getStyleWriterExecutor(), cachingService.getStyleDefOutputCache(),
+                cachingService.getStyleTokenIndex())
             .writeStyleDefs(orderedStyleDefs, sb);
         styleAdapter.setSkipCssTransform(false);
         return sb.toString();
@@ -70,7 +70,7 @@ public class BrowserValueProvider implements GlobalValueProvider {
         AuraContext context = contextService.getCurrentContext();
         Map<String, Object> m = Maps.newHashMapWithExpectedSize(32);
         String ua = context != null ? context.getClient().getUserAgent() : null;
-        BrowserInfo b = new BrowserInfo(ua);
+        BrowserInfo b = BrowserInfo.get(ua);
         m.put(IS_TABLET, b.isTablet());
         m.put(IS_PHONE, b.isPhone());
         m.put(IS_ANDROID, b.isAndroid());
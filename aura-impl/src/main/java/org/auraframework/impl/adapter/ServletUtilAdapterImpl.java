@@ -36,6 +36,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
+import org.auraframework.adapter.AppJsUtilAdapter;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ContentSecurityPolicy;
 import org.auraframework.adapter.ExceptionAdapter;
@@ -51,7 +52,7 @@ import org.auraframework.http.CSP;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.http.resource.InlineJSAppender;
 import org.auraframework.impl.java.controller.JavaActionDef;
-import org.auraframework.impl.util.BrowserUserAgent;
+import org.auraframework.impl.util.BrowserInfo;
 import org.auraframework.impl.util.TemplateUtil;
 import org.auraframework.impl.util.TemplateUtil.Script;
 import org.auraframework.impl.util.UserAgent;
@@ -67,21 +68,26 @@ import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.AuraResource;
 import org.auraframework.system.Message;
+import org.auraframework.system.SourceListener;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.NoAccessException;
 import org.auraframework.throwable.quickfix.DefinitionNotFoundException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.FileMonitor;
 import org.auraframework.util.json.JsonEncoder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
 
 import com.google.common.base.MoreObjects;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Sets;
 
 @ServiceComponent
-public class ServletUtilAdapterImpl implements ServletUtilAdapter {
+public class ServletUtilAdapterImpl implements ServletUtilAdapter, SourceListener {
     private ExceptionAdapter exceptionAdapter;
     private SerializationService serializationService;
     private ClientLibraryService clientLibraryService;
@@ -92,6 +98,8 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
     protected ManifestUtil manifestUtil;
     protected List<InlineJSAppender> inlineJsAppenders;
     protected CSPInliningService cspInliningService;
+    protected AppJsUtilAdapter appJsUtilAdapter;
+    protected FileMonitor fileMonitor;
 
     /**
      * "Short" pages (such as manifest cookies and AuraFrameworkServlet pages) expire in 1 day.
@@ -127,9 +135,37 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
      */
     protected static final String HDR_FRAME_ALLOWALL = "ALLOWALL";
 
+    /** Upper bound on distinct policies whose headers are kept, guards against policies with per-request keys */
+    private static final int MAX_CSP_HEADERS = 64;
+
+    /**
+     * Precomputed headers, by policy class and {@link ContentSecurityPolicy#getCacheKey()}. Least recently used
+     * entries are evicted, and the whole cache is dropped when sources change.
+     */
+    private final Cache<String, CSPHeaders> cspHeadersCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CSP_HEADERS).build();
+
+    /** Upper bound on distinct app versions whose app.js chunk names are kept */
+    private static final int MAX_APP_JS_CHUNK_MANIFESTS = 256;
+
+    /** The name of each app.js chunk, index and content hash, by app, app uid and chunk count */
+    private final Cache<String, List<String>> appJsChunkNamesCache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_APP_JS_CHUNK_MANIFESTS).build();
+
     @PostConstruct
     public void createManifestUtil() {
         this.manifestUtil = new ManifestUtil(definitionService, contextService, configAdapter);
+        if (fileMonitor != null) {
+            fileMonitor.subscribeToChangeNotification(this);
+        }
+    }
+
+    /**
+     * Drop the precomputed CSP headers, the policies they were built from may have changed.
+     */
+    @Override
+    public void onSourceChanged(SourceMonitorEvent event, String filePath) {
+        cspHeadersCache.invalidateAll();
     }
 
     /**
@@ -382,11 +418,16 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
             ret.add(getInlineJsUrl(context, attributes));
         }
 
-        if (context.isAppJsSplitEnabled()) {
-            ret.add(getAppCoreJsUrl(context, null));
-        }
+        List<String> chunkUrls = getAppJsChunkUrls(context);
+        if (chunkUrls != null) {
+            ret.addAll(chunkUrls);
+        } else {
+            if (context.isAppJsSplitEnabled()) {
+                ret.add(getAppCoreJsUrl(context, null));
+            }
 
-        ret.add(getAppJsUrl(context, null));
+            ret.add(getAppJsUrl(context, null));
+        }
 
         if (!ignoreNonCacheableScripts) {
             ret.add(getBootstrapUrl(context, attributes));
@@ -452,7 +493,10 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
     @Override
     public List<String> getJsPreloadUrls(AuraContext context) throws QuickFixException {
         final List<String> urls = Lists.newArrayList();
-        if(context.isAppJsSplitEnabled()) {
+        List<String> chunkUrls = getAppJsChunkUrls(context);
+        if (chunkUrls != null) {
+            urls.addAll(chunkUrls);
+        } else if(context.isAppJsSplitEnabled()) {
             urls.add(this.getAppJsUrl(context, null));
             urls.add(this.getAppCoreJsUrl(context, null));
         } else {
@@ -478,11 +522,18 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
         }
 
         templateUtil.writeHtmlScript(context, this.getFrameworkUrl(), Script.SYNC, sb);
-        if (context.isAppJsSplitEnabled()) {
-            templateUtil.writeHtmlScript(context, this.getAppCoreJsUrl(context, null), Script.SYNC, sb);
-        }
+        List<String> chunkUrls = getAppJsChunkUrls(context);
+        if (chunkUrls != null) {
+            for (String chunkUrl : chunkUrls) {
+                templateUtil.writeHtmlScript(context, chunkUrl, Script.SYNC, sb);
+            }
+        } else {
+            if (context.isAppJsSplitEnabled()) {
+                templateUtil.writeHtmlScript(context, this.getAppCoreJsUrl(context, null), Script.SYNC, sb);
+            }
 
-        templateUtil.writeHtmlScript(context, this.getAppJsUrl(context, null), Script.SYNC, sb);
+            templateUtil.writeHtmlScript(context, this.getAppJsUrl(context, null), Script.SYNC, sb);
+        }
         if (!configAdapter.isBootstrapInliningEnabled()) {
             templateUtil.writeHtmlScript(context, this.getBootstrapUrl(context, componentAttributes), Script.SYNC, sb);
         }
@@ -555,6 +606,70 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
         return commonJsUrl("/app.js", context, attributes, AuraContext.EncodingStyle.AppResource);
     }
 
+    /**
+     * Get the ordered urls of the app.js chunks, which act as the chunk manifest of the page.
+     *
+     * Each url carries the content hash of its chunk, and the context is encoded without the app uid, so a chunk
+     * keeps its url until its own content changes.
+     *
+     * @return the chunk urls, or null if app.js is not chunked.
+     */
+    protected List<String> getAppJsChunkUrls(AuraContext context) throws QuickFixException {
+        if (appJsUtilAdapter == null) {
+            return null;
+        }
+        int chunkCount = configAdapter.getAppJsChunkCount();
+        DefDescriptor<? extends BaseComponentDef> appDesc = context.getApplicationDescriptor();
+        if (chunkCount < 2 || appDesc == null) {
+            return null;
+        }
+        String uid = context.getUid(appDesc);
+        if (uid == null) {
+            uid = definitionService.getUid(null, appDesc);
+        }
+        List<String> names = getAppJsChunkNames(appDesc, uid, chunkCount);
+        if (names == null) {
+            return null;
+        }
+
+        String prefix = context.getContextPath() + "/l/" + context.getEncodedURL(AuraContext.EncodingStyle.AppChunk) + "/";
+        List<String> urls = new ArrayList<>(names.size());
+        for (String name : names) {
+            urls.add(prefix + name + "/appchunk.js");
+        }
+        return urls;
+    }
+
+    /**
+     * Get the name of each app.js chunk, its index and content hash.
+     *
+     * The chunks are fixed by the app's dependencies, so the names are computed once for each app uid. They are
+     * needed several times for each page, to write the scripts and the manifest.
+     *
+     * @return the chunk names, or null if the app has no dependencies.
+     */
+    private List<String> getAppJsChunkNames(DefDescriptor<? extends BaseComponentDef> appDesc, String uid,
+            int chunkCount) throws QuickFixException {
+        String key = appDesc.getQualifiedName() + "|" + uid + "|" + chunkCount;
+        List<String> names = appJsChunkNamesCache.getIfPresent(key);
+        if (names != null) {
+            return names;
+        }
+        List<Set<DefDescriptor<?>>> chunks = appJsUtilAdapter.getChunks(definitionService.getDependencies(uid), appDesc, chunkCount);
+        if (chunks == null) {
+            return null;
+        }
+        ImmutableList.Builder<String> builder = ImmutableList.builder();
+        for (int i = 0; i < chunks.size(); i++) {
+            builder.add(i + "_" + appJsUtilAdapter.getChunkHash(chunks.get(i)));
+        }
+        names = builder.build();
+        if (uid != null) {
+            appJsChunkNamesCache.put(key, names);
+        }
+        return names;
+    }
+
     @Override
     public String getAppCssUrl(AuraContext context) {
         String contextPath = context.getContextPath();
@@ -659,31 +774,83 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
                 top == null ? null : top.getQualifiedName(), req);
 
         if (csp != null) {
+            getCSPHeaders(csp).apply(rsp);
+        }
+    }
 
-            rsp.addHeader(CSP.Header.SECURE, csp.getCspHeaderValue());
-            Collection<String> terms = csp.getFrameAncestors();
-            if (terms != null) {
-                // not open to the world; figure whether we can express an X-FRAME-OPTIONS header:
-                if (terms.size() == 0) {
-                    // closed to any framing at all
-                    rsp.setHeader(HDR_FRAME_OPTIONS, HDR_FRAME_DENY);
-                } else if (terms.size() == 1) {
-                    // With one ancestor term, we're either SAMEORIGIN or ALLOWFROM
-                    for (String site : terms) {
-                        if (site == null) {
-                            // Add same-origin headers and policy terms
-                            rsp.addHeader(HDR_FRAME_OPTIONS, HDR_FRAME_SAMEORIGIN);
-                        } else if (!site.contains("*") && !site.matches("^[a-z]+:$")) {
-                            // XFO can't express wildcards or protocol-only, so set only for a specific site:
-                            rsp.addHeader(HDR_FRAME_OPTIONS, HDR_FRAME_ALLOWFROM + site);
-                        } else {
-                            // When XFO can't express it, still set an ALLOWALL so filters don't jump in
-                            rsp.addHeader(HDR_FRAME_OPTIONS, HDR_FRAME_ALLOWALL);
-                        }
-                    }
+    /**
+     * Get the headers for a policy, reusing the ones built for an earlier response when the policy has a cache key.
+     */
+    protected CSPHeaders getCSPHeaders(ContentSecurityPolicy csp) {
+        String cacheKey = csp.getCacheKey();
+        if (cacheKey == null) {
+            return buildCSPHeaders(csp);
+        }
+        String key = csp.getClass().getName() + ":" + cacheKey;
+        CSPHeaders headers = cspHeadersCache.getIfPresent(key);
+        if (headers == null) {
+            headers = buildCSPHeaders(csp);
+            cspHeadersCache.put(key, headers);
+        }
+        return headers;
+    }
+
+    /**
+     * Build the CSP and anti-clickjacking headers for a policy.
+     */
+    protected static CSPHeaders buildCSPHeaders(ContentSecurityPolicy csp) {
+        String frameOptions = null;
+        boolean replaceFrameOptions = false;
+        Collection<String> terms = csp.getFrameAncestors();
+        if (terms != null) {
+            // not open to the world; figure whether we can express an X-FRAME-OPTIONS header:
+            if (terms.size() == 0) {
+                // closed to any framing at all
+                frameOptions = HDR_FRAME_DENY;
+                replaceFrameOptions = true;
+            } else if (terms.size() == 1) {
+                // With one ancestor term, we're either SAMEORIGIN or ALLOWFROM
+                String site = terms.iterator().next();
+                if (site == null) {
+                    // Add same-origin headers and policy terms
+                    frameOptions = HDR_FRAME_SAMEORIGIN;
+                } else if (!site.contains("*") && !site.matches("^[a-z]+:$")) {
+                    // XFO can't express wildcards or protocol-only, so set only for a specific site:
+                    frameOptions = HDR_FRAME_ALLOWFROM + site;
+                } else {
+                    // When XFO can't express it, still set an ALLOWALL so filters don't jump in
+                    frameOptions = HDR_FRAME_ALLOWALL;
                 }
             }
         }
+        return new CSPHeaders(csp.getCspHeaderValue(), frameOptions, replaceFrameOptions);
+    }
+
+    /**
+     * The headers set for a content security policy, computed once per policy.
+     */
+    protected static final class CSPHeaders {
+        private final String policy;
+        private final String frameOptions;
+        private final boolean replaceFrameOptions;
+
+        CSPHeaders(String policy, String frameOptions, boolean replaceFrameOptions) {
+            this.policy = policy;
+            this.frameOptions = frameOptions;
+            this.replaceFrameOptions = replaceFrameOptions;
+        }
+
+        void apply(HttpServletResponse rsp) {
+            rsp.addHeader(CSP.Header.SECURE, policy);
+            if (frameOptions == null) {
+                return;
+            }
+            if (replaceFrameOptions) {
+                rsp.setHeader(HDR_FRAME_OPTIONS, frameOptions);
+            } else {
+                rsp.addHeader(HDR_FRAME_OPTIONS, frameOptions);
+            }
+        }
     }
 
     /**
@@ -722,7 +889,7 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
             return false;
         }
 
-        final int browser = BrowserUserAgent.parseBrowser(userAgent);
+        final int browser = BrowserInfo.get(userAgent).getBrowserType();
         if(UserAgent.IE.match(browser)) { // UserAgent.IE is used for IE11 and IE12 (Edge)
             return false;
         }
@@ -1025,6 +1192,21 @@ public class ServletUtilAdapterImpl implements ServletUtilAdapter {
     public void setCspInliningService(CSPInliningService service) {
         this.cspInliningService = service;
     }
+
+    @Inject
+    @Lazy
+    public void setAppJsUtilAdapter(AppJsUtilAdapter appJsUtilAdapter) {
+        this.appJsUtilAdapter = appJsUtilAdapter;
+    }
+
+    /**
+     * Injection override.
+     */
+    @Autowired(required = false)
+    public void setFileMonitor(FileMonitor fileMonitor) {
+        this.fileMonitor = fileMonitor;
+    }
+
     /**
      * Exposed for testing
      */
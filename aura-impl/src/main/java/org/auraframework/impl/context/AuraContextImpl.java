@@ -24,10 +24,13 @@ import java.util.Collections;
 import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import javax.servlet.http.HttpServletRequest;
 
@@ -105,8 +108,9 @@ public class AuraContextImpl implements AuraContext {
 
     private Map<String, GlobalValueProvider> globalProviders;
 
-    private final Map<DefDescriptor<?>, String> loaded = Maps.newLinkedHashMap();
-    private final Map<DefDescriptor<?>, String> clientLoaded = Maps.newLinkedHashMap();
+    // Concurrent actions of a request add loaded defs from several threads, see ServerServiceImpl.
+    private final Map<DefDescriptor<?>, String> loaded = Collections.synchronizedMap(new LinkedHashMap<>());
+    private final Map<DefDescriptor<?>, String> clientLoaded = Collections.synchronizedMap(new LinkedHashMap<>());
 
     private String contextPath = "";
 
@@ -122,7 +126,7 @@ public class AuraContextImpl implements AuraContext {
 
     private Client client = Client.OTHER;
 
-    private final List<Event> clientEvents = Lists.newArrayList();
+    private final List<Event> clientEvents = Collections.synchronizedList(Lists.newArrayList());
 
     private String fwUID;
 
@@ -133,7 +137,7 @@ public class AuraContextImpl implements AuraContext {
     private Deque<DefDescriptor<?>> callingDescriptorStack = Lists.newLinkedList();
 
     private static final int MAX_COMPONENT_COUNT = 10000;
-    private int componentCount;
+    private final AtomicInteger componentCount = new AtomicInteger();
 
     private static final Map<String, GlobalValue> allowedGlobalValues = new HashMap<>();
     private Map<String, AuraContext.GlobalValue> globalValues;
@@ -144,6 +148,29 @@ public class AuraContextImpl implements AuraContext {
 
     private boolean isSystem = false;
 
+    /**
+     * The action state of threads doing concurrent work for the request, see {@link #beginConcurrentWork()}. Any
+     * other thread uses the fields above.
+     */
+    private final Map<Thread, WorkerState> workerStates = new ConcurrentHashMap<>();
+
+    /**
+     * What a thread doing concurrent work for the request has of its own: everything that changes while an action
+     * runs or a component is built.
+     */
+    private static class WorkerState {
+        private final WorkerState previous;
+        private Action currentAction;
+        private BaseComponent<?, ?> currentComponent;
+        private final Deque<DefDescriptor<?>> callingDescriptorStack = Lists.newLinkedList();
+        private boolean isSystem;
+
+        private WorkerState(WorkerState previous, boolean isSystem) {
+            this.previous = previous;
+            this.isSystem = isSystem;
+        }
+    }
+
     private boolean useCompatSource = false;
     private boolean forceCompat = false;
     private List<String> scriptHashes = new ArrayList<>();
@@ -232,21 +259,48 @@ public class AuraContextImpl implements AuraContext {
         this.configAdapter = configAdapter;
         this.definitionService = definitionService;
         this.testContextAdapter = testContextAdapter;
-        this.globalValues = new HashMap<>();
-        this.localStore = new AuraLocalStoreImpl();
-        this.clientClassesLoaded = new HashMap<>();
+        this.globalValues = new ConcurrentHashMap<>();
+        this.localStore = new AuraLocalStoreImpl(this::isSystemMode);
+        this.clientClassesLoaded = Collections.synchronizedMap(new HashMap<>());
         this.globalValueProviderFactory = globalValueProviderFactory;
     }
 
     @Override
     public void setSystemMode(boolean systemMode) {
-        isSystem = systemMode;
+        WorkerState worker = getWorkerState();
+        if (worker != null) {
+            worker.isSystem = systemMode;
+        } else {
+            isSystem = systemMode;
+        }
         localStore.setSystemMode(systemMode);
     }
 
     @Override
     public boolean isSystemMode() {
-        return this.isSystem;
+        WorkerState worker = getWorkerState();
+        return worker != null ? worker.isSystem : this.isSystem;
+    }
+
+    @Override
+    public void beginConcurrentWork() {
+        Thread thread = Thread.currentThread();
+        workerStates.put(thread, new WorkerState(workerStates.get(thread), isSystem));
+    }
+
+    @Override
+    public void endConcurrentWork() {
+        Thread thread = Thread.currentThread();
+        WorkerState worker = workerStates.remove(thread);
+        if (worker == null) {
+            logger.warn("Trying to end concurrent work that was never begun");
+        } else if (worker.previous != null) {
+            workerStates.put(thread, worker.previous);
+        }
+    }
+
+    private WorkerState getWorkerState() {
+        return workerStates.isEmpty() ? null : workerStates.get(Thread.currentThread());
     }
 
     @Override
@@ -348,17 +402,24 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public Action getCurrentAction() {
-        return currentAction;
+        WorkerState worker = getWorkerState();
+        return worker != null ? worker.currentAction : currentAction;
     }
 
     @Override
     public BaseComponent<?, ?> getCurrentComponent() {
-        return currentComponent;
+        WorkerState worker = getWorkerState();
+        return worker != null ? worker.currentComponent : currentComponent;
     }
 
     @Override
     public DefDescriptor<?> getCurrentCallingDescriptor() {
-        return callingDescriptorStack.peekFirst();
+        return getCallingDescriptorStack().peekFirst();
+    }
+
+    private Deque<DefDescriptor<?>> getCallingDescriptorStack() {
+        WorkerState worker = getWorkerState();
+        return worker != null ? worker.callingDescriptorStack : callingDescriptorStack;
     }
 
     @Override
@@ -504,27 +565,42 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public Action setCurrentAction(Action nextAction) {
-        Action old = currentAction;
-        currentAction = nextAction;
+        WorkerState worker = getWorkerState();
+        Action old;
+        if (worker != null) {
+            old = worker.currentAction;
+            worker.currentAction = nextAction;
+        } else {
+            old = currentAction;
+            currentAction = nextAction;
+        }
         return old;
     }
 
     @Override
     public BaseComponent<?, ?> setCurrentComponent(BaseComponent<?, ?> nextComponent) {
-        BaseComponent<?, ?> old = currentComponent;
-        currentComponent = nextComponent;
+        WorkerState worker = getWorkerState();
+        BaseComponent<?, ?> old;
+        if (worker != null) {
+            old = worker.currentComponent;
+            worker.currentComponent = nextComponent;
+        } else {
+            old = currentComponent;
+            currentComponent = nextComponent;
+        }
         return old;
     }
 
     @Override
     public void pushCallingDescriptor(DefDescriptor<?> descriptor) {
-        callingDescriptorStack.push(descriptor);
+        getCallingDescriptorStack().push(descriptor);
     }
 
     @Override
     public void popCallingDescriptor() {
-        if (callingDescriptorStack.size() > 0) {
-            callingDescriptorStack.pop();
+        Deque<DefDescriptor<?>> stack = getCallingDescriptorStack();
+        if (stack.size() > 0) {
+            stack.pop();
         } else {
             logger.warn("Trying to pop a calling descriptor from an empty stack");
         }
@@ -593,12 +669,16 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public Map<DefDescriptor<?>, String> getClientLoaded() {
-        return Collections.unmodifiableMap(clientLoaded);
+        synchronized (clientLoaded) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(clientLoaded));
+        }
     }
 
     @Override
     public Map<DefDescriptor<?>, String> getLoaded() {
-        return Collections.unmodifiableMap(loaded);
+        synchronized (loaded) {
+            return Collections.unmodifiableMap(new LinkedHashMap<>(loaded));
+        }
     }
 
     @Override
@@ -623,8 +703,9 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public InstanceStack getInstanceStack() {
-        if (currentAction != null) {
-            return currentAction.getInstanceStack();
+        Action action = getCurrentAction();
+        if (action != null) {
+            return action.getInstanceStack();
         }
         if (fakeInstanceStack == null) {
             fakeInstanceStack = new InstanceStack(configAdapter);
@@ -654,7 +735,7 @@ public class AuraContextImpl implements AuraContext {
     public void registerComponent(BaseComponent<?, ?> component) {
         InstanceStack iStack = getInstanceStack();
         if (iStack.isExternal()) {
-            if (componentCount++ > MAX_COMPONENT_COUNT) {
+            if (componentCount.getAndIncrement() > MAX_COMPONENT_COUNT) {
                 //
                 // This is bad, try to give the poor user an idea of what happened.
                 //
@@ -692,26 +773,26 @@ public class AuraContextImpl implements AuraContext {
     }
 
     @Override
-    public void setStyleContext() {
+    public synchronized void setStyleContext() {
         setStyleContext(StyleContextImpl.build(definitionService, this));
     }
 
     @Override
-    public void setStyleContext(StyleContext styleContext) {
+    public synchronized void setStyleContext(StyleContext styleContext) {
         // it's important that this is only set once, so that get returns a consistent value
         checkState(this.styleContext == null, "StyleContext should only be set once per request");
         this.styleContext = checkNotNull(styleContext, "styleContext cannot be null");
     }
 
     @Override
-    public void setStyleContext(Map<String, Object> config) {
+    public synchronized void setStyleContext(Map<String, Object> config) {
         // it's important that this is only set once, so that get returns a consistent value
         checkState(this.styleContext == null, "StyleContext should only be set once per request");
         this.styleContext = StyleContextImpl.build(definitionService, config);
     }
 
     @Override
-    public StyleContext getStyleContext() {
+    public synchronized StyleContext getStyleContext() {
         if (styleContext == null) {
             setStyleContext();
         }
@@ -744,8 +825,9 @@ public class AuraContextImpl implements AuraContext {
         if (!validateGlobal(approvedName)) {
             throw new AuraRuntimeException("Attempt to retrieve unknown $Global variable: " + approvedName);
         }
-        if (globalValues.containsKey(approvedName)) {
-            return globalValues.get(approvedName);
+        GlobalValue value = globalValues.get(approvedName);
+        if (value != null) {
+            return value;
         }
         return allowedGlobalValues.get(approvedName);
     }
@@ -755,8 +837,9 @@ public class AuraContextImpl implements AuraContext {
         if (!validateGlobal(approvedName)) {
             throw new AuraRuntimeException("Attempt to retrieve unknown $Global variable: " + approvedName);
         }
-        if (globalValues.containsKey(approvedName)) {
-            return globalValues.get(approvedName).getValue();
+        GlobalValue value = globalValues.get(approvedName);
+        if (value != null) {
+            return value.getValue();
         }
         return allowedGlobalValues.get(approvedName).getValue();
     }
@@ -767,17 +850,19 @@ public class AuraContextImpl implements AuraContext {
             throw new AuraRuntimeException("Attempt to set unknown $Global variable: " + approvedName);
         }
 
-        if (globalValues.containsKey(approvedName)) {
-            (globalValues.get(approvedName)).setDefaultValue(value);
-        }
-        else {
-            // copy the registered record to globals, replacing value with supplied value
-            GlobalValue temp = allowedGlobalValues.get(approvedName);
-
-            // You could add "if (temp.defaultValue.equals(value)) return;"
-            // if you wished to store values sparsely (not re-storing default even if explicitly set)
-            // But you would lose the ability to test whether the value was explicitly set
-            globalValues.put(approvedName, new GlobalValue(temp.isWritable(), value));
+        synchronized (globalValues) {
+            if (globalValues.containsKey(approvedName)) {
+                (globalValues.get(approvedName)).setDefaultValue(value);
+            }
+            else {
+                // copy the registered record to globals, replacing value with supplied value
+                GlobalValue temp = allowedGlobalValues.get(approvedName);
+
+                // You could add "if (temp.defaultValue.equals(value)) return;"
+                // if you wished to store values sparsely (not re-storing default even if explicitly set)
+                // But you would lose the ability to test whether the value was explicitly set
+                globalValues.put(approvedName, new GlobalValue(temp.isWritable(), value));
+            }
         }
     }
 
@@ -787,19 +872,21 @@ public class AuraContextImpl implements AuraContext {
             throw new AuraRuntimeException("Attempt to set unknown $Global variable: " + approvedName);
         }
 
-        if (globalValues.containsKey(approvedName)) {
-            (globalValues.get(approvedName)).setValue(clientValue);
-        }
-        else {
-            // copy the registered record to globals, replacing value with supplied value
-            GlobalValue temp = allowedGlobalValues.get(approvedName);
-
-            // You could add "if (temp.defaultValue.equals(value)) return;"
-            // if you wished to store values sparsely (not re-storing default even if explicitly set)
-            // But you would lose the ability to test whether the value was explicitly set
-            GlobalValue newGlobal = new GlobalValue(temp.isWritable(), null);
-            newGlobal.setValue(clientValue);
-            globalValues.put(approvedName, newGlobal);
+        synchronized (globalValues) {
+            if (globalValues.containsKey(approvedName)) {
+                (globalValues.get(approvedName)).setValue(clientValue);
+            }
+            else {
+                // copy the registered record to globals, replacing value with supplied value
+                GlobalValue temp = allowedGlobalValues.get(approvedName);
+
+                // You could add "if (temp.defaultValue.equals(value)) return;"
+                // if you wished to store values sparsely (not re-storing default even if explicitly set)
+                // But you would lose the ability to test whether the value was explicitly set
+                GlobalValue newGlobal = new GlobalValue(temp.isWritable(), null);
+                newGlobal.setValue(clientValue);
+                globalValues.put(approvedName, newGlobal);
+            }
         }
     }
 
@@ -848,7 +935,7 @@ public class AuraContextImpl implements AuraContext {
             // UIDs in everything except Bare.
             if (style != EncodingStyle.Bare) {
                 // AppJs does not include fwuid
-                if (style == EncodingStyle.AppResource) {
+                if (style == EncodingStyle.AppResource || style == EncodingStyle.AppChunk) {
                     // AppJs does contain this serialization version as a cache busting key we can use when we change the format of the file.
                     json.writeMapEntry("serializationVersion", getSerializationVersion());
                 } else if (style == EncodingStyle.Css) {
@@ -862,7 +949,10 @@ public class AuraContextImpl implements AuraContext {
                 }
 
                 Map<String, String> loadedStrings = Maps.newHashMap();
-                for (Map.Entry<DefDescriptor<?>, String> entry : getLoaded().entrySet()) {
+                // app.js chunks are addressed by their own hash, not by the app uid
+                Map<DefDescriptor<?>, String> loaded = style == EncodingStyle.AppChunk
+                        ? Collections.<DefDescriptor<?>, String>emptyMap() : getLoaded();
+                for (Map.Entry<DefDescriptor<?>, String> entry : loaded.entrySet()) {
                     if (style == EncodingStyle.Full || entry.getKey().equals(appDesc)) {
                         loadedStrings.put(String.format("%s@%s", entry.getKey().getDefType().toString(),
                                 entry.getKey().getQualifiedName()), entry.getValue());
@@ -899,7 +989,7 @@ public class AuraContextImpl implements AuraContext {
             
             String currentPathPrefix = getPathPrefix();
 
-            if (style != EncodingStyle.AppResource && currentPathPrefix != null) {
+            if (style != EncodingStyle.AppResource && style != EncodingStyle.AppChunk && currentPathPrefix != null) {
                 json.writeMapEntry("pathPrefix", currentPathPrefix);
             }
 
@@ -975,7 +1065,8 @@ public class AuraContextImpl implements AuraContext {
 
     @Override
     public String getAccessVersion() throws QuickFixException {
-        return this.currentAction == null ? null : this.currentAction.getCallerVersion();
+        Action action = getCurrentAction();
+        return action == null ? null : action.getCallerVersion();
     }
 
     @Override
@@ -16,10 +16,10 @@
 package org.auraframework.impl.context;
 
 import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BooleanSupplier;
 
 import javax.annotation.Nonnull;
 
@@ -32,6 +32,12 @@ import org.auraframework.throwable.AuraRuntimeException;
 
 import com.google.common.base.Optional;
 
+/**
+ * The local store of a context.
+ * <p>
+ * Concurrent actions share the context of their request, so the store is safe for use by several threads. The store of
+ * a context follows the system mode of the context, which each of those threads enters and leaves on its own.
+ */
 public class AuraLocalStoreImpl implements AuraLocalStore {
     private static class LocalInfo {
         public final Map<DefDescriptor<? extends Definition>, Definition> defs;
@@ -41,56 +47,64 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
         public final Map<String, DependencyEntry> dependencies;
 
         public LocalInfo() {
-            this.defs = new HashMap<>();
-            this.nulledDefs = new HashSet<>();
-            this.dynamicDescs = new HashSet<>();
-            this.dependencies = new HashMap<>();
-            this.defNotCacheable = new HashSet<>();
+            this.defs = new ConcurrentHashMap<>();
+            this.nulledDefs = ConcurrentHashMap.newKeySet();
+            this.dynamicDescs = ConcurrentHashMap.newKeySet();
+            this.dependencies = new ConcurrentHashMap<>();
+            this.defNotCacheable = ConcurrentHashMap.newKeySet();
         }
     };
 
     private boolean systemMode;
+    private final BooleanSupplier contextSystemMode;
     private final LocalInfo userStore;
-    private LocalInfo systemStore;
-    private LocalInfo currentStore;
+    private final LocalInfo systemStore;
     private final Map<String, String> accessCheckCache;
 
     public AuraLocalStoreImpl() {
+        this(null);
+    }
+
+    /**
+     * @param contextSystemMode the system mode of the context owning the store, which then replaces
+     *        {@link #setSystemMode(boolean)}.
+     */
+    AuraLocalStoreImpl(BooleanSupplier contextSystemMode) {
         this.userStore = new LocalInfo();
-        this.systemStore = null;
+        this.systemStore = new LocalInfo();
         this.systemMode = false;
-        this.currentStore = this.userStore;
-        this.accessCheckCache = new HashMap<>();
+        this.contextSystemMode = contextSystemMode;
+        this.accessCheckCache = new ConcurrentHashMap<>();
     }
 
     @Override
     public void setSystemMode(boolean value) {
         this.systemMode = value;
-        if (value) {
-            if (this.systemStore == null) {
-                this.systemStore = new LocalInfo();
-            }
-            this.currentStore = this.systemStore;
-        } else {
-            this.currentStore = this.userStore;
-        }
+    }
+
+    private boolean isSystemMode() {
+        return contextSystemMode != null ? contextSystemMode.getAsBoolean() : systemMode;
+    }
+
+    private LocalInfo currentStore() {
+        return isSystemMode() ? systemStore : userStore;
     }
 
     @Override
     public void setDefNotCacheable(DefDescriptor<?> descriptor) {
-        currentStore.defNotCacheable.add(descriptor);
+        currentStore().defNotCacheable.add(descriptor);
     }
 
     @Override
     public boolean isDefNotCacheable(DefDescriptor<?> descriptor) {
-        return currentStore.defNotCacheable.contains(descriptor)
-            || (systemMode && userStore.defNotCacheable.contains(descriptor));
+        return currentStore().defNotCacheable.contains(descriptor)
+            || (isSystemMode() && userStore.defNotCacheable.contains(descriptor));
     }
 
     @Override
     public void addDefinition(DefDescriptor<?> descriptor, Definition def) {
         if (def == null) {
-            currentStore.nulledDefs.add(descriptor);
+            currentStore().nulledDefs.add(descriptor);
         } else {
             //
             // DANGER!!!DANGER!!!DANGER!!!
@@ -100,7 +114,7 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
             // This code must change soon, as it violates every rule in the book,
             // and a few that are not even there...
             //
-            currentStore.defs.putIfAbsent(descriptor, def);
+            currentStore().defs.putIfAbsent(descriptor, def);
             //
             // DANGER!!!DANGER!!!DANGER!!!
             //
@@ -110,12 +124,16 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
 
     @Override
     public <D extends Definition> Optional<D> getDefinition(DefDescriptor<D> descriptor) {
+        if (descriptor == null) {
+            return null;
+        }
+        LocalInfo currentStore = currentStore();
         @SuppressWarnings("unchecked")
         D def = (D) currentStore.defs.get(descriptor);
         if (def != null || currentStore.nulledDefs.contains(descriptor)) {
             return Optional.fromNullable(def);
         }
-        if (systemMode) {
+        if (currentStore != userStore) {
             @SuppressWarnings("unchecked")
             D udef = (D) userStore.defs.get(descriptor);
             if (udef != null || userStore.nulledDefs.contains(descriptor)) {
@@ -128,17 +146,20 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
     @Override
     public void addDependencyEntry(String key, DependencyEntry de) {
         if (de.uid != null) {
-            currentStore.dependencies.put(de.uid, de);
+            currentStore().dependencies.put(de.uid, de);
         }
-        currentStore.dependencies.put(key, de);
+        currentStore().dependencies.put(key, de);
     }
 
     @Override
     public DependencyEntry getDependencyEntry(String key) {
         DependencyEntry entry;
 
-        entry = currentStore.dependencies.get(key);
-        if (entry == null && systemMode) {
+        if (key == null) {
+            return null;
+        }
+        entry = currentStore().dependencies.get(key);
+        if (entry == null && isSystemMode()) {
             entry = userStore.dependencies.get(key);
         }
         return entry;
@@ -146,12 +167,12 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
 
     @Override
     public DependencyEntry findDependencyEntry(DefDescriptor<?> descriptor) {
-        for (DependencyEntry det : currentStore.dependencies.values()) {
+        for (DependencyEntry det : currentStore().dependencies.values()) {
             if (det.dependencyMap != null && det.dependencyMap.containsKey(descriptor)) {
                 return det;
             }
         }
-        if (systemMode) {
+        if (isSystemMode()) {
             for (DependencyEntry det : userStore.dependencies.values()) {
                 if (det.dependencyMap != null && det.dependencyMap.containsKey(descriptor)) {
                     return det;
@@ -168,17 +189,17 @@ public class AuraLocalStoreImpl implements AuraLocalStore {
         if (desc == null) {
             throw new AuraRuntimeException("Invalid def has no descriptor");
         }
-        currentStore.defs.put(desc, def);
-        currentStore.defNotCacheable.add(desc);
-        currentStore.dynamicDescs.add(desc);
+        currentStore().defs.put(desc, def);
+        currentStore().defNotCacheable.add(desc);
+        currentStore().dynamicDescs.add(desc);
     }
 
     @Override
     public void addDynamicMatches(Set<DefDescriptor<?>> matched, DescriptorFilter matcher) {
-        currentStore.dynamicDescs.stream()
+        currentStore().dynamicDescs.stream()
             .filter(desc -> matcher.matchDescriptor(desc))
             .forEach(desc -> matched.add(desc));
-        if (systemMode) {
+        if (isSystemMode()) {
             userStore.dynamicDescs.stream()
                 .filter(desc -> matcher.matchDescriptor(desc))
                 .forEach(desc -> matched.add(desc));
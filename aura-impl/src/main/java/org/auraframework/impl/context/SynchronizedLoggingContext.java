@@ -0,0 +1,252 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.context;
+
+import java.math.BigDecimal;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.auraframework.instance.Action;
+import org.auraframework.system.LoggingContext;
+import org.auraframework.util.json.Json;
+
+import com.google.common.cache.CacheStats;
+
+/**
+ * A LoggingContext that serializes all access to another one.
+ *
+ * Logging contexts are not thread safe. When part of a request runs on worker threads, this is attached to
+ * the request thread and to every worker so that all of them log to the same request.
+ *
+ * Timers are shared by name, so two threads may have the same timer running at once. Starts and stops are counted
+ * here and only the first start and the last stop reach the delegate, which then sees a single interval covering
+ * all of them rather than one thread stopping the timer another is still using.
+ */
+public class SynchronizedLoggingContext implements LoggingContext {
+    private final LoggingContext delegate;
+
+    /**
+     * The number of threads running each timer started through this context, guarded by the delegate.
+     */
+    private final Map<String, Integer> running = new HashMap<>();
+
+    public SynchronizedLoggingContext(LoggingContext delegate) {
+        this.delegate = delegate;
+    }
+
+    /**
+     * @return the logging context that is being synchronized.
+     */
+    public LoggingContext getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public void startAction(String actionName, Action action) {
+        synchronized (delegate) {
+            delegate.startAction(actionName, action);
+        }
+    }
+
+    @Override
+    public void stopAction(String actionName) {
+        synchronized (delegate) {
+            delegate.stopAction(actionName);
+        }
+    }
+
+    @Override
+    public void startTimer(String name) {
+        synchronized (delegate) {
+            if (running.merge(name, 1, Integer::sum) == 1) {
+                delegate.startTimer(name);
+            }
+        }
+    }
+
+    @Override
+    public void startTimer(String name, Map<String, String> context) {
+        synchronized (delegate) {
+            if (running.merge(name, 1, Integer::sum) == 1) {
+                delegate.startTimer(name, context);
+            }
+        }
+    }
+
+    @Override
+    public void stopTimer(String name) {
+        synchronized (delegate) {
+            Integer count = running.get(name);
+            if (count == null) {
+                // started before this context was attached.
+                delegate.stopTimer(name);
+            } else if (count == 1) {
+                running.remove(name);
+                delegate.stopTimer(name);
+            } else {
+                running.put(name, count - 1);
+            }
+        }
+    }
+
+    @Override
+    public long getTime(String name) {
+        synchronized (delegate) {
+            return delegate.getTime(name);
+        }
+    }
+
+    @Override
+    public void resetTimer(String name) {
+        synchronized (delegate) {
+            running.remove(name);
+            delegate.resetTimer(name);
+        }
+    }
+
+    @Override
+    public long getNum(String key) {
+        synchronized (delegate) {
+            return delegate.getNum(key);
+        }
+    }
+
+    @Override
+    public void incrementNum(String key) {
+        synchronized (delegate) {
+            delegate.incrementNum(key);
+        }
+    }
+
+    @Override
+    public void incrementNumBy(String key, long num) {
+        synchronized (delegate) {
+            delegate.incrementNumBy(key, num);
+        }
+    }
+
+    @Override
+    public void setNum(String key, long num) {
+        synchronized (delegate) {
+            delegate.setNum(key, num);
+        }
+    }
+
+    @Override
+    public Object getValue(String name) {
+        synchronized (delegate) {
+            return delegate.getValue(name);
+        }
+    }
+
+    @Override
+    public void setValue(String name, Object value) {
+        synchronized (delegate) {
+            delegate.setValue(name, value);
+        }
+    }
+
+    @Override
+    public void logRequestValues() {
+        synchronized (delegate) {
+            delegate.logRequestValues();
+        }
+    }
+
+    @Override
+    public KeyValueLogger getKeyValueLogger(StringBuffer log) {
+        synchronized (delegate) {
+            return delegate.getKeyValueLogger(log);
+        }
+    }
+
+    @Override
+    public void logCSPReport(Map<String, Object> report) {
+        synchronized (delegate) {
+            delegate.logCSPReport(report);
+        }
+    }
+
+    @Override
+    public void logDeprecationUsages(Map<String, Map<String, BigDecimal>> usages) {
+        synchronized (delegate) {
+            delegate.logDeprecationUsages(usages);
+        }
+    }
+
+    @Override
+    public void logClientApiUsages(Map<String, Map<String, BigDecimal>> usages) {
+        synchronized (delegate) {
+            delegate.logClientApiUsages(usages);
+        }
+    }
+
+    @Override
+    public void logCacheInfo(String name, String message, long size, CacheStats stats) {
+        synchronized (delegate) {
+            delegate.logCacheInfo(name, message, size, stats);
+        }
+    }
+
+    @Override
+    public void info(String message) {
+        synchronized (delegate) {
+            delegate.info(message);
+        }
+    }
+
+    @Override
+    public void warn(String message) {
+        synchronized (delegate) {
+            delegate.warn(message);
+        }
+    }
+
+    @Override
+    public void warn(String message, Throwable cause) {
+        synchronized (delegate) {
+            delegate.warn(message, cause);
+        }
+    }
+
+    @Override
+    public void error(String message) {
+        synchronized (delegate) {
+            delegate.error(message);
+        }
+    }
+
+    @Override
+    public void error(String message, Throwable cause) {
+        synchronized (delegate) {
+            delegate.error(message, cause);
+        }
+    }
+
+    @Override
+    public void serializeActions(Json json) {
+        synchronized (delegate) {
+            delegate.serializeActions(json);
+        }
+    }
+
+    @Override
+    public void serialize(Json json) {
+        synchronized (delegate) {
+            delegate.serialize(json);
+        }
+    }
+}
@@ -15,11 +15,19 @@
  */
 package org.auraframework.impl.css;
 
+import com.google.common.base.Optional;
+import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
+import com.google.common.hash.Hashing;
 import com.salesforce.omakase.plugin.Plugin;
 
+import org.auraframework.Aura;
+import org.auraframework.adapter.ContextAdapter;
 import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.css.FlavorOverrideLocator;
+import org.auraframework.css.StyleTokenIndex;
+import org.auraframework.css.TokenCache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.BaseStyleDef;
@@ -27,25 +35,73 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.def.FlavoredStyleDef;
 import org.auraframework.def.FlavorsDef;
+import org.auraframework.def.TokensDef;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.css.parser.CssPreprocessor;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
 import org.auraframework.impl.css.parser.plugin.FlavorOverridePlugin;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.RejectedExecutionException;
 
 
+/**
+ * Writes the code of a set of style defs, e.g., for app.css.
+ * <p>
+ * When constructed with an output cache, the code of each style def is taken from that cache if it was rendered before
+ * with the same source, values of the tokens it references and runtime context, by any app. Style defs that need to be
+ * seen by plugins other than the duplicate font-face check, e.g., flavors with app overrides, are always rendered. Cached style defs are
+ * recorded in the token index, so that their entries can be dropped as soon as a token they reference changes.
+ * <p>
+ * When constructed with an executor, the style defs are rendered in parallel, each on a worker with the context
+ * attached, and the results are written in the original order. The output is the same as rendering them serially. The
+ * style context and the tokens are resolved on the request thread first, so that the workers only read them. The
+ * contextual plugins are still shared by all the style defs, so in that case they are used by several threads at once.
+ */
 public class StyleDefWriter {
     private final DefinitionService definitionService;
     private final StyleAdapter styleAdapter;
     private final AuraContext context;
+    private final ContextAdapter contextAdapter;
+    private final Executor executor;
+    private final Cache<String, String> outputCache;
+    private final StyleTokenIndex tokenIndex;
 
     public StyleDefWriter(DefinitionService definitionService, StyleAdapter styleAdapter, AuraContext context) {
+        this(definitionService, styleAdapter, context, null, null, null, null);
+    }
+
+    /**
+     * @param contextAdapter used to attach the context to the workers.
+     * @param executor runs the rendering of each style def, or null to render them serially.
+     * @param outputCache the rendered code of single style defs, or null to always render them.
+     * @param tokenIndex records the tokens referenced by the cached style defs, or null.
+     */
+    public StyleDefWriter(DefinitionService definitionService, StyleAdapter styleAdapter, AuraContext context,
+            ContextAdapter contextAdapter, Executor executor, Cache<String, String> outputCache,
+            StyleTokenIndex tokenIndex) {
         this.definitionService = definitionService;
         this.styleAdapter = styleAdapter;
         this.context = context;
+        this.contextAdapter = contextAdapter;
+        this.executor = executor;
+        this.outputCache = outputCache;
+        this.tokenIndex = tokenIndex;
     }
 
     public void writeStyleDefs(Collection<? extends BaseStyleDef> values, Appendable out)
@@ -58,23 +114,224 @@ public class StyleDefWriter {
         // the flavor mapping contains information on flavor CSS app overrides
         FlavorOverrideLocator overrides = getFlavorOverrides();
 
+        if (executor != null && contextAdapter != null) {
+            prepareConcurrentRendering(values);
+            writeConcurrently(values, out, contextualPlugins, overrides);
+            return;
+        }
+
         for (BaseStyleDef def : values) {
             if (def != null) {
-                if (overrides != null && def instanceof FlavoredStyleDef) {
-                    // TODONM fixthis
-                    // for flavor css, enable the flavor mapping plugin which removes CSS based on flavor overrides
-                    DefDescriptor<FlavoredStyleDef> desc = ((FlavoredStyleDef) def).getDescriptor();
-
-                    // the only reason to add this plugin here is because it requires the overrides map and there's no
-                    // need to create that more than once for each def.
-                    FlavorOverridePlugin overrideEnforcer = new FlavorOverridePlugin(desc, overrides);
-                    List<Plugin> copy = ImmutableList.<Plugin>builder().addAll(contextualPlugins).add(overrideEnforcer).build();
-                    out.append(def.getCode(copy));
+                out.append(getCode(def, getPlugins(def, contextualPlugins, overrides)));
+            }
+        }
+    }
+
+    /**
+     * Resolve on the request thread what the workers would otherwise resolve lazily in the shared context: the style
+     * context, its token values, and the namespace default tokens defs of the style defs. The workers then only read
+     * them.
+     */
+    private void prepareConcurrentRendering(Collection<? extends BaseStyleDef> values) throws QuickFixException {
+        TokenCache tokens = context.getStyleContext().getTokens();
+        // builds the resolved token table.
+        tokens.getContentHash();
+
+        Set<DefDescriptor<TokensDef>> namespaceDefaults = new HashSet<>();
+        for (BaseStyleDef def : values) {
+            if (def != null && !def.getExpressions().isEmpty()) {
+                DefDescriptor<TokensDef> namespaceDefault = styleAdapter.getNamespaceDefaultDescriptor(
+                        def.getDescriptor());
+                if (namespaceDefaults.add(namespaceDefault) && definitionService.exists(namespaceDefault)) {
+                    definitionService.getDefinition(namespaceDefault);
+                }
+            }
+        }
+    }
+
+    /**
+     * Render the style defs on the executor, and write each one as soon as it and all the ones before it are done.
+     */
+    private void writeConcurrently(Collection<? extends BaseStyleDef> values, Appendable out,
+            List<Plugin> contextualPlugins, FlavorOverrideLocator overrides) throws IOException {
+        List<Future<String>> results = new ArrayList<>(values.size());
+        try {
+            for (BaseStyleDef def : values) {
+                if (def != null) {
+                    List<Plugin> plugins = getPlugins(def, contextualPlugins, overrides);
+                    FutureTask<String> task = new FutureTask<>(() -> render(def, plugins));
+                    try {
+                        executor.execute(task);
+                    } catch (RejectedExecutionException ree) {
+                        // the pool is shutting down, just run it here.
+                        task.run();
+                    }
+                    results.add(task);
+                }
+            }
+            for (Future<String> result : results) {
+                out.append(getResult(result));
+            }
+        } finally {
+            // nothing is written after a failure, don't keep rendering.
+            for (Future<String> result : results) {
+                result.cancel(false);
+            }
+        }
+    }
+
+    private String render(BaseStyleDef def, List<Plugin> plugins) {
+        AuraContext previousContext = contextAdapter.getCurrentContext();
+        contextAdapter.attach(context);
+        context.beginConcurrentWork();
+        try {
+            return getCode(def, plugins);
+        } finally {
+            context.endConcurrentWork();
+            contextAdapter.attach(previousContext);
+        }
+    }
+
+    private String getCode(BaseStyleDef def, List<Plugin> plugins) {
+        String key = outputCache != null ? getOutputKey(def, plugins) : null;
+        if (key == null) {
+            return def.getCode(plugins);
+        }
+        String code = outputCache.getIfPresent(key);
+        if (code == null) {
+            code = def.getCode(plugins);
+            outputCache.put(key, code);
+            if (tokenIndex != null) {
+                tokenIndex.record(def);
+            }
+        }
+        return code;
+    }
+
+    /**
+     * Gets the output cache key of a style def, starting with its descriptor so that all of its entries can be
+     * invalidated with {@link Cache#invalidatePartial(String)}.
+     *
+     * @return the key, or null if the code of this style def must not come from the cache.
+     */
+    private String getOutputKey(BaseStyleDef def, List<Plugin> plugins) {
+        String ownHash = def.getOwnHash();
+        if (ownHash == null || !DuplicateFontFacePlugin.isSkippable(plugins, def.getRawCode())) {
+            return null;
+        }
+
+        StringBuilder material = new StringBuilder(CssPreprocessor.runtimeContextKey(context.getStyleContext()));
+        if (!def.getExpressions().isEmpty()) {
+            // the expressions are part of the source, so only the values of the tokens they reference can change
+            // the output. Those come from the resolved table of the app's token overrides, or else from the
+            // namespace default tokens, the same way the token value provider resolves them.
+            try {
+                if (!appendTokenValues(def, material)) {
+                    // rendering reports the missing token
+                    return null;
+                }
+            } catch (QuickFixException qfe) {
+                // rendering reports it
+                return null;
+            }
+            material.append('|').append(Aura.getConfigAdapter().isCssVarTransformEnabled());
+        }
+        return getOutputKeyPrefix(def.getDescriptor()) + ownHash + '|'
+                + Hashing.sha256().hashString(material, StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Appends each token referenced by a style def with its value, following cross references. No expression is
+     * evaluated, the values are looked up as they were declared.
+     *
+     * @return false if a token has no value.
+     */
+    private boolean appendTokenValues(BaseStyleDef def, StringBuilder material) throws QuickFixException {
+        TokenCache tokens = context.getStyleContext().getTokens();
+        TokensDef namespaceDefault = null;
+        boolean namespaceDefaultLoaded = false;
+
+        for (String name : new TreeSet<>(def.getTokenNames())) {
+            Set<String> seen = new HashSet<>();
+            String root = name;
+            while (true) {
+                if (!seen.add(root)) {
+                    // a cycle, rendering reports it
+                    return false;
+                }
+                Optional<Object> value = tokens.getToken(root);
+                if (!value.isPresent()) {
+                    if (!namespaceDefaultLoaded) {
+                        namespaceDefault = getNamespaceDefault(def);
+                        namespaceDefaultLoaded = true;
+                    }
+                    if (namespaceDefault != null) {
+                        value = namespaceDefault.getToken(root);
+                    }
+                }
+                if (!value.isPresent()) {
+                    return false;
+                }
+                appendPart(material, root);
+                if (value.get() instanceof PropertyReference) {
+                    root = ((PropertyReference) value.get()).getRoot();
+                    material.append('@');
                 } else {
-                    out.append(def.getCode(contextualPlugins));
+                    appendPart(material, String.valueOf(value.get()));
+                    break;
                 }
             }
         }
+        return true;
+    }
+
+    /**
+     * Appends a part of a key with its length, so that no two sequences of parts give the same material.
+     */
+    private static void appendPart(StringBuilder material, String part) {
+        material.append('|').append(part.length()).append(':').append(part);
+    }
+
+    /**
+     * @return the namespace default tokens of a style def, or null if its namespace has none.
+     */
+    private TokensDef getNamespaceDefault(BaseStyleDef def) throws QuickFixException {
+        DefDescriptor<TokensDef> namespaceDefault = styleAdapter.getNamespaceDefaultDescriptor(def.getDescriptor());
+        return definitionService.exists(namespaceDefault) ? definitionService.getDefinition(namespaceDefault) : null;
+    }
+
+    /**
+     * Gets the start of every output cache key of the given style def. Descriptor names have no '|', so the prefix
+     * ends at the first one in the key.
+     */
+    public static String getOutputKeyPrefix(DefDescriptor<?> descriptor) {
+        return descriptor.getQualifiedName() + '|';
+    }
+
+    private static String getResult(Future<String> result) {
+        try {
+            return result.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new AuraRuntimeException(ie);
+        } catch (ExecutionException ee) {
+            Throwables.propagateIfPossible(ee.getCause());
+            throw new AuraRuntimeException(ee.getCause());
+        }
+    }
+
+    private List<Plugin> getPlugins(BaseStyleDef def, List<Plugin> contextualPlugins, FlavorOverrideLocator overrides) {
+        if (overrides != null && def instanceof FlavoredStyleDef) {
+            // TODONM fixthis
+            // for flavor css, enable the flavor mapping plugin which removes CSS based on flavor overrides
+            DefDescriptor<FlavoredStyleDef> desc = ((FlavoredStyleDef) def).getDescriptor();
+
+            // the only reason to add this plugin here is because it requires the overrides map and there's no
+            // need to create that more than once for each def.
+            FlavorOverridePlugin overrideEnforcer = new FlavorOverridePlugin(desc, overrides);
+            return ImmutableList.<Plugin>builder().addAll(contextualPlugins).add(overrideEnforcer).build();
+        }
+        return contextualPlugins;
     }
 
     private FlavorOverrideLocator getFlavorOverrides() throws QuickFixException {
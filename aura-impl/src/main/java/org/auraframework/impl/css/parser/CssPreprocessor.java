@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.TreeSet;
 
 import org.auraframework.Aura;
 import org.auraframework.adapter.StyleAdapter;
@@ -36,6 +37,7 @@ import org.auraframework.impl.css.parser.plugin.TokenFunctionPlugin;
 import org.auraframework.impl.css.parser.plugin.TokenPropertyValidationPlugin;
 import org.auraframework.impl.css.parser.plugin.TokenSecurityPlugin;
 import org.auraframework.impl.css.parser.plugin.UrlCacheBustingPlugin;
+import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.throwable.quickfix.StyleParserException;
 
@@ -76,6 +78,25 @@ public final class CssPreprocessor {
         return new ParserConfiguration(Aura.getStyleAdapter());
     }
 
+    /**
+     * Gets a key for everything besides the source, the token values and any extra plugins that changes the output of
+     * a {@link #runtime} parse in the current context: the mode, the static JS config and the true conditions.
+     */
+    public static String runtimeContextKey(StyleContext styleContext) {
+        Mode mode = Mode.DEV;
+        AuraContext context = Aura.getContextService().getCurrentContext();
+        if (context != null) {
+            mode = context.getMode();
+        }
+
+        StringBuilder key = new StringBuilder();
+        key.append(mode).append('|').append(Aura.getConfigAdapter().isAuraJSStatic());
+        if (styleContext != null) {
+            key.append('|').append(new TreeSet<>(styleContext.getAllTrueConditions()));
+        }
+        return key.toString();
+    }
+
     /** Configuration for the css parser */
     public static final class ParserConfiguration {
         private String content;
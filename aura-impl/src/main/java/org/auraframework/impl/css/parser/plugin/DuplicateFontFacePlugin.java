@@ -15,10 +15,11 @@
  */
 package org.auraframework.impl.css.parser.plugin;
 
-import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 
 import com.salesforce.omakase.ast.atrule.FontDescriptor;
 import com.salesforce.omakase.broadcast.annotation.Validate;
@@ -47,7 +48,8 @@ public final class DuplicateFontFacePlugin implements Plugin {
 
     private static final String ANNOTATION = "allowDuplicate";
 
-    private final Map<FontKey, Value> declared = new HashMap<>();
+    // shared by the style defs of app.css, which may be rendered in parallel
+    private final Map<FontKey, Value> declared = new ConcurrentHashMap<>();
 
     public final boolean allowDuplicatesWithAnnotation;
     private final boolean checkAllFontDescriptors;
@@ -76,6 +78,19 @@ public final class DuplicateFontFacePlugin implements Plugin {
         this.checkAllFontDescriptors = checkFontAllDescriptors;
     }
 
+    /**
+     * Checks whether running the given plugins over the given CSS can be skipped, which is the case when they are all
+     * {@link DuplicateFontFacePlugin}s and the CSS has no font-faces.
+     */
+    public static boolean isSkippable(List<Plugin> plugins, String css) {
+        for (Plugin plugin : plugins) {
+            if (!(plugin instanceof DuplicateFontFacePlugin) || css.toLowerCase().contains("@font-face")) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     @Validate
     public void checkDuplicateFontFace(FontDescriptor descriptor, ErrorManager em) {
         if (!descriptor.isProperty(Property.FONT_FAMILY)) {
@@ -119,10 +134,10 @@ public final class DuplicateFontFacePlugin implements Plugin {
 
         // if a previous font-face with the same key was previously found then throw an error. However if enabled, the
         // CSS author can bypass this with the correct annotation on both font-faces.
-        if (declared.containsKey(key)) {
-            Value value = declared.get(key);
-            boolean dupeAllowed = allowDuplicatesWithAnnotation && descriptor.hasAnnotation(ANNOTATION)
-                    && value.allowsDuplicate;
+        boolean allowsDupe = allowDuplicatesWithAnnotation && descriptor.hasAnnotation(ANNOTATION);
+        Value value = declared.putIfAbsent(key, new Value(em.getSourceName(), allowsDupe));
+        if (value != null) {
+            boolean dupeAllowed = allowsDupe && value.allowsDuplicate;
 
             if (!dupeAllowed) {
                 em.report(ErrorLevel.FATAL, descriptor, String.format(MSG,
@@ -131,9 +146,6 @@ public final class DuplicateFontFacePlugin implements Plugin {
                         checkAllFontDescriptors ? OPTION_CHECK_ALL : OPTION_NAME_ONLY
                         ));
             }
-        } else {
-            boolean allowsDupe = allowDuplicatesWithAnnotation && descriptor.hasAnnotation(ANNOTATION);
-            declared.put(key, new Value(em.getSourceName(), allowsDupe));
         }
     }
 
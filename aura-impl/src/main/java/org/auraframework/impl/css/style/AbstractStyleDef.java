@@ -19,6 +19,7 @@ import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.auraframework.Aura;
 import org.auraframework.adapter.ExpressionBuilder;
@@ -43,6 +44,7 @@ import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.throwable.quickfix.StyleParserException;
 import org.auraframework.validation.ReferenceValidationContext;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.salesforce.omakase.plugin.Plugin;
 
@@ -52,15 +54,21 @@ import com.salesforce.omakase.plugin.Plugin;
 public abstract class AbstractStyleDef<D extends BaseStyleDef> extends DefinitionImpl<D> implements BaseStyleDef {
     private static final long serialVersionUID = -7239904547091800250L;
     private static final String TOKEN_PROPERTY_VALIDATION_ERROR_MSG = "the '%s' token cannot be used with the %s property.\nAllowed properties: %s";
+    private static final Object NO_TEMPLATE = new Object();
 
     private final String content;
     private final Set<String> expressions;
+    private final Set<String> tokenNames;
     private final Map<String, Set<String>> tokensInCssProperties;
 
+    /** runtime templates by {@link CssPreprocessor#runtimeContextKey}, with NO_TEMPLATE for styles that can't have one */
+    private transient volatile Map<String, Object> templates;
+
     protected AbstractStyleDef(final Builder<D> builder) {
         super(builder);
         this.content = builder.content;
         this.expressions = AuraUtil.immutableSet(builder.expressions);
+        this.tokenNames = builder.tokenNames != null ? AuraUtil.immutableSet(builder.tokenNames) : null;
         this.tokensInCssProperties = builder.tokensInCssProperties;
     }
 
@@ -74,7 +82,24 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         StyleContext styleContext = Aura.getContextService().getCurrentContext().getStyleContext();
         StyleAdapter styleAdapter = Aura.getStyleAdapter();        
         TokenValueProvider tvp = styleAdapter.getTokenValueProvider(descriptor, ResolveStrategy.RESOLVE_NORMAL);
-        
+
+        if (StyleTemplate.supports(content, plugins)) {
+            StyleTemplate template = getTemplate(styleContext, styleAdapter);
+            if (template != null) {
+                String code = template.render(tvp, styleContext, styleAdapter);
+                if (code != null) {
+                    return code;
+                }
+            }
+        }
+        return parse(styleContext, styleAdapter, tvp, plugins);
+    }
+
+    /**
+     * Parses the style in full, this is what the output of a template must match.
+     */
+    @VisibleForTesting
+    String parse(StyleContext styleContext, StyleAdapter styleAdapter, TokenValueProvider tvp, List<Plugin> plugins) {
         try {
             return CssPreprocessor.runtime(styleContext, styleAdapter)
                     .source(content)
@@ -88,6 +113,24 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         }
     }
 
+    private StyleTemplate getTemplate(StyleContext styleContext, StyleAdapter styleAdapter) {
+        Map<String, Object> map = templates;
+        if (map == null) {
+            synchronized (this) {
+                map = templates;
+                if (map == null) {
+                    templates = map = new ConcurrentHashMap<>(4);
+                }
+            }
+        }
+
+        Object template = map.computeIfAbsent(CssPreprocessor.runtimeContextKey(styleContext), key -> {
+            StyleTemplate built = StyleTemplate.build(content, descriptor, styleContext, styleAdapter);
+            return built != null ? built : NO_TEMPLATE;
+        });
+        return template != NO_TEMPLATE ? (StyleTemplate) template : null;
+    }
+
     @Override
     public String getRawCode() {
         return content;
@@ -98,8 +141,17 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
         return expressions;
     }
 
+    @Override
+    public Set<String> getTokenNames() {
+        return tokenNames;
+    }
+
     @Override
     public Set<String> getTokenNames(ExpressionBuilder expressionBuilder) throws AuraValidationException {
+        if (tokenNames != null) {
+            return tokenNames;
+        }
+
         Set<String> set = new HashSet<>();
 
         if (!expressions.isEmpty()) {
@@ -162,6 +214,7 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
     public static abstract class Builder<D extends BaseStyleDef> extends BuilderImpl<D> implements BaseStyleDefBuilder<D> {
         private String content;
         private Set<String> expressions;
+        private Set<String> tokenNames;
         private Map<String, Set<String>> tokensInCssProperties;
 
         public Builder(final Class<D> defClass) {
@@ -181,6 +234,12 @@ public abstract class AbstractStyleDef<D extends BaseStyleDef> extends Definitio
             return this;
         }
 
+        @Override
+        public Builder<D> setTokenNames(Set<String> tokenNames) {
+            this.tokenNames = tokenNames;
+            return this;
+        }
+
         @Override
         public Builder<D> setTokensInCssProperties(Map<String, Set<String>> tokensInCssProperties) {
             this.tokensInCssProperties = tokensInCssProperties;
@@ -0,0 +1,293 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css.style;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.css.ResolveStrategy;
+import org.auraframework.css.StyleContext;
+import org.auraframework.css.TokenValueProvider;
+import org.auraframework.def.BaseStyleDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.TokenDef;
+import org.auraframework.expression.PropertyReference;
+import org.auraframework.impl.css.parser.CssPreprocessor;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
+import org.auraframework.system.Location;
+import org.auraframework.throwable.quickfix.QuickFixException;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.salesforce.omakase.plugin.Plugin;
+
+/**
+ * The runtime output of a style, pre-parsed with a slot for each token function.
+ * <p>
+ * A template is made by running the usual runtime parse once with a {@link TokenValueProvider} that gives a unique
+ * keyword for each token function. The output is then split around those keywords. Rendering evaluates the token
+ * expressions and puts the values in the slots, without parsing the style again.
+ * <p>
+ * The output has to be the same as a full parse, so a template is only made when each keyword ends up exactly once in
+ * the output, and a value is only used when it is plain (not empty, no comments, blocks or {@code !important}) and a
+ * parse of the declaration around the slot with the value in it gives the same result as putting the value in the
+ * parsed declaration. Results of those checks are cached. In every other case {@link #render} returns null and the
+ * caller parses the style in full.
+ */
+final class StyleTemplate {
+    private static final String SLOT = "auraslot";
+    private static final String PROBE_SLOT = SLOT + "z";
+    private static final int PROBE_CACHE_SIZE = 10000;
+    private static final Pattern PLAIN_VALUE = Pattern.compile("[-A-Za-z0-9 #%.,()+_/'\"]+");
+
+    /** whether a value can go in a declaration, keyed by context, declaration and value */
+    private static final Cache<String, Boolean> probes = CacheBuilder.newBuilder()
+            .maximumSize(PROBE_CACHE_SIZE)
+            .concurrencyLevel(8)
+            .build();
+
+    private final String contextKey;
+    private final String[] literals;
+    private final String[] expressions;
+    private final Location[] locations;
+    private final String[] declarationStarts;
+    private final String[] declarationEnds;
+
+    private StyleTemplate(String contextKey, String[] literals, String[] expressions, Location[] locations,
+            String[] declarationStarts, String[] declarationEnds) {
+        this.contextKey = contextKey;
+        this.literals = literals;
+        this.expressions = expressions;
+        this.locations = locations;
+        this.declarationStarts = declarationStarts;
+        this.declarationEnds = declarationEnds;
+    }
+
+    /**
+     * Whether the output of a style parsed with the given extra plugins can come from a template.
+     * <p>
+     * The duplicate font-face check only looks at font-faces, so it can be skipped for a style without any. Any other
+     * plugin could change the output.
+     */
+    static boolean supports(String content, List<Plugin> plugins) {
+        return !content.contains(SLOT) && DuplicateFontFacePlugin.isSkippable(plugins, content);
+    }
+
+    /**
+     * Makes the template for a style in the current context.
+     *
+     * @return the template, or null if the output of this style can't be templated.
+     */
+    static StyleTemplate build(String content, DefDescriptor<? extends BaseStyleDef> descriptor,
+            StyleContext styleContext, StyleAdapter styleAdapter) {
+        SlotProvider slots = new SlotProvider();
+        String output;
+        try {
+            output = CssPreprocessor.runtime(styleContext, styleAdapter)
+                    .source(content)
+                    .resourceName(descriptor.getQualifiedName())
+                    .tokens(descriptor, slots)
+                    .parse()
+                    .content();
+        } catch (Exception e) {
+            // the full parse reports this, or handles what the slots can't
+            return null;
+        }
+
+        int count = slots.expressions.size();
+        if (slots.unsupported || count(output, SLOT) != count) {
+            return null;
+        }
+
+        String[] literals = new String[count + 1];
+        String[] expressions = new String[count];
+        Location[] locations = new Location[count];
+        String[] declarationStarts = new String[count];
+        String[] declarationEnds = new String[count];
+        boolean[] seen = new boolean[count];
+
+        int from = 0;
+        for (int i = 0; i < count; i++) {
+            int start = output.indexOf(SLOT, from);
+            int end = output.indexOf('z', start + SLOT.length());
+            int slot;
+            try {
+                slot = Integer.parseInt(output.substring(start + SLOT.length(), end));
+            } catch (NumberFormatException | StringIndexOutOfBoundsException e) {
+                return null;
+            }
+            if (slot < 0 || slot >= count || seen[slot]) {
+                return null;
+            }
+            seen[slot] = true;
+            end++;
+
+            // the declaration holding the slot, which must not hold any other slot
+            int declarationStart = Math.max(output.lastIndexOf('{', start), output.lastIndexOf(';', start)) + 1;
+            int declarationEnd = indexOfEither(output, ';', '}', end);
+            String before = output.substring(declarationStart, start);
+            String after = output.substring(end, declarationEnd);
+            if (before.contains(SLOT) || after.contains(SLOT)) {
+                return null;
+            }
+
+            literals[i] = output.substring(from, start);
+            expressions[i] = slots.expressions.get(slot);
+            locations[i] = slots.locations.get(slot);
+            declarationStarts[i] = before.trim();
+            declarationEnds[i] = after;
+            from = end;
+        }
+        literals[count] = output.substring(from);
+
+        return new StyleTemplate(CssPreprocessor.runtimeContextKey(styleContext), literals, expressions, locations,
+                declarationStarts, declarationEnds);
+    }
+
+    /**
+     * Renders the style with the token values from the given provider.
+     *
+     * @return the output, or null if a value can't go in its slot and the style must be parsed in full.
+     */
+    String render(TokenValueProvider tvp, StyleContext styleContext, StyleAdapter styleAdapter) {
+        int length = 0;
+        for (String literal : literals) {
+            length += literal.length();
+        }
+        StringBuilder sb = new StringBuilder(length + expressions.length * 16);
+
+        for (int i = 0; i < expressions.length; i++) {
+            Object evaluated;
+            try {
+                evaluated = tvp.getValue(expressions[i], locations[i], true);
+            } catch (QuickFixException e) {
+                return null;
+            }
+            if (evaluated == null) {
+                return null;
+            }
+            String value = evaluated.toString();
+            if (!isSafe(i, value, styleContext, styleAdapter)) {
+                return null;
+            }
+            sb.append(literals[i]).append(value);
+        }
+        sb.append(literals[expressions.length]);
+        return sb.toString();
+    }
+
+    private boolean isSafe(int slot, String value, StyleContext styleContext, StyleAdapter styleAdapter) {
+        if (!PLAIN_VALUE.matcher(value).matches() || value.contains("/*") || value.contains(SLOT)) {
+            return false;
+        }
+
+        String start = declarationStarts[slot];
+        String end = declarationEnds[slot];
+        String key = contextKey + '\n' + start + '\n' + end + '\n' + value;
+        Boolean safe = probes.getIfPresent(key);
+        if (safe == null) {
+            String expected = probe(start + PROBE_SLOT + end, styleContext, styleAdapter);
+            String actual = probe(start + value + end, styleContext, styleAdapter);
+            safe = expected != null && actual != null && actual.equals(expected.replace(PROBE_SLOT, value));
+            probes.put(key, safe);
+        }
+        return safe;
+    }
+
+    private static String probe(String declaration, StyleContext styleContext, StyleAdapter styleAdapter) {
+        try {
+            return CssPreprocessor.runtime(styleContext, styleAdapter)
+                    .source(".x{" + declaration + "}")
+                    .parse()
+                    .content();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private static int count(String s, String part) {
+        int count = 0;
+        for (int i = s.indexOf(part); i >= 0; i = s.indexOf(part, i + part.length())) {
+            count++;
+        }
+        return count;
+    }
+
+    private static int indexOfEither(String s, char a, char b, int from) {
+        for (int i = from; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c == a || c == b) {
+                return i;
+            }
+        }
+        return s.length();
+    }
+
+    /**
+     * Gives a slot keyword for each token function, and remembers the expression and location of each.
+     */
+    private static final class SlotProvider implements TokenValueProvider {
+        private final List<String> expressions = new ArrayList<>();
+        private final List<Location> locations = new ArrayList<>();
+        private boolean unsupported;
+
+        @Override
+        public Object getValue(String expression, Location location, boolean injectCssVarSyntax) {
+            expressions.add(expression);
+            locations.add(location);
+            return SLOT + (expressions.size() - 1) + 'z';
+        }
+
+        @Override
+        public Object getValue(String expression, Location location) {
+            // media queries are parsed from the value, they can't hold a slot
+            unsupported = true;
+            return "all";
+        }
+
+        /*
+         * The lookups below are made by plugins that read token values while they parse, so their output can't be
+         * templated. They get an empty answer so the parse can finish, and the template is dropped.
+         */
+
+        @Override
+        public Object getValue(PropertyReference key) {
+            unsupported = true;
+            return null;
+        }
+
+        @Override
+        public Set<String> extractTokenNames(String expression, boolean followCrossReferences) {
+            unsupported = true;
+            return Collections.emptySet();
+        }
+
+        @Override
+        public Set<List<TokenDef>> extractTokenDefs(String expression) {
+            unsupported = true;
+            return Collections.emptySet();
+        }
+
+        @Override
+        public ResolveStrategy getResolveStrategy() {
+            return ResolveStrategy.RESOLVE_NORMAL;
+        }
+    }
+}
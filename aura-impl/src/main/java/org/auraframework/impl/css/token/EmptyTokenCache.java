@@ -83,4 +83,9 @@ final class EmptyTokenCache implements TokenCache {
     public Optional<String> getTokensUid() throws QuickFixException {
         return Optional.absent();
     }
+
+    @Override
+    public Optional<String> getContentHash() throws QuickFixException {
+        return Optional.absent();
+    }
 }
@@ -17,6 +17,7 @@ package org.auraframework.impl.css.token;
 
 import static com.google.common.base.Preconditions.checkNotNull;
 
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
@@ -31,6 +32,7 @@ import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.TokenDef;
 import org.auraframework.def.TokenMapProviderDef;
 import org.auraframework.def.TokensDef;
+import org.auraframework.expression.Expression;
 import org.auraframework.impl.java.provider.TokenMapProviderInstance;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -40,8 +42,10 @@ import com.google.common.base.MoreObjects;
 import com.google.common.base.Optional;
 import com.google.common.base.Predicate;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableMultimap;
 import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.ImmutableTable;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
@@ -54,6 +58,10 @@ public final class TokenCacheImpl implements TokenCache {
     private final ImmutableTable<String, DefDescriptor<TokensDef>, String> dynamicTokens;
     private final DefinitionService definitionService;
 
+    /** the value {@link #getToken(String)} gives for each name, built on first use */
+    private volatile ImmutableMap<String, Object> resolved;
+    private volatile Optional<String> contentHash;
+
     public TokenCacheImpl(DefinitionService definitionService, Iterable<DefDescriptor<TokensDef>> descriptors)
             throws QuickFixException {
         checkNotNull(descriptors, "descriptors cannot be null, see EmptyTokenCache instead");
@@ -117,22 +125,43 @@ public final class TokenCacheImpl implements TokenCache {
 
     @Override
     public Optional<Object> getToken(String name) throws QuickFixException {
-        for (DefDescriptor<TokensDef> descriptor : reversed) { // reverse order; last one wins
-            TokensDef def = definitionService.getDefinition(descriptor);
+        return Optional.fromNullable(getResolved().get(name));
+    }
 
-            Optional<Object> value = def.getToken(name);
-            if (value.isPresent()) {
-                return value;
+    /**
+     * Gets the flattened table of token values, building it on first use.
+     * <p>
+     * This holds the same value for each name as walking the defs in {@link #orderedForEvaluation()} order, where a
+     * token declared (or imported or inherited) by a def takes precedence over a map-provided token of the same def.
+     */
+    private ImmutableMap<String, Object> getResolved() throws QuickFixException {
+        ImmutableMap<String, Object> table = resolved;
+        if (table == null) {
+            synchronized (this) {
+                table = resolved;
+                if (table == null) {
+                    resolved = table = resolve();
+                }
             }
+        }
+        return table;
+    }
+
+    private ImmutableMap<String, Object> resolve() throws QuickFixException {
+        Map<String, Object> table = new HashMap<>();
+        for (DefDescriptor<TokensDef> descriptor : descriptors) { // in order; last one wins
+            TokensDef def = definitionService.getDefinition(descriptor);
             if (def.getMapProvider() != null) {
-                value = Optional.<Object>fromNullable(dynamicTokens.get(name, descriptor));
+                table.putAll(dynamicTokens.column(descriptor));
             }
-            if (value.isPresent()) {
-                return value;
+            for (String name : def.getAllNames()) {
+                Optional<Object> value = def.getToken(name);
+                if (value.isPresent()) {
+                    table.put(name, value.get());
+                }
             }
         }
-
-        return Optional.absent();
+        return ImmutableMap.copyOf(table);
     }
 
     @Override
@@ -209,6 +238,29 @@ public final class TokenCacheImpl implements TokenCache {
         return Optional.of(builder.build().toString());
     }
 
+    @Override
+    public Optional<String> getContentHash() throws QuickFixException {
+        Optional<String> hash = contentHash;
+        if (hash == null) {
+            ImmutableMap<String, Object> table = getResolved();
+            if (table.isEmpty()) {
+                hash = Optional.absent();
+            } else {
+                Hash.StringBuilder builder = new Hash.StringBuilder();
+                for (Entry<String, Object> entry : ImmutableSortedMap.copyOf(table).entrySet()) {
+                    Object value = entry.getValue();
+                    builder.addString(entry.getKey());
+                    // a cross reference is not the same as a string with the name of the token
+                    builder.addString(value instanceof Expression ? "expression" : "value");
+                    builder.addString(value.toString());
+                }
+                hash = Optional.of(builder.build().toString());
+            }
+            contentHash = hash;
+        }
+        return hash;
+    }
+
     @Override
     public String toString() {
         return MoreObjects.toStringHelper(this).add("tokens", descriptors).add("dynamicTokens", activeDynamicTokens()).toString();
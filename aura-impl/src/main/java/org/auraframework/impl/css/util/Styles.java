@@ -15,7 +15,12 @@
  */
 package org.auraframework.impl.css.util;
 
+import java.util.HashSet;
+import java.util.Set;
+
+import org.auraframework.css.TokenValueProvider;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.throwable.quickfix.QuickFixException;
 import org.auraframework.util.AuraTextUtil;
 
 /**
@@ -31,4 +36,25 @@ public final class Styles {
     public static String buildClassName(DefDescriptor<?> descriptor) {
         return descriptor.getNamespace() + AuraTextUtil.initCap(descriptor.getName());
     }
+
+    /**
+     * Gets the names of the tokens referenced from the given token expressions, without following cross references.
+     *
+     * @param tvp The {@link TokenValueProvider} the expressions were collected with.
+     * @param expressions The token function expressions, or null.
+     * @return The token names, or null if an expression is invalid (validating the style reports it).
+     */
+    public static Set<String> getTokenNames(TokenValueProvider tvp, Set<String> expressions) {
+        Set<String> names = new HashSet<>();
+        if (expressions != null) {
+            try {
+                for (String expression : expressions) {
+                    names.addAll(tvp.extractTokenNames(expression, false));
+                }
+            } catch (QuickFixException e) {
+                return null;
+            }
+        }
+        return names;
+    }
 }
@@ -27,6 +27,7 @@ import org.auraframework.impl.DefinitionAccessImpl;
 import org.auraframework.impl.css.flavor.FlavoredStyleDefImpl;
 import org.auraframework.impl.css.parser.CssPreprocessor;
 import org.auraframework.impl.css.parser.CssPreprocessor.ParserResult;
+import org.auraframework.impl.css.util.Styles;
 import org.auraframework.impl.source.AbstractSourceImpl;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.DefinitionFactory;
@@ -75,6 +76,7 @@ public final class FlavoredStyleParser implements DefinitionFactory<TextSource<F
         builder.setOwnHash(source.getHash());
         builder.setContent(result.content());
         builder.setTokenExpressions(result.expressions());
+        builder.setTokenNames(Styles.getTokenNames(tvp, result.expressions()));
         builder.setFlavorAnnotations(result.flavorAnnotations());
         builder.setTokensInCssProperties(result.tokensInCssProperties());
         builder.setAccess(new DefinitionAccessImpl(AuraContext.Access.PUBLIC));
@@ -40,7 +40,7 @@ public class CSPInliningBrowserRule implements CSPInliningRule {
     @Override
     public void process(CSPInliningCriteria criteria) {
         String userAgent = criteria.getContext().getClient().getUserAgent();
-        BrowserInfo bi = new BrowserInfo(userAgent);
+        BrowserInfo bi = BrowserInfo.get(userAgent);
 
         boolean isSupported = false;
 
@@ -17,16 +17,24 @@ package org.auraframework.impl.http.resource;
 
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.io.StringWriter;
 import java.math.BigInteger;
 import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutionException;
 
+import javax.inject.Inject;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.adapter.ExpressionBuilder;
 import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
@@ -35,12 +43,15 @@ import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.expression.Expression;
 import org.auraframework.expression.Literal;
 import org.auraframework.expression.PropertyReference;
+import org.auraframework.http.AuraResourceServlet;
+import org.auraframework.http.BootstrapResponse;
 import org.auraframework.http.BootstrapUtil;
 import org.auraframework.http.resource.AuraResourceImpl;
 import org.auraframework.impl.util.TextTokenizer;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.Instance;
+import org.auraframework.service.CachingService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.throwable.AuraJWTError;
@@ -51,6 +62,10 @@ import org.auraframework.util.json.JsonSerializationContext;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Lazy;
 
+import com.google.common.base.Joiner;
+import com.google.common.base.Throwables;
+import com.google.common.collect.MapMaker;
+
 /**
  * Handles /l/{}/bootstrap.js requests to retrieve bootstrap.js.
  */
@@ -59,6 +74,14 @@ public class Bootstrap extends AuraResourceImpl {
     private final BootstrapUtil bootstrapUtil;
     private final ExpressionBuilder expressionBuilder;
 
+    /**
+     * Parsed bootstrapPublicCacheExpiration expressions. Keys are weak, and compared by identity, so an entry goes
+     * away with the definition it was parsed for.
+     */
+    private final Map<ApplicationDef, Optional<Expression>> expirationExpressions = new MapMaker().weakKeys().makeMap();
+
+    private CachingService cachingService;
+
     @Lazy
     @Autowired
     public Bootstrap(final BootstrapUtil bootstrapUtil, final ExpressionBuilder expressionBuilder) {
@@ -77,7 +100,7 @@ public class Bootstrap extends AuraResourceImpl {
         Integer expiration = null;
         
         if (appDef.getBootstrapPublicCacheExpiration() != null) {
-            Expression expression = expressionBuilder.buildExpression(TextTokenizer.unwrap(appDef.getBootstrapPublicCacheExpiration()), null);
+            Expression expression = getBootstrapPublicCacheExpression(appDef);
             
             Object value = null;
             if (expression instanceof Literal) {
@@ -119,6 +142,21 @@ public class Bootstrap extends AuraResourceImpl {
         return expiration;
     }
 
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
+
+    private Expression getBootstrapPublicCacheExpression(final ApplicationDef appDef) throws QuickFixException {
+        Optional<Expression> expression = expirationExpressions.get(appDef);
+        if (expression == null) {
+            expression = Optional.ofNullable(expressionBuilder.buildExpression(
+                    TextTokenizer.unwrap(appDef.getBootstrapPublicCacheExpiration()), null));
+            expirationExpressions.put(appDef, expression);
+        }
+        return expression.orElse(null);
+    }
+
     @SuppressWarnings("boxing")
     protected void setCacheHeaders(HttpServletResponse response, DefDescriptor<? extends BaseComponentDef> appDesc)
             throws QuickFixException {
@@ -150,40 +188,13 @@ public class Bootstrap extends AuraResourceImpl {
                 throw new AuraJWTError("Invalid jwt parameter");
             }
             definitionService.updateLoaded(app);
-            setCacheHeaders(response, app);
-            Instance<?> appInstance = null;
-            if (!configAdapter.isBootstrapModelExclusionEnabled()) {
-                appInstance = instanceService.getInstance(app, getComponentAttributes(request));
-            }
-            bootstrapUtil.loadLabelsToContext(context, this.definitionService);
-
-            JsonSerializationContext serializationContext = context.getJsonSerializationContext();
-
-            WrappedPrintWriter out = new WrappedPrintWriter(response.getWriter());
-            out.append(bootstrapUtil.getPrependScript());
-            JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
-            json.writeMapBegin();
-            json.writeMapKey("data");
-            json.writeMapBegin();
-
-            bootstrapUtil.serializeApplication(appInstance, null, context, json);
-
-            context.getInstanceStack().serializeAsPart(json);
-            json.writeMapEnd();
-            json.writeMapEntry("md5", out.getMD5());
-            context.setPreloading(false);
-            context.setSerializeDefinitions(true);
-            json.writeMapEntry("context", context);
-
-            // CSRF token is usually handled in inline.js, but in the few cases
-            // where inline.js may be cached, bootstrap may need to be able to
-            // return a current token.
-            if (manifestUtil.isManifestEnabled()) {
-                json.writeMapEntry("token", configAdapter.getCSRFToken());
+            Cache<String, BootstrapResponse> responseCache = getResponseCache(app, jwtToken);
+            if (responseCache != null) {
+                writeCached(request, response, context, app, responseCache);
+            } else {
+                setCacheHeaders(response, app);
+                writeBootstrap(request, context, app, response.getWriter());
             }
-
-            json.writeMapEnd();
-            out.append(bootstrapUtil.getAppendScript());
         } catch (Throwable t) {
             if (t instanceof AuraJWTError) {
                 // If jwt validation fails, just 404. Do not gack.
@@ -200,11 +211,141 @@ public class Bootstrap extends AuraResourceImpl {
         }
     }
 
+    /**
+     * Get the response cache, if the response for this app may be shared.
+     *
+     * Only apps that declare a public cache expiration are cached. A request guarded by a jwt asks for user sensitive
+     * information, and when a CSRF token has to be sent along with the bootstrap, the response belongs to a single
+     * user too. Neither is ever cached.
+     */
+    private Cache<String, BootstrapResponse> getResponseCache(DefDescriptor<? extends BaseComponentDef> app,
+            String jwtToken) throws QuickFixException {
+        if (cachingService == null || jwtToken != null || app.getDefType() != DefType.APPLICATION
+                || manifestUtil.isManifestEnabled()) {
+            return null;
+        }
+        ApplicationDef appDef = (ApplicationDef) definitionService.getDefinition(app);
+        if (appDef.getBootstrapPublicCacheExpiration() == null) {
+            return null;
+        }
+        return cachingService.getBootstrapResponseCache();
+    }
+
+    /**
+     * Write the bootstrap from the response cache, rendering it at most once for concurrent misses.
+     *
+     * A response that turns out not to be cacheable is handed to the request that rendered it and dropped; requests
+     * that were waiting on it render their own.
+     */
+    private void writeCached(HttpServletRequest request, HttpServletResponse response, AuraContext context,
+            DefDescriptor<? extends BaseComponentDef> app, Cache<String, BootstrapResponse> responseCache)
+            throws Exception {
+        String key = getResponseCacheKey(request, context, app);
+        BootstrapResponse cached = responseCache.getIfPresent(key);
+        if (cached != null && cached.isExpired(System.currentTimeMillis())) {
+            responseCache.invalidate(key);
+        }
+        boolean[] rendered = new boolean[1];
+        BootstrapResponse bootstrap;
+        try {
+            bootstrap = responseCache.get(key, () -> {
+                rendered[0] = true;
+                return render(request, context, app);
+            });
+        } catch (ExecutionException ee) {
+            Throwables.throwIfInstanceOf(ee.getCause(), Exception.class);
+            throw new AuraRuntimeException(ee.getCause());
+        }
+        long remaining = bootstrap.expiresAt - System.currentTimeMillis();
+        if (remaining <= 0) {
+            if (!rendered[0]) {
+                setCacheHeaders(response, app);
+                writeBootstrap(request, context, app, response.getWriter());
+                return;
+            }
+            responseCache.invalidate(key);
+            servletUtilAdapter.setNoCache(response);
+        } else {
+            servletUtilAdapter.setCacheTimeout(response, remaining, false);
+        }
+        response.getWriter().append(bootstrap.payload);
+    }
+
+    private BootstrapResponse render(HttpServletRequest request, AuraContext context,
+            DefDescriptor<? extends BaseComponentDef> app) throws IOException, QuickFixException {
+        ApplicationDef appDef = (ApplicationDef) definitionService.getDefinition(app);
+        Integer expiration = getBootstrapPublicCacheExpiration(appDef);
+        StringWriter out = new StringWriter();
+        writeBootstrap(request, context, app, out);
+        long expiresAt = 0;
+        if (expiration != null && expiration.intValue() > 0) {
+            expiresAt = System.currentTimeMillis() + expiration.longValue() * 1000;
+        }
+        return new BootstrapResponse(out.toString(), expiresAt);
+    }
+
+    /**
+     * The key of a cached bootstrap: app, UID, locale, client, and the request itself.
+     */
+    private static String getResponseCacheKey(HttpServletRequest request, AuraContext context,
+            DefDescriptor<? extends BaseComponentDef> app) {
+        Map<String, String[]> parameters = new TreeMap<>(request.getParameterMap());
+        StringBuilder query = new StringBuilder();
+        for (Map.Entry<String, String[]> parameter : parameters.entrySet()) {
+            query.append(parameter.getKey()).append('=').append(Arrays.toString(parameter.getValue())).append('&');
+        }
+        return Joiner.on('|').useForNull("").join(
+                app.getQualifiedName(),
+                context.getUid(app),
+                context.getRequestedLocales(),
+                context.getClient().getType(),
+                context.getMode(),
+                request.getAttribute(AuraResourceServlet.ORIG_REQUEST_URI),
+                query);
+    }
+
+    private void writeBootstrap(HttpServletRequest request, AuraContext context,
+            DefDescriptor<? extends BaseComponentDef> app, Appendable target) throws IOException, QuickFixException {
+        Instance<?> appInstance = null;
+        if (!configAdapter.isBootstrapModelExclusionEnabled()) {
+            appInstance = instanceService.getInstance(app, getComponentAttributes(request));
+        }
+        bootstrapUtil.loadLabelsToContext(context, this.definitionService);
+
+        JsonSerializationContext serializationContext = context.getJsonSerializationContext();
+
+        WrappedPrintWriter out = new WrappedPrintWriter(target);
+        out.append(bootstrapUtil.getPrependScript());
+        JsonEncoder json = JsonEncoder.createJsonStream(out, serializationContext);
+        json.writeMapBegin();
+        json.writeMapKey("data");
+        json.writeMapBegin();
+
+        bootstrapUtil.serializeApplication(appInstance, null, context, json);
+
+        context.getInstanceStack().serializeAsPart(json);
+        json.writeMapEnd();
+        json.writeMapEntry("md5", out.getMD5());
+        context.setPreloading(false);
+        context.setSerializeDefinitions(true);
+        json.writeMapEntry("context", context);
+
+        // CSRF token is usually handled in inline.js, but in the few cases
+        // where inline.js may be cached, bootstrap may need to be able to
+        // return a current token.
+        if (manifestUtil.isManifestEnabled()) {
+            json.writeMapEntry("token", configAdapter.getCSRFToken());
+        }
+
+        json.writeMapEnd();
+        out.append(bootstrapUtil.getAppendScript());
+    }
+
     private static class WrappedPrintWriter implements Appendable {
-        private final PrintWriter inner;
+        private final Appendable inner;
         private final MessageDigest m;
 
-        WrappedPrintWriter(PrintWriter inner) {
+        WrappedPrintWriter(Appendable inner) {
             try {
                 m = MessageDigest.getInstance("MD5");
             } catch (NoSuchAlgorithmException e) {
@@ -97,7 +97,7 @@ public class IntegrationImpl implements Integration {
                            ClientLibraryService clientLibraryService,
                            BrowserCompatibilityService browserCompatibilityService) throws QuickFixException {
         this.userAgent = userAgent;
-        this.client = userAgent != null ? new Client(userAgent) : null;
+        this.client = userAgent != null ? Client.get(userAgent) : null;
         this.contextPath = contextPath;
         this.mode = mode;
         this.initializeAura = initializeAura;
@@ -46,6 +46,8 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
     private Object returnValue;
     private final List<Object> errors = Lists.newArrayList();
     private final Object instance;
+    /** Why params converted while the request was read failed, null when the params still need converting */
+    private Map<String, Exception> paramErrors;
 
     private final ExceptionAdapter exceptionAdapter;
     private final LoggingService loggingService;
@@ -81,7 +83,11 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         for (ValueDef valueDef : actionDef.getParameters()) {
             Object param = paramValues.get(valueDef.getName());
             try {
-                param = valueDef.getType().valueOf(param);
+                if (paramErrors == null) {
+                    param = valueDef.getType().valueOf(param);
+                } else if (paramErrors.containsKey(valueDef.getName())) {
+                    throw paramErrors.get(valueDef.getName());
+                }
             } catch (QuickFixException qfe) {
                 //
                 // This means that we have a broken definition.
@@ -106,6 +112,11 @@ public class JavaAction extends AbstractActionImpl<JavaActionDef> {
         return args;
     }
 
+    @Override
+    public void setParamConversionErrors(Map<String, Exception> errors) {
+        this.paramErrors = errors;
+    }
+
     /**
      * Add an exception to our set of errors.
      *
@@ -42,6 +42,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
     private final boolean background;
     private final boolean caboose;
     private final boolean cacheable;
+    private final boolean concurrent;
     private String actionGroup;
     private final boolean publicCachingEnabled;
     private final int publicCachingExpiration;
@@ -56,6 +57,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         this.background = builder.background;
         this.caboose = builder.caboose;
         this.cacheable = builder.cacheable;
+        this.concurrent = builder.concurrent;
         this.actionGroup = builder.actionGroup;
         this.publicCachingEnabled = builder.publicCachingEnabled;
         this.publicCachingExpiration = builder.publicCachingExpiration;
@@ -107,6 +109,11 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         return cacheable;
     }
     
+    @Override
+    public boolean isConcurrent() {
+        return concurrent;
+    }
+
     public String getActionGroup() {
         return this.actionGroup;
     }
@@ -170,6 +177,7 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
         private boolean cacheable = false;
         private boolean background = false;
         private boolean caboose = false;
+        private boolean concurrent = false;
         private String actionGroup;
         private boolean publicCachingEnabled = false;
         private int publicCachingExpiration = -1;
@@ -231,6 +239,10 @@ public class JavaActionDef extends DefinitionImpl<ActionDef> implements ActionDe
             this.caboose = caboose;
         }
         
+        public void setConcurrent(boolean concurrent) {
+            this.concurrent = concurrent;
+        }
+
         public void setActionGroup(String actionGroup) {
             this.actionGroup = actionGroup;
         }
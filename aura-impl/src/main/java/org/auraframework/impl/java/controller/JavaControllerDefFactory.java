@@ -42,6 +42,7 @@ import org.auraframework.system.Annotations.AuraEnabled;
 import org.auraframework.system.Annotations.ActionGroup;
 import org.auraframework.system.Annotations.BackgroundAction;
 import org.auraframework.system.Annotations.CabooseAction;
+import org.auraframework.system.Annotations.ConcurrentAction;
 import org.auraframework.system.Annotations;
 import org.auraframework.system.Annotations.Key;
 import org.auraframework.system.Annotations.PublicCachingEnabled;
@@ -148,6 +149,7 @@ public class JavaControllerDefFactory implements DefinitionFactory<JavaSourceImp
         
         actionBuilder.setBackground(method.isAnnotationPresent(BackgroundAction.class));
         actionBuilder.setCaboose(method.isAnnotationPresent(CabooseAction.class));
+        actionBuilder.setConcurrent(method.isAnnotationPresent(ConcurrentAction.class));
 
         AuraEnabled auraEnabledAnnotation = method.getAnnotation(AuraEnabled.class);
         if (auraEnabledAnnotation != null) {
@@ -38,7 +38,7 @@ public class AuraJavascriptGroup extends DirectiveBasedJavascriptGroup implement
     public static final File ROOT_DIR = AuraImplFiles.AuraJavascriptSourceDirectory.asFile();
     public static final File ENGINE_DIR = AuraImplFiles.EngineSourceDirectory.asFile();
     public static final File AURALOCKER_DIR = AuraImplFiles.AuraLockerSourceDirectory.asFile();
-    private boolean isStale = true;
+    private volatile boolean isStale = true;
 
     public AuraJavascriptGroup(FileMonitor fileMonitor) throws IOException {
         this(fileMonitor, false);
@@ -51,6 +51,9 @@ import java.util.Optional;
 
 import org.apache.commons.lang3.StringUtils;
 import org.auraframework.impl.util.UserAgent.UA;
+import org.auraframework.system.UserAgentCache;
+
+import com.google.common.cache.CacheStats;
 
 
 // user-agent parser to provide browser information
@@ -117,7 +120,11 @@ public class BrowserInfo {
         }
     }
 
+    private static final UserAgentCache<BrowserInfo> cache = new UserAgentCache<>(BrowserInfo::new);
+
     private final String userAgentString;
+    private final String lowerCaseUserAgentString;
+    private volatile Boolean mobileClient;
     private boolean isTablet;
     private boolean isPhone;
     private boolean isAndroid;
@@ -144,9 +151,38 @@ public class BrowserInfo {
             userAgentString = "";
         }
         this.userAgentString = BrowserUserAgent.sanitizeString(userAgentString).trim();
+        this.lowerCaseUserAgentString = this.userAgentString.toLowerCase();
         parseUserAgent();
     }
 
+    /**
+     * Get the browser information for a user agent.
+     *
+     * Traffic is dominated by a few identical user agents, so parsed results are kept in a bounded cache. The
+     * returned instance is shared and must be treated as immutable.
+     *
+     * @param userAgentString the raw User-Agent header, may be null
+     * @return the parsed browser information
+     */
+    public static BrowserInfo get(String userAgentString) {
+        return cache.get(userAgentString == null ? "" : userAgentString);
+    }
+
+    /**
+     * @return hit and miss statistics of the user agent cache used by {@link #get(String)}
+     */
+    public static CacheStats getCacheStats() {
+        return cache.stats();
+    }
+
+    /**
+     * @return the browser type parsed by {@link BrowserUserAgent#parseBrowser(String)}, to match against a
+     *         {@link UserAgent}
+     */
+    public int getBrowserType() {
+        return browserType;
+    }
+
     public boolean isTablet() {
         return isTablet;
     }
@@ -348,7 +384,7 @@ public class BrowserInfo {
                 return true;
             }
             // string check allows for odd browsers
-            return agent.match(userAgentString.toLowerCase());
+            return agent.match(lowerCaseUserAgentString);
         }
         return false;
     }
@@ -575,7 +611,13 @@ public class BrowserInfo {
         // TODO: see if this can be replaced by BrowserInfo.isBrowserMobile()
         // It is easier to maintain with no third party dependencies and ~7x
         // faster.
-        return isMobileClient(userAgentString);
+        // shared instances from get() ask this repeatedly, and the full pattern scan is expensive
+        Boolean result = mobileClient;
+        if (result == null) {
+            result = isMobileClient(userAgentString);
+            mobileClient = result;
+        }
+        return result;
     }
 
     /**
@@ -17,13 +17,13 @@ package test.org.auraframework.impl.adapter;
 
 import java.io.File;
 import java.io.FileFilter;
-import java.io.FileInputStream;
-import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.OutputStream;
 import java.io.StringReader;
 import java.net.MalformedURLException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
 import java.util.Collections;
@@ -35,8 +35,14 @@ import java.util.Properties;
 import java.util.Set;
 import java.util.TimeZone;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
 
 import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.inject.Inject;
 import javax.servlet.http.HttpServletRequest;
 
@@ -59,7 +65,6 @@ import org.auraframework.impl.source.AuraResourcesHashingGroup;
 import org.auraframework.impl.system.DefDescriptorImpl;
 import org.auraframework.impl.util.AuraImplFiles;
 import org.auraframework.impl.util.BrowserInfo;
-import org.auraframework.impl.util.BrowserUserAgent;
 import org.auraframework.impl.util.UserAgent;
 import org.auraframework.instance.BaseComponent;
 import org.auraframework.modules.ModuleNamespaceAlias;
@@ -70,6 +75,7 @@ import org.auraframework.service.InstanceService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Mode;
 import org.auraframework.system.DefRegistry;
+import org.auraframework.system.SourceListener;
 import org.auraframework.throwable.AuraError;
 import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.quickfix.QuickFixException;
@@ -90,15 +96,19 @@ import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.ImmutableSortedSet;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 
 @ServiceComponent
-public class ConfigAdapterImpl implements ConfigAdapter {
+public class ConfigAdapterImpl implements ConfigAdapter, SourceListener {
     Logger logger = Logger.getLogger(ConfigAdapterImpl.class);
 
     private static final String TIMESTAMP_FORMAT_PROPERTY = "aura.build.timestamp.format";
     private static final String TIMESTAMP_PROPERTY = "aura.build.timestamp";
     private static final String VERSION_PROPERTY = "aura.build.version";
     private static final String VALIDATE_CSS_CONFIG = "aura.css.validate";
+    private static final String CONCURRENT_ACTION_THREADS_PROPERTY = "aura.concurrentActionThreads";
+    private static final String APP_JS_CHUNKS_PROPERTY = "aura.appJsChunks";
+    private static final String STYLE_WRITER_THREADS_PROPERTY = "aura.styleWriterThreads";
 
     private final Map<String, String> SYSTEM_NAMESPACES = new ConcurrentHashMap<>();
     private final Map<String, Boolean> CANONICAL_NAMESPACES = new ConcurrentHashMap<>();
@@ -118,15 +128,26 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     private final DefDescriptor<InterfaceDef> CSS_TRANSFORM_MARKER_INTERFACE = new DefDescriptorImpl<>("markup", "aura", "enableCssVariableTransform", InterfaceDef.class);
 
     protected final Set<Mode> allModes = EnumSet.allOf(Mode.class);
-    private JavascriptGroup jsGroup;
-    private FileGroup resourcesGroup;
-    private String jsUid = "";
-    private String resourcesUid = "";
-    private String fwUid = "";
+    private volatile JavascriptGroup jsGroup;
+    private volatile FileGroup resourcesGroup;
+    private volatile FrameworkVersion frameworkVersion;
     private ResourceLoader resourceLoader;
     private Long buildTimestamp;
     private String auraVersionString;
-    private boolean lastGenerationHadCompilationErrors = false;
+    private volatile boolean lastGenerationHadCompilationErrors = false;
+
+    /**
+     * Guards framework javascript regeneration. Requests never wait on it once a version has been published.
+     */
+    private final Object regenerationLock = new Object();
+
+    /**
+     * Counts regeneration starts and ends, so it is odd while a regeneration is running.
+     */
+    private final AtomicLong regenerations = new AtomicLong();
+    private final AtomicBoolean regenerationScheduled = new AtomicBoolean();
+    private final ExecutorService regenerationExecutor = Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("aura-js-regeneration").setDaemon(true).build());
     private Boolean validateCss;
 
     @Inject
@@ -206,7 +227,16 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         contextService.registerGlobal("dynamicTypeSize", true, "");
     }
 
+    @PreDestroy
+    public void shutdownRegenerationExecutor() {
+        regenerationExecutor.shutdown();
+    }
+
     private JavascriptGroup getJSGroup() {
+        JavascriptGroup group = jsGroup;
+        if (group != null) {
+            return group;
+        }
         synchronized (this) {
             if (jsGroup != null) {
                 return jsGroup;
@@ -221,6 +251,9 @@ public class ConfigAdapterImpl implements ConfigAdapter {
                     throw new AuraError("Unable to initialize aura client javascript", x);
                 }
                 tempGroup.postProcess();
+                if (fileMonitor != null) {
+                    fileMonitor.subscribeToChangeNotification(this);
+                }
             } catch (IOException x) {
                 /*
                  * js source wasn't found, we must be in jar land, just let the files be accessed from there...
@@ -228,11 +261,15 @@ public class ConfigAdapterImpl implements ConfigAdapter {
                 tempGroup = new CompiledGroup(AuraJavascriptGroup.GROUP_NAME, AuraJavascriptGroup.FILE_NAME);
             }
             jsGroup = tempGroup;
+            return tempGroup;
         }
-        return jsGroup;
     }
 
     private FileGroup getResourcesGroup() {
+        FileGroup group = resourcesGroup;
+        if (group != null) {
+            return group;
+        }
         synchronized (this) {
             if (resourcesGroup != null) {
                 return resourcesGroup;
@@ -247,8 +284,8 @@ public class ConfigAdapterImpl implements ConfigAdapter {
                         AuraResourcesHashingGroup.FILE_NAME);
             }
             resourcesGroup = tempResourcesGroup;
+            return tempResourcesGroup;
         }
-        return resourcesGroup;
     }
 
     protected FileGroup newAuraResourcesHashingGroup() throws IOException {
@@ -311,38 +348,123 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     }
 
     @Override
-    public synchronized void regenerateAuraJS() {
+    public void regenerateAuraJS() {
         /*
          * If we're missing source, jsGroup will be an AuraResourceGroup and isStale() is always false. If we're in
-         * production, we're using the resources too. But if we have source, regenerate from it if it's changed:
+         * production, we're using the resources too. But if we have source, regenerate from it if it's changed.
+         *
+         * Staleness is tracked by the file monitor, so this check takes no lock. Once a framework version has been
+         * published, regeneration runs in the background and requests keep the previous version until it is done.
          */
-        if (!isProduction() && (getJSGroup().isStale() || lastGenerationHadCompilationErrors)) {
-            try {
-                logger.info("Regenerating framework javascript");
-                File dest = AuraImplFiles.AuraResourceJavascriptDirectory.asFile();
-                File resourceDest = AuraImplFiles.AuraResourceJavascriptClassDirectory.asFile();
-                jsGroup.regenerate(dest);
-                // now we have to copy the new files to the resource directory
-                logger.info("Copying regenerated files to " + resourceDest);
-                File[] destFiles = dest.listFiles(JS_ONLY);
-                if (destFiles != null && destFiles.length > 0) {
-                    resourceDest.mkdirs(); // If we got this far without this directory, just create it.
-                    for (File f : destFiles) {
-                        logger.info(f);
-                        InputStream is = new FileInputStream(f);
-                        OutputStream os = new FileOutputStream(new File(resourceDest, f.getName()));
-                        IOUtil.copyStream(is, os);
-                        getResourceLoader().refreshCache("aura/javascript/" + f.getName());
-
-                        is.close();
-                        os.close();
+        if (isProduction()) {
+            return;
+        }
+        if (frameworkVersion != null) {
+            if (getJSGroup().isStale() || lastGenerationHadCompilationErrors) {
+                scheduleRegeneration();
+            }
+            return;
+        }
+        if (getJSGroup().isStale() || lastGenerationHadCompilationErrors) {
+            // Nothing has been served yet, so there is no previous version to fall back to.
+            synchronized (regenerationLock) {
+                if (getJSGroup().isStale() || lastGenerationHadCompilationErrors) {
+                    regenerate();
+                }
+            }
+        }
+    }
+
+    /**
+     * Start regenerating the framework javascript on the background thread, unless that is already pending.
+     */
+    private void scheduleRegeneration() {
+        if (!regenerationScheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            regenerationExecutor.execute(() -> {
+                try {
+                    synchronized (regenerationLock) {
+                        if (getJSGroup().isStale() || lastGenerationHadCompilationErrors) {
+                            regenerate();
+                        }
                     }
+                } catch (AuraRuntimeException x) {
+                    // Keep serving the previous version, the next request will try again.
+                    logger.error(x.getMessage(), x.getCause());
+                } finally {
+                    regenerationScheduled.set(false);
+                }
+            });
+        } catch (RejectedExecutionException x) {
+            regenerationScheduled.set(false);
+        }
+    }
+
+    /**
+     * Regenerate the framework javascript into a staging directory, and only swap the files in once all of them were
+     * generated. The served files are never half written, and are left alone when generation fails.
+     */
+    private void regenerate() {
+        regenerations.incrementAndGet();
+        File staging = null;
+        try {
+            logger.info("Regenerating framework javascript");
+            File dest = AuraImplFiles.AuraResourceJavascriptDirectory.asFile();
+            File resourceDest = AuraImplFiles.AuraResourceJavascriptClassDirectory.asFile();
+            dest.getParentFile().mkdirs();
+            staging = Files.createTempDirectory(dest.getParentFile().toPath(), dest.getName() + "-").toFile();
+            jsGroup.regenerate(staging);
+            File[] stagedFiles = staging.listFiles(JS_ONLY);
+            if (stagedFiles != null && stagedFiles.length > 0) {
+                // now we have to move the new files to the served directories
+                logger.info("Moving regenerated files to " + dest + " and " + resourceDest);
+                dest.mkdirs();
+                resourceDest.mkdirs(); // If we got this far without this directory, just create it.
+                for (File f : stagedFiles) {
+                    logger.info(f);
+                    swapIn(f, dest);
+                    swapIn(f, resourceDest);
+                    getResourceLoader().refreshCache("aura/javascript/" + f.getName());
                 }
-                lastGenerationHadCompilationErrors = false;
-            } catch (Exception x) {
-                lastGenerationHadCompilationErrors = true;
-                throw new AuraRuntimeException("Unable to regenerate aura javascript", x);
             }
+            lastGenerationHadCompilationErrors = false;
+        } catch (Exception x) {
+            lastGenerationHadCompilationErrors = true;
+            throw new AuraRuntimeException("Unable to regenerate aura javascript", x);
+        } finally {
+            regenerations.incrementAndGet();
+            if (staging != null) {
+                try {
+                    IOUtil.delete(staging);
+                } catch (IOUtil.DeleteFailedException x) {
+                    logger.warn("Unable to delete " + staging, x);
+                }
+            }
+        }
+    }
+
+    /**
+     * Replace a file in a directory by a copy of the given one, so that readers see either all of the old file or all
+     * of the new one.
+     */
+    private static void swapIn(File file, File directory) throws IOException {
+        Path copy = Files.createTempFile(directory.toPath(), file.getName(), ".tmp");
+        try {
+            Files.copy(file.toPath(), copy, StandardCopyOption.REPLACE_EXISTING);
+            Files.move(copy, new File(directory, file.getName()).toPath(), StandardCopyOption.REPLACE_EXISTING,
+                    StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(copy);
+        }
+    }
+
+    @Override
+    public void onSourceChanged(SourceMonitorEvent event, String filePath) {
+        JavascriptGroup group = jsGroup;
+        if (group != null && frameworkVersion != null && !isProduction() && group.isStale()) {
+            scheduleRegeneration();
         }
     }
 
@@ -601,36 +723,55 @@ public class ConfigAdapterImpl implements ConfigAdapter {
     @Override
     public final String getAuraFrameworkNonce() {
         regenerateAuraJS();
+        FrameworkVersion current = frameworkVersion;
+        long generation = regenerations.get();
+        if (current != null && ((generation & 1) != 0 || lastGenerationHadCompilationErrors)) {
+            // Regenerating, or the last regeneration failed: the js hash describes files that are not being served.
+            return current.fwUid;
+        }
         try {
             // framework nonce now consists of Aura JS and resources files (CSS and JS) and if locker service is enabled
             String jsHash = getJSGroup().getGroupHash().toString();
             String resourcesHash = getAuraResourcesNonce();
+            if (current != null && regenerations.get() != generation) {
+                return current.fwUid;
+            }
 
             /*
-             * don't want to makeHash every time so store results and return appropriately
+             * don't want to makeHash every time so keep the last version and only replace it on changes.
              *
-             * Be VERY careful here.
-             *
-             * because fwUid is set along with jsUid and resourcesUid, there is a race condition
-             * whereby the condition can fail (i.e. both js & resources match), but fwUid is not
-             * yet set. This is very bad, as it causes an empty fwUid, which breaks everyone with
-             * a COOS
+             * The uids are published together in one immutable snapshot, so a reader can never see a new
+             * jsUid with an old or empty fwUid.
              */
-            synchronized (this) {
-                if (!jsHash.equals(this.jsUid) || !resourcesHash.equals(this.resourcesUid)) {
-                    this.jsUid = jsHash;
-                    this.resourcesUid = resourcesHash;
-                    this.fwUid = makeHash(this.jsUid, this.resourcesUid);
-                }
+            if (current == null || !jsHash.equals(current.jsUid) || !resourcesHash.equals(current.resourcesUid)) {
+                current = new FrameworkVersion(jsHash, resourcesHash, makeHash(jsHash, resourcesHash));
+                frameworkVersion = current;
             }
-
-            return this.fwUid;
+            return current.fwUid;
 
         } catch (IOException e) {
+            if (current != null && regenerations.get() != generation) {
+                return current.fwUid;
+            }
             throw new AuraRuntimeException("Can't read framework files", e);
         }
     }
 
+    /**
+     * The framework version served to clients.
+     */
+    private static class FrameworkVersion {
+        private final String jsUid;
+        private final String resourcesUid;
+        private final String fwUid;
+
+        private FrameworkVersion(String jsUid, String resourcesUid, String fwUid) {
+            this.jsUid = jsUid;
+            this.resourcesUid = resourcesUid;
+            this.fwUid = fwUid;
+        }
+    }
+
     protected String makeHash(String one, String two) throws IOException {
         StringReader reader = new StringReader(one + two);
         return new Hash(reader).toString();
@@ -824,7 +965,7 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         // 4 for mobile, 6 for desktop
         AuraContext context = contextService.getCurrentContext();
         String ua = context != null ? context.getClient().getUserAgent() : null;
-        BrowserInfo b = new BrowserInfo(ua);
+        BrowserInfo b = BrowserInfo.get(ua);
         return b.isBrowserMobile() ? 4 : 6;
     }
 
@@ -833,6 +974,21 @@ public class ConfigAdapterImpl implements ConfigAdapter {
         return false;
     }
 
+    @Override
+    public int getConcurrentActionThreadCount() {
+        return Integer.getInteger(CONCURRENT_ACTION_THREADS_PROPERTY, 0);
+    }
+
+    @Override
+    public int getAppJsChunkCount() {
+        return Integer.getInteger(APP_JS_CHUNKS_PROPERTY, 0);
+    }
+
+    @Override
+    public int getStyleWriterThreadCount() {
+        return Integer.getInteger(STYLE_WRITER_THREADS_PROPERTY, 0);
+    }
+
     @Override
     public String getSessionCacheKey(Mode mode) {
         // return a static session key here, to ensure we always cache unless overridden.
@@ -935,7 +1091,7 @@ public class ConfigAdapterImpl implements ConfigAdapter {
 
     @Override
     public boolean doesUserAgentSupportCssVars() {
-        final int browser = BrowserUserAgent.parseBrowser(contextService.getCurrentContext().getClient().getUserAgent());
+        final int browser = BrowserInfo.get(contextService.getCurrentContext().getClient().getUserAgent()).getBrowserType();
         return !UserAgent.IE.match(browser, 11);
     }
 }
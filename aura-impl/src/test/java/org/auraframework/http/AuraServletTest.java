@@ -23,8 +23,10 @@ import static org.hamcrest.Matchers.sameInstance;
 import static org.junit.Assert.assertThat;
 
 import java.io.IOException;
+import java.math.BigDecimal;
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -42,6 +44,8 @@ import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.TypeDef;
+import org.auraframework.def.ValueDef;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.InstanceStack;
@@ -70,6 +74,7 @@ import org.junit.Ignore;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.mockito.Mock;
 import org.mockito.Mockito;
@@ -292,6 +297,87 @@ public class AuraServletTest extends UnitTestCase {
         assertSame("should get expected exception", expected, actual);
     }
 
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testReadMessageReadsActionFields() throws Exception {
+        String actionName = "myAction";
+        ActionDef myActionDef = getActionDef(actionName);
+        Action action = getAction(actionName);
+        DefDescriptor<ComponentDef> callingDescriptor = Mockito.mock(DefDescriptor.class);
+        Mockito.doReturn(myActionDef).when(definitionService).getDefinition(actionName, ActionDef.class);
+        Mockito.doReturn(callingDescriptor).when(definitionService).getDefDescriptor("markup://a:b", ComponentDef.class);
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass((Class) Map.class);
+        Mockito.doReturn(action).when(instanceService).getInstance(Matchers.eq(myActionDef), params.capture());
+
+        // params before the descriptor, and an unknown key
+        Message message = originalServlet.readMessage("{'other':[1,{}],'actions':[null,{'params':{'n':1,'l':['x']},"
+                + "'descriptor':'" + actionName + "','id':'1;a','callingDescriptor':'markup://a:b',"
+                + "'version':'2.0','storable':true,'extra':{'a':1}}]}");
+
+        assertEquals(1, message.getActions().size());
+        assertSame(action, message.getActions().get(0));
+        assertEquals(new BigDecimal(1), params.getValue().get("n"));
+        assertEquals(Arrays.asList("x"), params.getValue().get("l"));
+        Mockito.verify(action).setId("1;a");
+        Mockito.verify(action).setCallingDescriptor(callingDescriptor);
+        Mockito.verify(action).setCallerVersion("2.0");
+        Mockito.verify(action).setStorable();
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testReadMessageConvertsParamsToTheirTypes() throws Exception {
+        String actionName = "myAction";
+        ActionDef myActionDef = getActionDef(actionName);
+        TypeDef type = Mockito.mock(TypeDef.class);
+        ValueDef param = Mockito.mock(ValueDef.class);
+        Mockito.doReturn("n").when(param).getName();
+        Mockito.doReturn(type).when(param).getType();
+        Mockito.doReturn(Arrays.asList(param)).when(myActionDef).getParameters();
+        Mockito.doReturn(Integer.valueOf(1)).when(type).valueOf(new BigDecimal(1));
+        Mockito.doReturn(Integer.valueOf(2)).when(type).valueOf(new BigDecimal(2));
+        Action action = getAction(actionName);
+        Mockito.doReturn(myActionDef).when(definitionService).getDefinition(actionName, ActionDef.class);
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass((Class) Map.class);
+        Mockito.doReturn(action).when(instanceService).getInstance(Matchers.eq(myActionDef), params.capture());
+
+        // params after the descriptor, then before it
+        Message message = originalServlet.readMessage("{'actions':[{'descriptor':'" + actionName + "','params':{'n':1,'o':1}},"
+                + "{'params':{'n':2},'descriptor':'" + actionName + "'}]}");
+
+        assertEquals(2, message.getActions().size());
+        assertEquals(Integer.valueOf(1), params.getAllValues().get(0).get("n"));
+        assertEquals(new BigDecimal(1), params.getAllValues().get(0).get("o"));
+        assertEquals(Integer.valueOf(2), params.getAllValues().get(1).get("n"));
+        Mockito.verify(action, Mockito.times(2)).setParamConversionErrors(new HashMap<String, Exception>());
+    }
+
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    @Test
+    public void testReadMessageKeepsParamConversionFailuresOnTheAction() throws Exception {
+        String actionName = "myAction";
+        ActionDef myActionDef = getActionDef(actionName);
+        TypeDef type = Mockito.mock(TypeDef.class);
+        ValueDef param = Mockito.mock(ValueDef.class);
+        Mockito.doReturn("n").when(param).getName();
+        Mockito.doReturn(type).when(param).getType();
+        Mockito.doReturn(Arrays.asList(param)).when(myActionDef).getParameters();
+        IllegalArgumentException failure = new IllegalArgumentException("not a number");
+        Mockito.doThrow(failure).when(type).valueOf("x");
+        Action action = getAction(actionName);
+        Mockito.doReturn(myActionDef).when(definitionService).getDefinition(actionName, ActionDef.class);
+        ArgumentCaptor<Map<String, Object>> params = ArgumentCaptor.forClass((Class) Map.class);
+        Mockito.doReturn(action).when(instanceService).getInstance(Matchers.eq(myActionDef), params.capture());
+
+        Message message = originalServlet.readMessage("{'actions':[{'descriptor':'" + actionName + "','params':{'n':'x'}}]}");
+
+        assertEquals(1, message.getActions().size());
+        assertEquals("x", params.getValue().get("n"));
+        Map<String, Exception> errors = new HashMap<>();
+        errors.put("n", failure);
+        Mockito.verify(action).setParamConversionErrors(errors);
+    }
+
     /**
      * This test verify that we do {@link DefinitionService#updateLoaded(DefDescriptor)} before message read, 
      * when action from client arrives, if the client is running out-dated code, we will throw COOS to force it reload, 
@@ -703,7 +789,8 @@ public class AuraServletTest extends UnitTestCase {
         servlet.doGet(request, response);
 
         // Assert
-        Mockito.verify(serverService).run(Matchers.same(message), Matchers.any(), Matchers.any(), Matchers.any());
+        Mockito.verify(serverService).runPubliclyCacheable(Matchers.same(message), Matchers.any(), Matchers.any(),
+                Matchers.any(), Matchers.eq(10L));
         assertFalse("Publicly cached action should not have Browser GVP in the context.", 
                 context.getGlobalProviders().containsKey(AuraValueProviderType.BROWSER.getPrefix()));
     }
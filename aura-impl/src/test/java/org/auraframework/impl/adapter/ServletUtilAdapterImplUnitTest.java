@@ -24,16 +24,23 @@ import java.util.ConcurrentModificationException;
 import java.util.EmptyStackException;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
 import org.apache.http.HttpHeaders;
 import org.apache.http.HttpStatus;
+import org.auraframework.adapter.AppJsUtilAdapter;
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.adapter.ContentSecurityPolicy;
+import org.auraframework.adapter.DefaultContentSecurityPolicy;
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.clientlibrary.ClientLibraryService;
+import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ClientLibraryDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.CSP;
 import org.auraframework.http.ManifestUtil;
 import org.auraframework.instance.InstanceStack;
 import org.auraframework.service.CSPInliningService;
@@ -44,6 +51,7 @@ import org.auraframework.service.SerializationService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
 import org.auraframework.system.AuraContext.Mode;
+import org.auraframework.system.SourceListener.SourceMonitorEvent;
 import org.junit.Assert;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -54,6 +62,7 @@ import org.springframework.mock.web.MockHttpServletResponse;
 
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 
 public class ServletUtilAdapterImplUnitTest {
     @Test
@@ -640,6 +649,88 @@ public class ServletUtilAdapterImplUnitTest {
         Assert.assertEquals(expected, actual);
     }
 
+    @Test
+    public void testSetCSPHeadersReusesPrecomputedHeaders() throws Exception {
+        ServletUtilAdapterImpl sua = new ServletUtilAdapterImpl();
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        ContentSecurityPolicy csp = Mockito.mock(ContentSecurityPolicy.class);
+        sua.setConfigAdapter(configAdapter);
+        Mockito.doReturn(csp).when(configAdapter).getContentSecurityPolicy(null, null);
+        Mockito.doReturn("key").when(csp).getCacheKey();
+        Mockito.doReturn(Lists.newArrayList((String)null)).when(csp).getFrameAncestors();
+        Mockito.doReturn(Lists.newArrayList("https://example.com")).when(csp).getScriptSources();
+        Mockito.doReturn("/_/csp").when(csp).getReportUrl();
+        Mockito.doAnswer(invocation -> DefaultContentSecurityPolicy.buildHeaderNormally(csp)).when(csp).getCspHeaderValue();
+        String expected = DefaultContentSecurityPolicy.buildHeaderNormally(csp);
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        sua.setCSPHeaders(null, null, first);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        sua.setCSPHeaders(null, null, second);
+
+        for (MockHttpServletResponse response : Arrays.asList(first, second)) {
+            Assert.assertEquals(Arrays.asList(expected), response.getHeaders(CSP.Header.SECURE));
+            Assert.assertEquals(Arrays.asList("SAMEORIGIN"), response.getHeaders("X-FRAME-OPTIONS"));
+        }
+        Mockito.verify(csp, Mockito.times(1)).getCspHeaderValue();
+    }
+
+    @Test
+    public void testSetCSPHeadersWithoutCacheKeyBuildsEveryTime() throws Exception {
+        ServletUtilAdapterImpl sua = new ServletUtilAdapterImpl();
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        ContentSecurityPolicy csp = Mockito.mock(ContentSecurityPolicy.class);
+        sua.setConfigAdapter(configAdapter);
+        Mockito.doReturn(csp).when(configAdapter).getContentSecurityPolicy(null, null);
+        Mockito.doReturn(new ArrayList<String>()).when(csp).getFrameAncestors();
+        Mockito.doReturn("policy").when(csp).getCspHeaderValue();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        sua.setCSPHeaders(null, null, first);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        sua.setCSPHeaders(null, null, second);
+
+        for (MockHttpServletResponse response : Arrays.asList(first, second)) {
+            Assert.assertEquals("policy", response.getHeader(CSP.Header.SECURE));
+            Assert.assertEquals(Arrays.asList("DENY"), response.getHeaders("X-FRAME-OPTIONS"));
+        }
+        Mockito.verify(csp, Mockito.times(2)).getCspHeaderValue();
+    }
+
+    @Test
+    public void testSetCSPHeadersRebuildsAfterSourceChange() throws Exception {
+        ServletUtilAdapterImpl sua = new ServletUtilAdapterImpl();
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        ContentSecurityPolicy csp = Mockito.mock(ContentSecurityPolicy.class);
+        sua.setConfigAdapter(configAdapter);
+        Mockito.doReturn(csp).when(configAdapter).getContentSecurityPolicy(null, null);
+        Mockito.doReturn("key").when(csp).getCacheKey();
+        Mockito.doReturn(new ArrayList<String>()).when(csp).getFrameAncestors();
+        Mockito.doReturn("before", "after").when(csp).getCspHeaderValue();
+
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        sua.setCSPHeaders(null, null, first);
+        sua.onSourceChanged(SourceMonitorEvent.CHANGED, null);
+        MockHttpServletResponse second = new MockHttpServletResponse();
+        sua.setCSPHeaders(null, null, second);
+
+        Assert.assertEquals("before", first.getHeader(CSP.Header.SECURE));
+        Assert.assertEquals("after", second.getHeader(CSP.Header.SECURE));
+    }
+
+    @Test
+    public void testDefaultContentSecurityPolicySubclassHasNoCacheKey() throws Exception {
+        ContentSecurityPolicy csp = new DefaultContentSecurityPolicy(false, null, null) {
+            @Override
+            public String getReportUrl() {
+                return "/_/other";
+            }
+        };
+
+        Assert.assertNotNull(new DefaultContentSecurityPolicy(false, null, null).getCacheKey());
+        Assert.assertNull(csp.getCacheKey());
+    }
+
     @Test
     public void testSetNoCache() throws Exception {
         ServletUtilAdapterImpl sua = new ServletUtilAdapterImpl();
@@ -964,4 +1055,42 @@ public class ServletUtilAdapterImplUnitTest {
         Mockito.verify(mockContextService, Mockito.atLeastOnce()).endContext();
         Mockito.verify(adapter, Mockito.atLeastOnce()).setNoCache(mockResponse);
     }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testAppJsChunkUrlsAreComputedOncePerAppUid() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc = Mockito.mock(DefDescriptor.class);
+        Mockito.when(appDesc.getQualifiedName()).thenReturn("markup://test:chunked");
+        AuraContext context = Mockito.mock(AuraContext.class);
+        Mockito.doReturn(appDesc).when(context).getApplicationDescriptor();
+        Mockito.when(context.getUid(appDesc)).thenReturn("uid1");
+        Mockito.when(context.getContextPath()).thenReturn("/ctx");
+        Mockito.when(context.getEncodedURL(AuraContext.EncodingStyle.AppChunk)).thenReturn("encoded");
+        ConfigAdapter configAdapter = Mockito.mock(ConfigAdapter.class);
+        Mockito.when(configAdapter.getAppJsChunkCount()).thenReturn(2);
+        DefinitionService definitionService = Mockito.mock(DefinitionService.class);
+        AppJsUtilAdapter appJsUtilAdapter = Mockito.mock(AppJsUtilAdapter.class);
+        Set<DefDescriptor<?>> chunk = Sets.newHashSet();
+        Mockito.when(appJsUtilAdapter.getChunks(Matchers.any(), Matchers.same(appDesc), Matchers.eq(2)))
+                .thenReturn(Lists.newArrayList(chunk, chunk));
+        Mockito.when(appJsUtilAdapter.getChunkHash(chunk)).thenReturn("hash");
+
+        ServletUtilAdapterImpl adapter = new ServletUtilAdapterImpl();
+        adapter.setConfigAdapter(configAdapter);
+        adapter.setDefinitionService(definitionService);
+        adapter.setAppJsUtilAdapter(appJsUtilAdapter);
+
+        List<String> expected = Lists.newArrayList("/ctx/l/encoded/0_hash/appchunk.js",
+                "/ctx/l/encoded/1_hash/appchunk.js");
+        Assert.assertEquals(expected, adapter.getAppJsChunkUrls(context));
+        Assert.assertEquals(expected, adapter.getAppJsChunkUrls(context));
+        Mockito.verify(definitionService, Mockito.times(1)).getDependencies("uid1");
+        Mockito.verify(appJsUtilAdapter, Mockito.times(2)).getChunkHash(chunk);
+
+        // a new version of the app has new chunks
+        Mockito.when(context.getUid(appDesc)).thenReturn("uid2");
+        Assert.assertEquals(expected, adapter.getAppJsChunkUrls(context));
+        Mockito.verify(definitionService, Mockito.times(1)).getDependencies("uid2");
+        Mockito.verify(appJsUtilAdapter, Mockito.times(4)).getChunkHash(chunk);
+    }
 }
@@ -21,6 +21,7 @@ import java.util.Collections;
 import java.util.HashSet;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
@@ -29,6 +30,7 @@ import org.auraframework.def.DefinitionAccess;
 import org.auraframework.def.DescriptorFilter;
 import org.auraframework.impl.AuraImplTestCase;
 import org.auraframework.impl.system.RegistryTrie;
+import org.auraframework.instance.Action;
 //import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.GlobalValueProviderFactory;
 import org.auraframework.system.AuraContext.Authentication;
@@ -502,7 +504,67 @@ public class AuraContextImplTest extends AuraImplTestCase {
         impl.setSystemMode(false);
         assertFalse(impl.isSystemMode());
     }
-    
+
+    @Test
+    public void testActionStateIsSharedWithOtherThreads() throws Exception {
+        AuraContextImpl impl = new AuraContextImpl(null, null, null, null, null, null, null, null, null);
+        Action action = mock(Action.class);
+        DefDescriptor<?> caller = mock(DefDescriptor.class);
+        impl.setCurrentAction(action);
+        impl.pushCallingDescriptor(caller);
+        impl.setSystemMode(true);
+        AtomicReference<Object[]> seen = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> seen.set(new Object[] { impl.getCurrentAction(),
+                impl.getCurrentCallingDescriptor(), impl.isSystemMode() }));
+        thread.start();
+        thread.join();
+
+        assertSame(action, seen.get()[0]);
+        assertSame(caller, seen.get()[1]);
+        assertEquals(Boolean.TRUE, seen.get()[2]);
+    }
+
+    @Test
+    public void testConcurrentWorkHasItsOwnActionState() throws Exception {
+        AuraContextImpl impl = new AuraContextImpl(null, null, null, null, null, null, null, null, null);
+        Action action = mock(Action.class);
+        Action workerAction = mock(Action.class);
+        DefDescriptor<?> caller = mock(DefDescriptor.class);
+        impl.setCurrentAction(action);
+        impl.pushCallingDescriptor(caller);
+        impl.setSystemMode(true);
+        AtomicReference<Object[]> seen = new AtomicReference<>();
+
+        Thread thread = new Thread(() -> {
+            Object[] state = new Object[5];
+            impl.beginConcurrentWork();
+            try {
+                state[0] = impl.getCurrentAction();
+                state[1] = impl.getCurrentCallingDescriptor();
+                state[2] = impl.isSystemMode();
+                impl.setCurrentAction(workerAction);
+                impl.setSystemMode(false);
+                state[3] = impl.getCurrentAction();
+            } finally {
+                impl.endConcurrentWork();
+            }
+            state[4] = impl.getCurrentAction();
+            seen.set(state);
+        });
+        thread.start();
+        thread.join();
+
+        assertNull(seen.get()[0]);
+        assertNull(seen.get()[1]);
+        assertEquals("Expected the worker to start in the system mode of the context", Boolean.TRUE, seen.get()[2]);
+        assertSame(workerAction, seen.get()[3]);
+        assertSame(action, seen.get()[4]);
+        assertSame(action, impl.getCurrentAction());
+        assertSame(caller, impl.getCurrentCallingDescriptor());
+        assertTrue(impl.isSystemMode());
+    }
+
     @Test
     public void testModeSetToPROD2() {
         Mode m = Mode.PROD;
@@ -0,0 +1,225 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css;
+
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.inject.Inject;
+
+import org.auraframework.Aura;
+import org.auraframework.adapter.ContextAdapter;
+import org.auraframework.cache.Cache;
+import org.auraframework.css.StyleTokenIndex;
+import org.auraframework.def.BaseStyleDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.StyleDef;
+import org.auraframework.def.TokensDef;
+import org.auraframework.service.CachingService;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+
+/**
+ * Tests for StyleDefWriter.
+ */
+public class StyleDefWriterTest extends StyleTestCase {
+
+    @Inject
+    private ContextAdapter contextAdapter;
+
+    @Inject
+    private CachingService cachingService;
+
+    private ExecutorService executor;
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        executor = Executors.newFixedThreadPool(4);
+        addNsTokens(tokens()
+                .token("color", "red")
+                .token("margin", "10px 5px")
+                .token("gradient", "linear-gradient(red, blue)"));
+    }
+
+    @Override
+    public void tearDown() throws Exception {
+        executor.shutdownNow();
+        super.tearDown();
+    }
+
+    private String write(List<BaseStyleDef> defs, boolean parallel) throws Exception {
+        StringBuilder out = new StringBuilder();
+        StyleDefWriter writer = parallel
+                ? new StyleDefWriter(definitionService, Aura.getStyleAdapter(), contextService.getCurrentContext(),
+                        contextAdapter, executor, null, null)
+                : new StyleDefWriter(definitionService, Aura.getStyleAdapter(), contextService.getCurrentContext());
+        writer.writeStyleDefs(defs, out);
+        return out.toString();
+    }
+
+    private String write(List<BaseStyleDef> defs, Cache<String, String> cache) throws Exception {
+        StringBuilder out = new StringBuilder();
+        new StyleDefWriter(definitionService, Aura.getStyleAdapter(), contextService.getCurrentContext(), null, null,
+                cache, null).writeStyleDefs(defs, out);
+        return out.toString();
+    }
+
+    private Cache<String, String> newOutputCache() {
+        return cachingService.<String, String>getCacheBuilder().setMaximumSize(100).setName("testOutputCache").build();
+    }
+
+    @Test
+    public void testParallelOutputMatchesSerial() throws Exception {
+        List<BaseStyleDef> defs = Lists.newArrayList();
+        for (int i = 0; i < 24; i++) {
+            switch (i % 4) {
+            case 0:
+                defs.add(definitionService.getDefinition(addStyleDef(".THIS {color: t(color); z-index: " + i + "}")));
+                break;
+            case 1:
+                defs.add(definitionService.getDefinition(addStyleDef(
+                        ".THIS .item" + i + " {margin: t(margin); background-image: t(gradient)}")));
+                break;
+            case 2:
+                defs.add(definitionService.getDefinition(addStyleDef(
+                        "@media (max-width: " + i + "0px) {.THIS {display: flex; border: 1px solid t(color)}}")));
+                break;
+            default:
+                defs.add(definitionService.getDefinition(addStyleDef(
+                        "@font-face {font-family: Custom" + i + "; src: url(Custom" + i + ".woff)}")));
+            }
+        }
+        defs.add(3, null);
+
+        String serial = write(defs, false);
+        for (int run = 0; run < 5; run++) {
+            assertEquals("Parallel output differs from serial output", serial, write(defs, true));
+        }
+    }
+
+    @Test
+    public void testParallelErrorsOnDupeFontsDifferentFiles() throws Exception {
+        List<BaseStyleDef> defs = Lists.newArrayList(
+                definitionService.getDefinition(addStyleDef("@font-face {font-family: Custom1; src: url(Custom1.woff)}")),
+                definitionService.getDefinition(addStyleDef("@font-face {font-family: Custom2; src: url(Custom2.woff)}")),
+                definitionService.getDefinition(addStyleDef("@font-face {font-family: Custom1; src: url(Custom1.woff)}")));
+
+        try {
+            write(defs, true);
+            fail("expected to get exception");
+        } catch (Exception e) {
+            checkExceptionContains(e, AuraRuntimeException.class, "was already declared");
+        }
+    }
+
+    @Test
+    public void testCachedOutputMatchesRendered() throws Exception {
+        List<BaseStyleDef> defs = Lists.newArrayList(
+                definitionService.getDefinition(addStyleDef(".THIS {color: t(color)}")),
+                definitionService.getDefinition(addStyleDef(".THIS {margin: t(margin); display: flex}")),
+                definitionService.getDefinition(addStyleDef(".THIS {background-image: t(gradient)}")));
+        String expected = write(defs, false);
+        Cache<String, String> cache = newOutputCache();
+
+        assertEquals(expected, write(defs, cache));
+        assertEquals("Each style def should have one entry", 3, cache.getKeySet().size());
+        assertEquals(expected, write(defs, cache));
+        assertEquals("Rendering again should reuse the entries", 3, cache.getKeySet().size());
+    }
+
+    @Test
+    public void testOutputCacheSharedByWriters() throws Exception {
+        BaseStyleDef shared = definitionService.getDefinition(addStyleDef(".THIS {color: t(color)}"));
+        BaseStyleDef other = definitionService.getDefinition(addStyleDef(".THIS {margin: t(margin)}"));
+        Cache<String, String> cache = newOutputCache();
+
+        write(Lists.newArrayList(shared), cache);
+        String key = cache.getKeySet().iterator().next();
+        assertTrue("Keys should start with the descriptor",
+                key.startsWith(StyleDefWriter.getOutputKeyPrefix(shared.getDescriptor())));
+
+        cache.put(key, "/* cached */");
+        assertEquals("/* cached */" + other.getCode(), write(Lists.newArrayList(shared, other), cache));
+
+        cache.invalidatePartial(StyleDefWriter.getOutputKeyPrefix(shared.getDescriptor()));
+        assertEquals(shared.getCode() + other.getCode(), write(Lists.newArrayList(shared, other), cache));
+    }
+
+    @Test
+    public void testCachedOutputFollowsTokenValues() throws Exception {
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {color: t(color)}");
+        Cache<String, String> cache = newOutputCache();
+        write(Lists.newArrayList(definitionService.getDefinition(style)), cache);
+
+        DefDescriptor<TokensDef> overrides = addSeparateTokens(tokens().token("color", "blue"));
+        addContextApp(String.format("<aura:application tokens='%s'/>", overrides.getDescriptorName()));
+        String overridden = write(Lists.newArrayList(definitionService.getDefinition(style)), cache);
+        assertTrue("App token overrides should be rendered", overridden.contains("blue"));
+        assertEquals("App token overrides should get their own entry", 2, cache.getKeySet().size());
+
+        enableCssVarTransform(true);
+        write(Lists.newArrayList(definitionService.getDefinition(style)), cache);
+        assertEquals("Css variable output should get its own entry", 3, cache.getKeySet().size());
+    }
+
+    @Test
+    public void testCachedOutputIsSharedByAppsOverridingOtherTokens() throws Exception {
+        DefDescriptor<StyleDef> style = addStyleDef(".THIS {color: t(color)}");
+        Cache<String, String> cache = newOutputCache();
+        write(Lists.newArrayList(definitionService.getDefinition(style)), cache);
+
+        DefDescriptor<TokensDef> overrides = addSeparateTokens(tokens().token("margin", "10px"));
+        addContextApp(String.format("<aura:application tokens='%s'/>", overrides.getDescriptorName()));
+        write(Lists.newArrayList(definitionService.getDefinition(style)), cache);
+        assertEquals("Overrides of tokens a style def doesn't reference should reuse its entry",
+                1, cache.getKeySet().size());
+    }
+
+    @Test
+    public void testFontFacesAreNotCached() throws Exception {
+        List<BaseStyleDef> defs = Lists.newArrayList(
+                definitionService.getDefinition(addStyleDef("@font-face {font-family: Custom1; src: url(Custom1.woff)}")));
+        Cache<String, String> cache = newOutputCache();
+
+        write(defs, cache);
+        assertTrue("Style defs with font-faces must be seen by the duplicate font-face check",
+                cache.getKeySet().isEmpty());
+    }
+
+    @Test
+    public void testTokenIndexRecordsCachedStyleDefs() throws Exception {
+        BaseStyleDef color = definitionService.getDefinition(addStyleDef(".THIS {color: t(color)}"));
+        BaseStyleDef both = definitionService.getDefinition(addStyleDef(
+                ".THIS {border: 1px solid t(color); margin: t(margin)}"));
+        BaseStyleDef none = definitionService.getDefinition(addStyleDef(".THIS {display: flex}"));
+        StyleTokenIndex index = new StyleTokenIndex();
+
+        new StyleDefWriter(definitionService, Aura.getStyleAdapter(), contextService.getCurrentContext(), null, null,
+                newOutputCache(), index).writeStyleDefs(Lists.newArrayList(color, both, none), new StringBuilder());
+        assertEquals(ImmutableSet.of(color.getDescriptor(), both.getDescriptor()),
+                index.getDependents(ImmutableSet.of("color")));
+        assertEquals(ImmutableSet.of(both.getDescriptor()), index.getDependents(ImmutableSet.of("margin")));
+
+        assertEquals(ImmutableSet.of(both.getDescriptor()), index.removeDependents(ImmutableSet.of("margin")));
+        assertEquals("Removed style defs are recorded again when rendered",
+                ImmutableSet.of(color.getDescriptor()), index.getDependents(ImmutableSet.of("color", "margin")));
+    }
+}
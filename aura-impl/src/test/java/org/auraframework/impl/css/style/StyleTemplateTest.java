@@ -0,0 +1,111 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.css.style;
+
+import java.util.List;
+
+import org.auraframework.Aura;
+import org.auraframework.adapter.StyleAdapter;
+import org.auraframework.css.ResolveStrategy;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.StyleDef;
+import org.auraframework.impl.css.StyleTestCase;
+import org.auraframework.impl.css.parser.plugin.DuplicateFontFacePlugin;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.salesforce.omakase.plugin.Plugin;
+
+/**
+ * Tests that styles rendered from a {@link StyleTemplate} match a full parse.
+ */
+public class StyleTemplateTest extends StyleTestCase {
+
+    @Override
+    public void setUp() throws Exception {
+        super.setUp();
+        addNsTokens(tokens()
+                .token("color", "red")
+                .token("margin", "10px 5px")
+                .token("font", "\"Helvetica Neue\", Arial")
+                .token("gradient", "linear-gradient(red, blue)")
+                .token("empty", "")
+                .token("wide", "(min-width: 600px)"));
+    }
+
+    private void assertMatchesParse(String src, List<Plugin> plugins) throws Exception {
+        DefDescriptor<StyleDef> desc = addStyleDef(src);
+        AbstractStyleDef<?> def = (AbstractStyleDef<?>) definitionService.getDefinition(desc);
+
+        StyleAdapter styleAdapter = Aura.getStyleAdapter();
+        String expected = def.parse(contextService.getCurrentContext().getStyleContext(), styleAdapter,
+                styleAdapter.getTokenValueProvider(desc, ResolveStrategy.RESOLVE_NORMAL), plugins);
+
+        assertEquals("Unexpected output for <" + src + ">", expected, def.getCode(plugins));
+        assertEquals("Unexpected second output for <" + src + ">", expected, def.getCode(plugins));
+    }
+
+    private void assertMatchesParse(String src) throws Exception {
+        assertMatchesParse(src, ImmutableList.<Plugin>of());
+    }
+
+    @Test
+    public void testNoTokens() throws Exception {
+        assertMatchesParse(".THIS {color: blue; margin: 0}");
+    }
+
+    @Test
+    public void testSingleToken() throws Exception {
+        assertMatchesParse(".THIS {color: t(color)}");
+    }
+
+    @Test
+    public void testTokensAmongOtherTerms() throws Exception {
+        assertMatchesParse(".THIS {border: 1px solid t(color); margin: t(margin) !important}\n"
+                + ".THIS .inner {font-family: t(font); color: t(color + ' ' + 'inherit')}");
+    }
+
+    @Test
+    public void testPrefixedValue() throws Exception {
+        assertMatchesParse(".THIS {background-image: t(gradient); color: t(color)}");
+    }
+
+    @Test
+    public void testEmptyToken() throws Exception {
+        assertMatchesParse(".THIS {color: t(empty); margin: t(margin)}");
+    }
+
+    @Test
+    public void testMediaQueryToken() throws Exception {
+        assertMatchesParse("@media t(wide) {.THIS {color: t(color)}}");
+    }
+
+    @Test
+    public void testConditionals() throws Exception {
+        assertMatchesParse("@if (ie11) {.THIS {color: t(color)}} @else {.THIS {margin: t(margin)}}");
+    }
+
+    @Test
+    public void testDuplicateFontFacePlugin() throws Exception {
+        assertMatchesParse(".THIS {color: t(color)}", ImmutableList.<Plugin>of(new DuplicateFontFacePlugin()));
+    }
+
+    @Test
+    public void testDuplicateFontFacePluginWithFontFace() throws Exception {
+        assertMatchesParse("@font-face {font-family: Custom; src: url(custom.woff)} .THIS {font-family: t(font)}",
+                ImmutableList.<Plugin>of(new DuplicateFontFacePlugin()));
+    }
+}
@@ -27,6 +27,8 @@ import org.auraframework.throwable.quickfix.StyleParserException;
 import org.junit.Ignore;
 import org.junit.Test;
 
+import com.google.common.collect.ImmutableSet;
+
 public class StyleDefFactoryTest extends AuraImplTestCase {
     @Inject
     WithValidation withValidation;;
@@ -65,6 +67,16 @@ public class StyleDefFactoryTest extends AuraImplTestCase {
                 expected.getMessage().contains(expectedMessage));
     }
 
+    @Test
+    public void testRecordsTokenNames() throws Exception {
+        AuraTestingUtil util = getAuraTestingUtil();
+        TextSource<StyleDef> source = util.buildTextSource(util.getInternalNamespace(), StyleDef.class,
+                ".THIS {color: t(color); margin: t(small + ' ' + large)}\n.THIS .item {color: t(color)}\n");
+
+        StyleDef def = withValidation.getDefinition(source.getDescriptor(), source);
+        assertEquals(ImmutableSet.of("color", "small", "large"), def.getTokenNames());
+    }
+
     @Test
     public void testMismatchedBrace() throws Exception {
         AuraTestingUtil util = getAuraTestingUtil();
@@ -38,23 +38,29 @@ import javax.servlet.http.HttpServletResponse;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExpressionBuilder;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.expression.Literal;
 import org.auraframework.expression.PropertyReference;
+import org.auraframework.http.BootstrapResponse;
 import org.auraframework.http.BootstrapUtil;
+import org.auraframework.impl.cache.CacheImpl;
 import org.auraframework.instance.Action;
 import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.GlobalValueProvider;
 import org.auraframework.instance.Instance;
 import org.auraframework.instance.InstanceStack;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.InstanceService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraContext.Format;
+import org.auraframework.system.Client;
 import org.auraframework.system.Location;
 import org.auraframework.util.json.DefaultJsonSerializationContext;
 import org.auraframework.util.json.JsonEncoder;
@@ -103,6 +109,32 @@ public class BootstrapUnitTest {
         verifyCacheHeaders(Integer.valueOf(600), true);
     }
 
+    @Test
+    public void testPublicCacheExpirationParsedOncePerDefinition() throws Exception {
+        final DefDescriptor<ApplicationDef> appDefDesc = mock(DefDescriptor.class);
+        final ServletUtilAdapter servletUtilAdapter = mock(ServletUtilAdapter.class);
+        final ApplicationDef appDef = mock(ApplicationDef.class);
+        final DefinitionService definitionService = mock(DefinitionService.class);
+
+        final Bootstrap bootstrap = new Bootstrap(bootstrapUtil, expressionBuilder);
+        bootstrap.setServletUtilAdapter(servletUtilAdapter);
+        bootstrap.setDefinitionService(definitionService);
+
+        doReturn(DefType.APPLICATION).when(appDefDesc).getDefType();
+        doReturn(appDef).when(definitionService).getDefinition(appDefDesc);
+        doReturn("600").when(appDef).getBootstrapPublicCacheExpiration();
+        final Literal literal = mock(Literal.class);
+        doReturn(Integer.valueOf(600)).when(literal).getValue();
+        doReturn(literal).when(expressionBuilder).buildExpression(Matchers.anyString(), Matchers.any(Location.class));
+
+        bootstrap.setCacheHeaders(mock(HttpServletResponse.class), appDefDesc);
+        bootstrap.setCacheHeaders(mock(HttpServletResponse.class), appDefDesc);
+
+        verify(expressionBuilder, times(1)).buildExpression(Matchers.eq("600"), Matchers.isNull(Location.class));
+        verify(servletUtilAdapter, times(2)).setCacheTimeout(Matchers.any(HttpServletResponse.class),
+                Matchers.eq(600L * 1000), Matchers.eq(false));
+    }
+
     @Test
     public void testWriteCsrfTokenIfManifestEnabled() throws Exception {
         String jwtToken = "jwtToken";
@@ -268,6 +300,97 @@ public class BootstrapUnitTest {
         verifyZeroInteractions(bootstrapUtil, expressionBuilder);
     }
 
+    @Test
+    public void testUnguardedBootstrapIsRenderedOnceFromResponseCache() throws Exception {
+        Cache<String, BootstrapResponse> responseCache = new CacheImpl.Builder<String, BootstrapResponse>().build();
+        CachingService cachingService = mock(CachingService.class);
+        doReturn(responseCache).when(cachingService).getBootstrapResponseCache();
+        AuraContext context = mock(AuraContext.class);
+        Bootstrap bootstrap = getPubliclyCacheableBootstrap(null, cachingService, context);
+
+        String first = writeBootstrap(bootstrap, null, context);
+        String second = writeBootstrap(bootstrap, null, context);
+
+        Assert.assertEquals(first, second);
+        Assert.assertEquals(1, responseCache.getKeySet().size());
+        verify(bootstrapUtil, times(1)).getPrependScript();
+    }
+
+    @Test
+    public void testGuardedBootstrapIsNeverCached() throws Exception {
+        String jwtToken = "jwtToken";
+        CachingService cachingService = mock(CachingService.class);
+        AuraContext context = mock(AuraContext.class);
+        Bootstrap bootstrap = getPubliclyCacheableBootstrap(jwtToken, cachingService, context);
+
+        writeBootstrap(bootstrap, jwtToken, context);
+        writeBootstrap(bootstrap, jwtToken, context);
+
+        verify(cachingService, never()).getBootstrapResponseCache();
+        verify(bootstrapUtil, times(2)).getPrependScript();
+    }
+
+    /**
+     * Get a bootstrap for an app with a public cache expiration, accepting the given jwt.
+     */
+    private Bootstrap getPubliclyCacheableBootstrap(String jwtToken, CachingService cachingService,
+            AuraContext context) throws Exception {
+        Bootstrap bootstrap = new Bootstrap(bootstrapUtil, expressionBuilder) {
+            @Override
+            protected Map<String, Object> getComponentAttributes(HttpServletRequest request) {
+                return Collections.emptyMap();
+            }
+        };
+        doReturn("prepend;").when(bootstrapUtil).getPrependScript();
+        doReturn(";append").when(bootstrapUtil).getAppendScript();
+
+        ConfigAdapter configAdapter = mock(ConfigAdapter.class);
+        doReturn(TRUE).when(configAdapter).validateBootstrap(jwtToken);
+        bootstrap.setConfigAdapter(configAdapter);
+
+        DefDescriptor<? extends BaseComponentDef> appDescriptor = mock(DefDescriptor.class);
+        ApplicationDef appDef = mock(ApplicationDef.class);
+        DefinitionService definitionService = mock(DefinitionService.class);
+        doReturn(DefType.APPLICATION).when(appDescriptor).getDefType();
+        doReturn(appDef).when(definitionService).getDefinition(appDescriptor);
+        doReturn("600").when(appDef).getBootstrapPublicCacheExpiration();
+        Literal literal = mock(Literal.class);
+        doReturn(Integer.valueOf(600)).when(literal).getValue();
+        doReturn(literal).when(expressionBuilder).buildExpression(Matchers.anyString(), Matchers.any(Location.class));
+        bootstrap.setDefinitionService(definitionService);
+
+        bootstrap.setServletUtilAdapter(mock(ServletUtilAdapter.class));
+        bootstrap.setInstanceService(mock(InstanceService.class));
+        bootstrap.setCachingService(cachingService);
+
+        doReturn(appDescriptor).when(context).getApplicationDescriptor();
+        doReturn(new DefaultJsonSerializationContext(true, true)).when(context).getJsonSerializationContext();
+        doReturn(mock(InstanceStack.class)).when(context).getInstanceStack();
+        doReturn(Client.OTHER).when(context).getClient();
+
+        ContextService contextService = mock(ContextService.class);
+        doReturn(context).when(contextService).getCurrentContext();
+        bootstrap.setContextService(contextService);
+
+        bootstrap.initManifest();
+        return bootstrap;
+    }
+
+    private static String writeBootstrap(Bootstrap bootstrap, String jwtToken, AuraContext context)
+            throws Exception {
+        HttpServletRequest request = mock(HttpServletRequest.class);
+        doReturn(jwtToken).when(request).getParameter("jwt");
+        doReturn(jwtToken == null ? Collections.emptyMap() : Collections.singletonMap("jwt", new String[] { jwtToken }))
+                .when(request).getParameterMap();
+
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        StringWriter writer = new StringWriter();
+        doReturn(new PrintWriter(writer)).when(response).getWriter();
+
+        bootstrap.write(request, response, context);
+        return writer.toString();
+    }
+
     /**
      * Verify logic setting cache-related HTTP headers in response.
      * 
@@ -78,6 +78,18 @@ public class ClientTest extends AuraImplTestCase {
         assertEquals("Unexpected ClientType from userAgent string:", Type.OTHER, new Client(null).getType());
     }
 
+    @Test
+    public void testGetReusesClient() {
+        String userAgent = UserAgent.GOOGLE_CHROME.getUserAgentString();
+
+        Client client = Client.get(userAgent);
+
+        assertSame(client, Client.get(userAgent));
+        assertEquals(Type.WEBKIT, client.getType());
+        assertEquals(userAgent, client.getUserAgent());
+        assertSame(Client.OTHER, Client.get(null));
+    }
+
     @Test
     public void testDefaultClientType() throws Exception {
         Client client = new Client();
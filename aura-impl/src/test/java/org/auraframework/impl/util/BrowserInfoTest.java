@@ -0,0 +1,129 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.impl.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.UUID;
+
+import org.apache.commons.lang3.StringUtils;
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.google.common.cache.CacheStats;
+
+public class BrowserInfoTest {
+    private static final String CHROME_UA = "Mozilla/5.0 (Windows NT 10.0; Win64; x64) AppleWebKit/537.36 "
+            + "(KHTML, like Gecko) Chrome/61.0.3163.100 Safari/537.36";
+    private static final String IPHONE_UA = "Mozilla/5.0 (iPhone; CPU iPhone OS 10_3 like Mac OS X) AppleWebKit/603.1.30 "
+            + "(KHTML, like Gecko) Version/10.0 Mobile/14E277 Safari/602.1";
+
+    /**
+     * Each test uses its own user agents, so that the shared cache does not depend on test order.
+     */
+    private static String unique(String userAgent) {
+        return userAgent + " test/" + UUID.randomUUID();
+    }
+
+    @Test
+    public void testGetReusesParsedInfo() {
+        String userAgent = unique(IPHONE_UA);
+
+        BrowserInfo first = BrowserInfo.get(userAgent);
+        BrowserInfo second = BrowserInfo.get(userAgent);
+
+        assertSame(first, second);
+        assertTrue(first.isIPhone());
+        assertTrue(first.isPhone());
+    }
+
+    @Test
+    public void testGetMatchesConstructor() {
+        for (String userAgent : new String[] { CHROME_UA, IPHONE_UA, "", null }) {
+            BrowserInfo cached = BrowserInfo.get(userAgent);
+            BrowserInfo parsed = new BrowserInfo(userAgent);
+
+            assertEquals(parsed.getFormFactor(), cached.getFormFactor());
+            assertEquals(parsed.isBrowser(UserAgent.CHROME, 61), cached.isBrowser(UserAgent.CHROME, 61));
+            assertEquals(parsed.isMobileClient(), cached.isMobileClient());
+            assertEquals(parsed.isWebkit(), cached.isWebkit());
+        }
+    }
+
+    @Test
+    public void testGetRecordsHitsAndMisses() {
+        String userAgent = unique(CHROME_UA);
+        CacheStats before = BrowserInfo.getCacheStats();
+
+        BrowserInfo.get(userAgent);
+        BrowserInfo.get(userAgent);
+        BrowserInfo.get(userAgent);
+
+        CacheStats delta = BrowserInfo.getCacheStats().minus(before);
+        assertTrue("expected at least one miss", delta.missCount() >= 1);
+        assertTrue("expected at least two hits", delta.hitCount() >= 2);
+    }
+
+    @Test
+    public void testLongUserAgentIsNotCached() {
+        String userAgent = CHROME_UA + StringUtils.repeat(" x", 512);
+
+        assertNotSame(BrowserInfo.get(userAgent), BrowserInfo.get(userAgent));
+    }
+
+    /**
+     * Micro benchmark of the per-request cost, parsing against the cached lookup.
+     *
+     * Only runs with -Daura.benchmark=true, and reports timings rather than asserting on them, since they depend on
+     * the machine running the test.
+     */
+    @Test
+    public void testBenchmarkCachedLookup() {
+        Assume.assumeTrue(Boolean.getBoolean("aura.benchmark"));
+        String[] userAgents = { CHROME_UA, IPHONE_UA };
+        int iterations = 200000;
+
+        long parseNanos = 0;
+        long cachedNanos = 0;
+        for (int round = 0; round < 3; round++) {
+            // the earlier rounds warm up both paths
+            long start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                new BrowserInfo(userAgents[i % userAgents.length]).isMobileClient();
+            }
+            parseNanos = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for (int i = 0; i < iterations; i++) {
+                BrowserInfo.get(userAgents[i % userAgents.length]).isMobileClient();
+            }
+            cachedNanos = System.nanoTime() - start;
+        }
+
+        System.out.println(String.format("BrowserInfo: parse %d ns/request, cached %d ns/request",
+                parseNanos / iterations, cachedNanos / iterations));
+    }
+
+    @Test
+    public void testBrowserTypeMatchesParser() {
+        for (String userAgent : new String[] { CHROME_UA, IPHONE_UA }) {
+            assertEquals(BrowserUserAgent.parseBrowser(userAgent), BrowserInfo.get(userAgent).getBrowserType());
+        }
+    }
+}
@@ -20,7 +20,9 @@ import static org.hamcrest.Matchers.greaterThan;
 import static org.hamcrest.Matchers.hasProperty;
 import static org.hamcrest.Matchers.instanceOf;
 import static org.hamcrest.Matchers.matchesPattern;
+import static org.hamcrest.Matchers.not;
 import static org.junit.Assert.assertThat;
+import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyString;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
@@ -28,6 +30,7 @@ import static org.mockito.Mockito.reset;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.io.File;
 import java.io.InputStream;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
@@ -35,6 +38,10 @@ import java.util.Arrays;
 import java.util.List;
 import java.util.Properties;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import javax.inject.Inject;
 
@@ -147,7 +154,7 @@ public class ConfigAdapterImplTest extends UnitTestCase {
         try {
             when(mockJsGroup.isStale()).thenReturn(true);
             Mockito.doThrow(new MockException("Pretend we had a compile error in regeneration")).when(mockJsGroup)
-                    .regenerate(AuraImplFiles.AuraResourceJavascriptDirectory.asFile());
+                    .regenerate(any(File.class));
             mockAdapter.regenerateAuraJS();
             fail("Compilation failure should have been caught!");
         } catch (AuraRuntimeException e) {
@@ -246,6 +253,90 @@ public class ConfigAdapterImplTest extends UnitTestCase {
         assertThat("Framework uid is not correct", uid, equalTo("BJTaoiCDxoAF4Wbh0iC9lA"));
     }
 
+    /**
+     * Once a framework uid has been handed out, a stale js group should be regenerated in the background while
+     * callers keep getting the previous uid, which is also kept when regeneration fails.
+     */
+    @Test
+    public void testRegenerateRunsInBackgroundAfterFirstVersion() throws Exception {
+        final AuraJavascriptGroup jsGroup = mock(AuraJavascriptGroup.class);
+        Hash jsHash = mock(Hash.class);
+        when(jsGroup.isStale()).thenReturn(false);
+        when(jsGroup.getGroupHash()).thenReturn(jsHash);
+        when(jsHash.toString()).thenReturn("jsGroup");
+
+        final AuraResourcesHashingGroup resourcesGroup = mock(AuraResourcesHashingGroup.class);
+        Hash resourcesHash = mock(Hash.class);
+        when(resourcesGroup.isStale()).thenReturn(false);
+        when(resourcesGroup.getGroupHash()).thenReturn(resourcesHash);
+        when(resourcesHash.toString()).thenReturn("resourcesGroup");
+
+        ConfigAdapterImpl configAdapter = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), instanceService, contextService, fileMonitor) {
+            @Override
+            protected AuraJavascriptGroup newAuraJavascriptGroup() {
+                return jsGroup;
+            }
+
+            @Override
+            protected FileGroup newAuraResourcesHashingGroup() {
+                return resourcesGroup;
+            }
+
+            @Override
+            public boolean isProduction() {
+                return false;
+            }
+        };
+        configAdapter.setContextService(mock(AuraContextServiceImpl.class));
+        configAdapter.initialize();
+
+        String uid = configAdapter.getAuraFrameworkNonce();
+
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final AtomicInteger regenerations = new AtomicInteger();
+        final AtomicReference<File> regeneratedInto = new AtomicReference<>();
+        Mockito.doAnswer(invocation -> {
+            if (regenerations.incrementAndGet() == 1) {
+                started.countDown();
+                release.await();
+                throw new MockException("Pretend we had a compile error in regeneration");
+            }
+            regeneratedInto.set((File) invocation.getArguments()[0]);
+            return null;
+        }).when(jsGroup).regenerate(any(File.class));
+        when(jsGroup.isStale()).thenReturn(true);
+        when(jsHash.toString()).thenReturn("MocKitYMuCK");
+
+        try {
+            configAdapter.regenerateAuraJS();
+            assertThat("Regeneration should have started in the background", started.await(10, TimeUnit.SECONDS),
+                    equalTo(true));
+            assertThat("Previous uid should be served while regenerating", configAdapter.getAuraFrameworkNonce(),
+                    equalTo(uid));
+            release.countDown();
+
+            // The failed regeneration is retried on a later request, the previous uid is served until it succeeds.
+            long deadline = System.currentTimeMillis() + 10000;
+            String current = configAdapter.getAuraFrameworkNonce();
+            while (regeneratedInto.get() == null && System.currentTimeMillis() < deadline) {
+                assertThat("Previous uid should be served until regeneration succeeds", current, equalTo(uid));
+                Thread.sleep(10);
+                current = configAdapter.getAuraFrameworkNonce();
+            }
+            while (current.equals(uid) && System.currentTimeMillis() < deadline) {
+                Thread.sleep(10);
+                current = configAdapter.getAuraFrameworkNonce();
+            }
+            assertThat("New uid should be served once regeneration succeeded", current, not(equalTo(uid)));
+            assertThat("Regeneration should not write to the served directory", regeneratedInto.get(),
+                    not(equalTo(AuraImplFiles.AuraResourceJavascriptDirectory.asFile())));
+        } finally {
+            release.countDown();
+            configAdapter.shutdownRegenerationExecutor();
+        }
+    }
+
     @Test
     public void testIsInternalNamespaceWithBadArguments() {
         ConfigAdapterImpl impl = new ConfigAdapterImpl(IOUtil.newTempDir(getName()), instanceService, contextService, fileMonitor);
@@ -176,6 +176,7 @@ public class MockConfigAdapterImpl extends ConfigAdapterImpl implements MockConf
     private Boolean isActionPublicCachingEnabled = null;
     private Boolean isBootstrapInliningEnabled = null;
     private Boolean isCssVarTransformEnabled = null;
+    private Integer concurrentActionThreadCount = null;
 
     public MockConfigAdapterImpl() {
         super();
@@ -194,6 +195,7 @@ public class MockConfigAdapterImpl extends ConfigAdapterImpl implements MockConf
         isActionPublicCachingEnabled = null;
         isBootstrapInliningEnabled = null;
         isCssVarTransformEnabled = null;
+        concurrentActionThreadCount = null;
     }
 
     @Override
@@ -440,4 +442,15 @@ public class MockConfigAdapterImpl extends ConfigAdapterImpl implements MockConf
         return (isCssVarTransformEnabled == null) ? super.isCssVarTransformEnabled() : isCssVarTransformEnabled;
     }
 
+    @Override
+    public void setConcurrentActionThreadCount(int concurrentActionThreadCount) {
+        this.concurrentActionThreadCount = concurrentActionThreadCount;
+    }
+
+    @Override
+    public int getConcurrentActionThreadCount() {
+        return (concurrentActionThreadCount == null) ? super.getConcurrentActionThreadCount()
+                : concurrentActionThreadCount;
+    }
+
 }
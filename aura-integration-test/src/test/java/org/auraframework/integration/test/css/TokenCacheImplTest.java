@@ -366,4 +366,41 @@ public class TokenCacheImplTest extends StyleTestCase {
         
         assertFalse("expected updated map value to result in new tokens uid", uid1.equals(uid2));      
     }
+
+    @Test
+    public void testGetContentHashNoTokens() throws Exception {
+        tokens = build();
+        assertFalse(tokens.getContentHash().isPresent());
+    }
+
+    @Test
+    public void testGetContentHashSameValues() throws Exception {
+        DefDescriptor<TokensDef> other = addSeparateTokens(tokens().token("num", "1"));
+
+        String hash1 = build(desc1).getContentHash().get();
+        String hash2 = build(other).getContentHash().get();
+        String hash3 = build(desc2, desc1).getContentHash().get();
+
+        assertEquals("expected the same values to give the same hash", hash1, hash2);
+        assertEquals("expected overridden values not to change the hash", hash1, hash3);
+    }
+
+    @Test
+    public void testGetContentHashDifferentValues() throws Exception {
+        String hash1 = build(desc1).getContentHash().get();
+        String hash2 = build(desc2).getContentHash().get();
+        String hash3 = build(desc2, desc1).getContentHash().get();
+
+        assertFalse("expected different values to give a different hash", hash1.equals(hash2));
+        assertFalse("expected the hash of the last def's values", hash2.equals(hash3));
+    }
+
+    @Test
+    public void testGetContentHashDynamicTokens() throws Exception {
+        DefDescriptor<TokensDef> mapDesc = addSeparateTokens(tokens().mapProvider("java://" + P3.class.getName()));
+        DefDescriptor<TokensDef> staticDesc = addSeparateTokens(tokens().token("color", "red"));
+
+        assertEquals("expected map-provided values to be hashed like declared ones",
+                build(staticDesc).getContentHash().get(), build(mapDesc).getContentHash().get());
+    }
 }
@@ -23,14 +23,18 @@ import javax.servlet.http.HttpServletResponse;
 
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
 import org.auraframework.http.AuraComponentDefinitionServlet;
+import org.auraframework.http.ComponentDefinitionResponse;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
 import org.auraframework.service.ServerService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.system.Client;
 import org.auraframework.util.test.util.AuraPrivateAccessor;
 import org.junit.Before;
 import org.junit.Test;
@@ -64,6 +68,12 @@ public class AuraComponentDefinitionServletTest {
     @Mock
     private ServletUtilAdapter servletUtilAdapter;
     
+    @Mock
+    private CachingService cachingService;
+
+    @Mock
+    private Cache<String, ComponentDefinitionResponse> responseCache;
+
     @Mock
     private HttpServletRequest request;
     
@@ -251,4 +261,55 @@ public class AuraComponentDefinitionServletTest {
         Mockito.verify(response).sendRedirect("https://example.host/auraCmpDef?aura.app=myApp&_ff=null&_l=false&_cssvar=true&_l10n=&_style=styling&_def=def:qualifiedName&_uid=DIFFERENT_UID");
 
     } 
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testCachedResponseIsReplayedWithoutWritingDefinitions() throws Exception {
+        // Arrange
+        setMockRequestParameters("myApp", "true", "de", "styling", "def", "UID");
+        PrintWriter writer = Mockito.mock(PrintWriter.class);
+        Mockito.when(response.getWriter()).thenReturn(writer);
+        Mockito.when(contextService.getCurrentContext()).thenReturn(auraContextService);
+        Mockito.when(auraContextService.getRestrictedNamespaces()).thenReturn(new HashSet<String>());
+        Mockito.when(auraContextService.getClient()).thenReturn(Client.OTHER);
+        Mockito.when(cachingService.getComponentDefinitionResponseCache()).thenReturn(responseCache);
+        Mockito.when(responseCache.getIfPresent(Matchers.anyString())).thenReturn(new ComponentDefinitionResponse("cached payload", true));
+        auraComponentDefinitionServlet.setCachingService(cachingService);
+
+        // Act
+        AuraPrivateAccessor.invoke(auraComponentDefinitionServlet, "doGet", request, response);
+
+        // Assert
+        Mockito.verify(writer).print("cached payload");
+        Mockito.verify(servletUtilAdapter, Mockito.times(1)).setLongCachePrivate(response);
+        Mockito.verifyZeroInteractions(serverService);
+        Mockito.verify(definitionService, Mockito.never()).updateLoaded(Matchers.any(DefDescriptor.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRenderedResponseIsCached() throws Exception {
+        // Arrange
+        setMockRequestParameters("myApp", "true", "de", "styling", "def", "UID");
+        DefDescriptor<Definition> defDescriptorMock = Mockito.mock(DefDescriptor.class);
+        Mockito.when(defDescriptorMock.getNamespace()).thenReturn("namespace");
+        Mockito.when(defDescriptorMock.getName()).thenReturn("name");
+        Mockito.when(defDescriptorMock.getQualifiedName()).thenReturn("def:qualifiedName");
+        Mockito.when(definitionService.getDefDescriptor(Matchers.eq("def"), Matchers.any())).thenReturn(defDescriptorMock);
+        Mockito.when(definitionService.getUid(null, defDescriptorMock)).thenReturn("UID");
+        Mockito.when(definitionService.exists(defDescriptorMock)).thenReturn(true);
+        Mockito.when(response.getWriter()).thenReturn(Mockito.mock(PrintWriter.class));
+        Mockito.when(contextService.getCurrentContext()).thenReturn(auraContextService);
+        Mockito.when(auraContextService.getRestrictedNamespaces()).thenReturn(new HashSet<String>());
+        Mockito.when(auraContextService.getClient()).thenReturn(Client.OTHER);
+        Mockito.when(cachingService.getComponentDefinitionResponseCache()).thenReturn(responseCache);
+        auraComponentDefinitionServlet.setCachingService(cachingService);
+
+        // Act
+        AuraPrivateAccessor.invoke(auraComponentDefinitionServlet, "doGet", request, response);
+
+        // Assert
+        Mockito.verify(servletUtilAdapter, Mockito.times(1)).setLongCache(response);
+        Mockito.verify(responseCache, Mockito.times(1)).put(Matchers.anyString(), Matchers.any(ComponentDefinitionResponse.class));
+    }
 }
@@ -198,6 +198,35 @@ public class AuraResourceServletTest extends AuraTestCase {
         assertEquals(304, mockResponse.getStatus());
     }
 
+    /**
+     * Verify app.css returns 304 for the etag it was served with, without writing it again.
+     */
+    @Test
+    public void testAppCssReturns304ForMatchingEtag() throws Exception {
+        DefDescriptor<ApplicationDef> appDesc =
+                definitionService.getDefDescriptor("markup://appCache:withpreload", ApplicationDef.class);
+        AuraContext context = contextService.startContext(
+                Mode.PROD, Format.CSS, Authentication.AUTHENTICATED, appDesc);
+        context.addLoaded(appDesc, definitionService.getUid(null, appDesc));
+
+        MockHttpServletRequest mockRequest = new MockHttpServletRequest(null, "app.css");
+        mockRequest.setAttribute(AuraResourceServlet.ORIG_REQUEST_URI, "/l/" + System.nanoTime() + "/app.css");
+        MockHttpServletResponse mockResponse = new MockHttpServletResponse();
+        AuraResourceServlet servlet = getAuraResourceServlet();
+        servlet.doGet(mockRequest, mockResponse);
+
+        assertEquals(200, mockResponse.getStatus());
+        String etag = mockResponse.getHeader(HttpHeaders.ETAG);
+        assertNotNull("app.css should be served with an etag", etag);
+
+        mockRequest.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        mockResponse = new MockHttpServletResponse();
+        servlet.doGet(mockRequest, mockResponse);
+
+        assertEquals(304, mockResponse.getStatus());
+        assertEquals("", mockResponse.getContentAsString());
+    }
+
     /**
      * Verify SVG servlet returns Content-Disposition = attachment; filename=resources.svg if referer header is null
      * This is to prevent any scripts hidden in the SVG from running on the local domain
@@ -204,6 +204,49 @@ public class JavaActionTest extends AuraImplTestCase {
         checkExceptionContains(actualException, AuraUnhandledException.class, expectedMessage);
     }
 
+    @Test
+    public void testRunActionWithConvertedParameters() throws Exception {
+        String targetController = "java://org.auraframework.impl.java.controller.TestControllerWithParameters";
+        ControllerDef controllerDef = getJavaControllerDef(targetController);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("a", Integer.valueOf(1));
+        params.put("b", Integer.valueOf(2));
+        ActionDef actionDef = controllerDef.getSubDefinition("sumValues");
+        JavaAction javaAction = instanceService.getInstance(actionDef, params);
+        javaAction.setParamConversionErrors(new HashMap<>());
+        javaAction.run();
+
+        assertEquals(State.SUCCESS, javaAction.getState());
+        assertActionNotContainsError(javaAction);
+        assertEquals(Integer.valueOf(3), javaAction.getReturnValue());
+    }
+
+    /**
+     * Verify a param that failed to convert while the request was read is reported when the action runs.
+     */
+    @Test
+    public void testRunActionReportsParamConversionErrors() throws Exception {
+        String targetController = "java://org.auraframework.impl.java.controller.TestControllerWithParameters";
+        ControllerDef controllerDef = getJavaControllerDef(targetController);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("a", "x");
+        params.put("b", Integer.valueOf(2));
+        Map<String, Exception> errors = new HashMap<>();
+        errors.put("a", new IllegalArgumentException("x is not a number"));
+        ActionDef actionDef = controllerDef.getSubDefinition("sumValues");
+        JavaAction javaAction = instanceService.getInstance(actionDef, params);
+        javaAction.setParamConversionErrors(errors);
+        javaAction.run();
+
+        assertEquals(State.ERROR, javaAction.getState());
+        assertEquals(null, javaAction.getReturnValue());
+        assertEquals(1, javaAction.getErrors().size());
+        Exception actualException = (Exception) javaAction.getErrors().get(0);
+        checkExceptionContains(actualException, AuraUnhandledException.class, "Invalid value for a: java://java.lang.Integer");
+    }
+
     /**
      * This is testing JavaAction with parameter that throws QFE when accessing. verify AuraUnhandledException is added
      * when this happen in JavaAction
@@ -19,6 +19,7 @@ import static java.lang.Boolean.FALSE;
 import static java.lang.Boolean.TRUE;
 import static org.auraframework.impl.test.util.matcher.IsEqualIgnoringAllWhiteSpace.equalToIgnoringAllWhiteSpace;
 import static org.auraframework.impl.test.util.matcher.StringContainsIgnoringAllWhiteSpace.containsStringIgnoringAllWhiteSpace;
+import static org.hamcrest.Matchers.contains;
 import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
@@ -43,6 +44,12 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -431,6 +438,237 @@ public class ServerServiceImplTest extends IntegrationTestCase {
         }
     }
 
+    /**
+     * A publicly cacheable action only runs once, later requests get the serialized result of the first one with
+     * their own action id.
+     */
+    @Test
+    public void testPubliclyCacheableActionResultIsReused() throws Exception {
+        AuraContext context = contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+        context.setActionPublicCacheKey(String.valueOf(System.nanoTime()));
+        EmptyAction first = new SuccessfulEmptyAction("first action");
+        first.setId("1;a");
+        EmptyAction second = new SuccessfulEmptyAction("second action");
+        second.setId("7;a");
+
+        try (StringWriter sw = new StringWriter()) {
+            serverService.runPubliclyCacheable(new Message(Lists.newArrayList(first)), context, sw, null, 60);
+            assertThat(getActionIds(validateEmptyActionSerialization(sw.toString(), null,
+                    Arrays.asList("first action"))), contains("1;a"));
+        }
+        try (StringWriter sw = new StringWriter()) {
+            serverService.runPubliclyCacheable(new Message(Lists.newArrayList(second)), context, sw, null, 60);
+            assertThat(getActionIds(validateEmptyActionSerialization(sw.toString(), null,
+                    Arrays.asList("first action"))), contains("7;a"));
+        }
+        assertThat(first, hasProperty("count", equalTo(Integer.valueOf(1))));
+        assertThat(second, hasProperty("count", equalTo(Integer.valueOf(0))));
+    }
+
+    /**
+     * Publicly cacheable results are not shared between requests for actions that are storable or not, or that come
+     * from a different caller or caller version.
+     */
+    @Test
+    public void testPubliclyCacheableActionResultIsKeyedByCaller() throws Exception {
+        AuraContext context = contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+        context.setActionPublicCacheKey(String.valueOf(System.nanoTime()));
+        EmptyAction plain = new SuccessfulEmptyAction("plain action");
+        EmptyAction storable = new SuccessfulEmptyAction("storable action");
+        storable.setStorable();
+        EmptyAction versioned = new SuccessfulEmptyAction("versioned action");
+        versioned.setCallerVersion("2.0");
+        EmptyAction called = new SuccessfulEmptyAction("called action");
+        called.setCallingDescriptor(definitionService.getDefDescriptor("markup://cacheTest:caller",
+                ComponentDef.class));
+        List<EmptyAction> actions = Lists.newArrayList(plain, storable, versioned, called);
+
+        for (EmptyAction action : actions) {
+            action.setId("1;a");
+            try (StringWriter sw = new StringWriter()) {
+                serverService.runPubliclyCacheable(new Message(Lists.newArrayList(action)), context, sw, null, 60);
+                validateEmptyActionSerialization(sw.toString(), null, Arrays.asList(action.getName()));
+            }
+        }
+        for (EmptyAction action : actions) {
+            assertThat(action, hasProperty("count", equalTo(Integer.valueOf(1))));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<String> getActionIds(Map<String, Object> response) {
+        return ((List<Map<String, Object>>) response.get("actions")).stream()
+                .map(action -> (String) action.get("id")).collect(Collectors.toList());
+    }
+
+    /**
+     * A publicly cacheable action that adds to the context of its response runs every time, since a cached result
+     * would be written without what it added.
+     */
+    @Test
+    public void testPubliclyCacheableActionAddingToContextIsNotReused() throws Exception {
+        String publicCacheKey = String.valueOf(System.nanoTime());
+        DefDescriptor<ComponentDef> loaded = definitionService.getDefDescriptor("markup://cacheTest:loaded",
+                ComponentDef.class);
+        List<EmptyAction> actions = Lists.newArrayList();
+        for (String name : Arrays.asList("first action", "second action")) {
+            AuraContext context = contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            context.setActionPublicCacheKey(publicCacheKey);
+            EmptyAction action = new SuccessfulEmptyAction(name) {
+                @Override
+                public void run() throws AuraExecutionException {
+                    super.run();
+                    contextService.getCurrentContext().addLoaded(loaded, "uid");
+                }
+            };
+            actions.add(action);
+            try (StringWriter sw = new StringWriter()) {
+                serverService.runPubliclyCacheable(new Message(Lists.newArrayList(action)), context, sw, null, 60);
+                validateEmptyActionSerialization(sw.toString(), null, Arrays.asList(name));
+            } finally {
+                contextService.endContext();
+            }
+        }
+        assertThat(actions.get(0), hasProperty("count", equalTo(Integer.valueOf(1))));
+        assertThat(actions.get(1), hasProperty("count", equalTo(Integer.valueOf(1))));
+    }
+
+    /**
+     * An action that succeeds, and is written with its id first like any real action.
+     */
+    private class SuccessfulEmptyAction extends EmptyAction {
+        SuccessfulEmptyAction(String name) {
+            super(null, name, definitionService, configAdapter);
+        }
+
+        @Override
+        public void run() throws AuraExecutionException {
+            super.run();
+            state = State.SUCCESS;
+        }
+
+        @Override
+        public void serialize(Json json) throws IOException {
+            json.writeMapBegin();
+            if (getId() != null) {
+                json.writeMapEntry("id", getId());
+            }
+            json.writeMapEntry("action", getName());
+            json.writeMapEnd();
+        }
+    }
+
+    /**
+     * A concurrent action that waits for all the others of its group to start before doing its work.
+     */
+    private class ConcurrentEmptyAction extends SuccessfulEmptyAction {
+        private final CyclicBarrier started;
+        private final Runnable work;
+        private volatile boolean parallel = false;
+
+        ConcurrentEmptyAction(String name, CyclicBarrier started, Runnable work) {
+            super(name);
+            this.started = started;
+            this.work = work;
+        }
+
+        @Override
+        public boolean isConcurrent() {
+            return true;
+        }
+
+        @Override
+        public void run() throws AuraExecutionException {
+            try {
+                started.await(10, TimeUnit.SECONDS);
+                parallel = true;
+            } catch (InterruptedException | BrokenBarrierException | TimeoutException e) {
+                // the actions were not run in parallel.
+            }
+            work.run();
+            super.run();
+        }
+    }
+
+    /**
+     * Concurrent actions run in parallel, and are serialized in the order they were requested even when the first
+     * one is the last to finish.
+     */
+    @Test
+    @ThreadHostileTest("modifies mock config adapter")
+    public void testConcurrentActionsRunInParallelAndKeepRequestOrder() throws Exception {
+        getMockConfigAdapter().setConcurrentActionThreadCount(3);
+        try {
+            AuraContext context = contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            CyclicBarrier started = new CyclicBarrier(3);
+            CountDownLatch othersDone = new CountDownLatch(2);
+            AtomicInteger firstWaited = new AtomicInteger();
+            ConcurrentEmptyAction first = new ConcurrentEmptyAction("first action", started, () -> {
+                try {
+                    if (othersDone.await(10, TimeUnit.SECONDS)) {
+                        firstWaited.incrementAndGet();
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            ConcurrentEmptyAction second = new ConcurrentEmptyAction("second action", started, othersDone::countDown);
+            ConcurrentEmptyAction third = new ConcurrentEmptyAction("third action", started, othersDone::countDown);
+
+            try (StringWriter sw = new StringWriter()) {
+                serverService.run(new Message(Lists.newArrayList(first, second, third)), context, sw, null);
+                validateEmptyActionSerialization(sw.toString(), null,
+                        Arrays.asList("first action", "second action", "third action"));
+            }
+            assertThat(first.parallel && second.parallel && third.parallel, equalTo(TRUE));
+            assertThat(firstWaited.get(), equalTo(1));
+        } finally {
+            resetMocks();
+        }
+    }
+
+    /**
+     * Concurrent actions share the context of their request, each with its own system mode.
+     */
+    @Test
+    @ThreadHostileTest("modifies mock config adapter")
+    public void testConcurrentActionsShareContext() throws Exception {
+        getMockConfigAdapter().setConcurrentActionThreadCount(3);
+        try {
+            AuraContext context = contextService.startContext(Mode.UTEST, Format.JSON, Authentication.AUTHENTICATED);
+            CyclicBarrier started = new CyclicBarrier(3);
+            AtomicInteger systemModeErrors = new AtomicInteger();
+            List<Action> actions = Lists.newArrayList();
+            for (int i = 0; i < 3; i++) {
+                String prefix = "markup://concurrentTest:cmp" + i + "_";
+                boolean system = i == 0;
+                actions.add(new ConcurrentEmptyAction("action " + i, started, () -> {
+                    AuraContext current = contextService.getCurrentContext();
+                    current.setSystemMode(system);
+                    for (int j = 0; j < 200; j++) {
+                        current.addLoaded(definitionService.getDefDescriptor(prefix + j, ComponentDef.class), "uid");
+                        if (current.isSystemMode() != system) {
+                            systemModeErrors.incrementAndGet();
+                        }
+                    }
+                    current.setSystemMode(false);
+                }));
+            }
+
+            try (StringWriter sw = new StringWriter()) {
+                serverService.run(new Message(actions), context, sw, null);
+                validateEmptyActionSerialization(sw.toString(), null, Arrays.asList("action 0", "action 1", "action 2"));
+            }
+            long loaded = context.getLoaded().keySet().stream()
+                    .filter(desc -> "concurrentTest".equals(desc.getNamespace())).count();
+            assertThat(loaded, equalTo(600L));
+            assertThat(systemModeErrors.get(), equalTo(0));
+            assertThat(context.isSystemMode(), equalTo(FALSE));
+        } finally {
+            resetMocks();
+        }
+    }
+
     /**
      * This test is for W-2063110 Running the same action twice in a list since we output right after the run, we can
      * reuse the action. the second run will over-write the previous run's returnValue(unless we change the run()), but
@@ -173,6 +173,14 @@ public interface Json {
             return useShortName?this.shortName:this.name;
         }
 
+        public String getName(){
+            return this.name;
+        }
+
+        public String getShortName(){
+            return this.shortName;
+        }
+
         private static Boolean useShortName=true;
         public static void useShortKey(Boolean useShortKey){
             useShortName=useShortKey;
@@ -50,6 +50,21 @@ public interface Annotations {
     @interface CabooseAction {
     }
 
+    /**
+     * Marks a server action as safe to run concurrently with the other actions of the same request.
+     *
+     * Consecutive concurrent actions of a request may be run in parallel on worker threads when the
+     * server is configured for it. Such actions must not depend on the order in which the actions of
+     * a request run, and must not modify the context or load definitions that are not already loaded.
+     * Results are still returned in the order the actions were sent.
+     *
+     * The AuraEnabled annotation is still required to use this method as a server action.
+     */
+    @Retention(RetentionPolicy.RUNTIME)
+    @Target(ElementType.METHOD)
+    @interface ConcurrentAction {
+    }
+
     @Retention(RetentionPolicy.RUNTIME)
     @Target(ElementType.METHOD)
     @interface AuraEnabled {
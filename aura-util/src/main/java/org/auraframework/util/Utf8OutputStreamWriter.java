@@ -0,0 +1,253 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link java.io.OutputStreamWriter} replacement that always uses UTF-8, encoding characters straight into a byte
+ * buffer which is handed to the wrapped {@link OutputStream} as a whole. The buffers are pooled, so a writer that is
+ * {@link #close() closed} or {@link #finish() finished} gives its buffer to the next one.<br>
+ * <br>
+ * Bytes that are already UTF-8, such as pre-encoded JSON keys, can be written with {@link #writeBytes(byte[])}
+ * without going through chars at all.<br>
+ * <br>
+ * Like {@code OutputStreamWriter}, unpaired surrogates are written as '?'.
+ */
+@NotThreadSafe
+public class Utf8OutputStreamWriter extends Writer {
+    private static final int BUFFER_SIZE = 16 * 1024;
+    private static final int POOL_SIZE = 32;
+    private static final BlockingQueue<byte[]> pool = new ArrayBlockingQueue<>(POOL_SIZE);
+
+    private final OutputStream out;
+    private byte[] buffer;
+    private int count = 0;
+    /** A high surrogate waiting for its low surrogate, or 0 */
+    private char highSurrogate = 0;
+
+    /**
+     * @param out The OutputStream to write UTF-8 bytes to
+     */
+    public Utf8OutputStreamWriter(OutputStream out) {
+        this.out = out;
+        byte[] pooled = pool.poll();
+        this.buffer = pooled != null ? pooled : new byte[BUFFER_SIZE];
+    }
+
+    @Override
+    public void write(int c) throws IOException {
+        ensureOpen();
+        encode((char) c);
+    }
+
+    @Override
+    public void write(char[] cbuf, int off, int len) throws IOException {
+        ensureOpen();
+        byte[] buf = buffer;
+        for (int i = off; i < off + len; i++) {
+            char c = cbuf[i];
+            if (c < 0x80 && highSurrogate == 0) {
+                if (count == buf.length) {
+                    flushBuffer();
+                }
+                buf[count++] = (byte) c;
+            } else {
+                encode(c);
+            }
+        }
+    }
+
+    @Override
+    public void write(String str, int off, int len) throws IOException {
+        ensureOpen();
+        encode(str, off, off + len);
+    }
+
+    @Override
+    public Writer append(CharSequence csq) throws IOException {
+        ensureOpen();
+        if (csq == null) {
+            csq = "null";
+        }
+        encode(csq, 0, csq.length());
+        return this;
+    }
+
+    @Override
+    public Writer append(CharSequence csq, int start, int end) throws IOException {
+        ensureOpen();
+        if (csq == null) {
+            csq = "null";
+        }
+        encode(csq, start, end);
+        return this;
+    }
+
+    @Override
+    public Writer append(char c) throws IOException {
+        write(c);
+        return this;
+    }
+
+    /**
+     * Write bytes that are already UTF-8.
+     *
+     * @param bytes the UTF-8 bytes
+     */
+    public void writeBytes(byte[] bytes) throws IOException {
+        ensureOpen();
+        writePendingSurrogate();
+        if (bytes.length > buffer.length - count) {
+            flushBuffer();
+            if (bytes.length > buffer.length) {
+                out.write(bytes);
+                return;
+            }
+        }
+        System.arraycopy(bytes, 0, buffer, count, bytes.length);
+        count += bytes.length;
+    }
+
+    private void encode(CharSequence csq, int start, int end) throws IOException {
+        byte[] buf = buffer;
+        for (int i = start; i < end; i++) {
+            char c = csq.charAt(i);
+            if (c < 0x80 && highSurrogate == 0) {
+                if (count == buf.length) {
+                    flushBuffer();
+                }
+                buf[count++] = (byte) c;
+            } else {
+                encode(c);
+            }
+        }
+    }
+
+    private void encode(char c) throws IOException {
+        // the longest output for a char is '?' for a dropped surrogate followed by 3 bytes
+        if (count + 4 > buffer.length) {
+            flushBuffer();
+        }
+        byte[] buf = buffer;
+        if (highSurrogate != 0) {
+            char high = highSurrogate;
+            highSurrogate = 0;
+            if (Character.isLowSurrogate(c)) {
+                int codePoint = Character.toCodePoint(high, c);
+                buf[count++] = (byte) (0xF0 | (codePoint >> 18));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (codePoint & 0x3F));
+                return;
+            }
+            buf[count++] = '?';
+        }
+        if (c < 0x80) {
+            buf[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[count++] = (byte) (0xC0 | (c >> 6));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            highSurrogate = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[count++] = '?';
+        } else {
+            buf[count++] = (byte) (0xE0 | (c >> 12));
+            buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void writePendingSurrogate() throws IOException {
+        if (highSurrogate != 0) {
+            highSurrogate = 0;
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            buffer[count++] = '?';
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if (buffer == null) {
+            throw new IOException("Stream closed");
+        }
+    }
+
+    /**
+     * Writes out the buffered bytes and flushes the OutputStream. A trailing high surrogate is kept, since the rest
+     * of the pair may still come.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Writes out everything and returns the buffer to the pool, leaving the OutputStream open. Use this rather than
+     * {@link #close()} when the stream is not ours to close, such as a servlet response. Nothing can be written
+     * after this.
+     */
+    public void finish() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            writePendingSurrogate();
+            flushBuffer();
+            out.flush();
+        } finally {
+            release();
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            writePendingSurrogate();
+            flushBuffer();
+        } finally {
+            release();
+            out.close();
+        }
+    }
+
+    private void release() {
+        byte[] released = buffer;
+        buffer = null;
+        count = 0;
+        pool.offer(released);
+    }
+}
@@ -18,7 +18,6 @@ package org.auraframework.util.json;
 import java.io.DataOutputStream;
 import java.io.IOException;
 import java.io.OutputStream;
-import java.io.OutputStreamWriter;
 import java.io.Writer;
 import java.math.BigDecimal;
 import java.text.SimpleDateFormat;
@@ -35,11 +34,11 @@ import java.util.TimeZone;
 
 import javax.annotation.Nonnull;
 
-import org.auraframework.util.AuraTextUtil;
 import org.auraframework.util.UncloseableOutputStream;
-import org.json.JSONObject;
+import org.auraframework.util.Utf8OutputStreamWriter;
 
 import com.google.common.base.Charsets;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.io.CountingOutputStream;
@@ -186,11 +185,47 @@ public class JsonEncoder implements Json {
             }
             return result;
         }
+
+        boolean isCapturing() {
+            return !captured.isEmpty();
+        }
+    }
+
+    /**
+     * Keys written in most responses, besides the {@link ApplicationKey}s.
+     */
+    private static final String[] COMMON_KEYS = { "descriptor", "attributes", "values", "value", "componentDef",
+            "creationPath", "model", "id", "state", "returnValue", "error", "actions", "context", "events",
+            "storable", "callingDescriptor", "params", "mode", "app", "fwuid", "loaded", "globals",
+            "serializationVersion" };
+
+    /**
+     * Quoted UTF-8 bytes for common map keys, written as they are when the output is a
+     * {@link Utf8OutputStreamWriter}. Both names of each {@link ApplicationKey} are included, since which one is
+     * used can be switched.
+     */
+    private static final Map<String, byte[]> ENCODED_KEYS;
+    static {
+        Map<String, byte[]> keys = Maps.newHashMap();
+        for (String key : COMMON_KEYS) {
+            keys.put(key, encodeKey(key));
+        }
+        for (ApplicationKey key : ApplicationKey.values()) {
+            keys.put(key.getName(), encodeKey(key.getName()));
+            keys.put(key.getShortName(), encodeKey(key.getShortName()));
+        }
+        ENCODED_KEYS = ImmutableMap.copyOf(keys);
+    }
+
+    private static byte[] encodeKey(String key) {
+        // the keys are plain identifiers, nothing to escape
+        return ('"' + key + '"').getBytes(Charsets.UTF_8);
     }
 
     private final JsonSerializationContext serializationContext;
     private final Appendable out;
     private final CapturableAppendable cacheableOut;
+    private final Utf8OutputStreamWriter utf8Out;
     private final ArrayDeque<IndentEntry> indentStack = new ArrayDeque<>();
     private final DataOutputStream binaryOutput;
     private CountingOutputStream currentBinaryStream;
@@ -224,6 +259,7 @@ public class JsonEncoder implements Json {
     protected JsonEncoder(Appendable out, OutputStream binaryOutput, JsonSerializationContext context) {
         this.out = out;
         this.cacheableOut = new CapturableAppendable(out);
+        this.utf8Out = out instanceof Utf8OutputStreamWriter ? (Utf8OutputStreamWriter) out : null;
         this.serializationContext = context;
 
         // Set binaryOutput to a DataOutputStream if applicable; otherwise, null
@@ -373,6 +409,9 @@ public class JsonEncoder implements Json {
      * ensure that all characters have been written out to the given
      * OutputStream. Otherwise, some characters might be missing at the end.
      *
+     * The characters are encoded as UTF-8 straight into a pooled byte buffer,
+     * see {@link Utf8OutputStreamWriter}.
+     *
      * @param out The OutputStream to write the serialized objects to using
      *            UTF-8. This must not be null.
      * @param context The JSON serialization context to use for output
@@ -383,7 +422,7 @@ public class JsonEncoder implements Json {
         if (out == null) {
             throw new IllegalArgumentException("out must not be null");
         }
-        final Writer writer = new OutputStreamWriter(out, Charsets.UTF_8);
+        final Writer writer = new Utf8OutputStreamWriter(out);
         return new JsonEncoder(writer, out, context);
     }
 
@@ -599,7 +638,95 @@ public class JsonEncoder implements Json {
             return;
         }
 
-        cacheableOut.append(JSONObject.quote(AuraTextUtil.escapeForJSONString(toString)));
+        writeQuoted(cacheableOut, toString);
+    }
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    /**
+     * Quote and escape a string straight into the output, in one pass.
+     *
+     * The output is the same as {@code JSONObject.quote(AuraTextUtil.escapeForJSONString(value))}, but characters
+     * that need no escaping are appended in runs from the original string, so a string that needs no escaping at
+     * all is appended with a single call and no copy.
+     *
+     * @param out where to write the quoted string
+     * @param value the string to write, not null
+     * @throws IOException if the output fails
+     */
+    static void writeQuoted(Appendable out, String value) throws IOException {
+        int length = value.length();
+        // the previous character as JSONObject.quote sees it, after the removals of escapeForJSONString
+        char previous = 0;
+        // start of the run of characters not yet written
+        int start = 0;
+
+        out.append('"');
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= ' ' && c < 0x80 && c != '"' && c != '\\' && c != '/') {
+                previous = c;
+                continue;
+            }
+            String replacement;
+            switch (c) {
+            case '"':
+                replacement = "\\\"";
+                break;
+            case '\\':
+                replacement = "\\\\";
+                break;
+            case '/':
+                if (previous != '<') {
+                    previous = c;
+                    continue;
+                }
+                replacement = "\\/";
+                break;
+            case '\b':
+                replacement = "\\b";
+                break;
+            case '\t':
+                replacement = "\\t";
+                break;
+            case '\n':
+            case '\u2028':
+                replacement = "\\n";
+                break;
+            case '\f':
+                replacement = "\\f";
+                break;
+            case '\r':
+                replacement = "\\r";
+                break;
+            case '\u0000':
+                replacement = "";
+                break;
+            default:
+                if (c < ' ' || (c >= '\u0080' && c < '\u00a0') || (c >= '\u2000' && c < '\u2100')) {
+                    replacement = null;
+                } else {
+                    previous = c;
+                    continue;
+                }
+            }
+            out.append(value, start, i);
+            if (replacement != null) {
+                out.append(replacement);
+            } else {
+                out.append('\\').append('u')
+                    .append(HEX_DIGITS[(c >> 12) & 0xf]).append(HEX_DIGITS[(c >> 8) & 0xf])
+                    .append(HEX_DIGITS[(c >> 4) & 0xf]).append(HEX_DIGITS[c & 0xf]);
+            }
+            start = i + 1;
+            if (c == '\u2028') {
+                previous = '\n';
+            } else if (c != '\u0000') {
+                previous = c;
+            }
+        }
+        out.append(value, start, length);
+        out.append('"');
     }
 
     /**
@@ -749,12 +876,29 @@ public class JsonEncoder implements Json {
         }
         if (key == null) {
             cacheableOut.append("\"null\"");
-        } else {
+        } else if (!writeEncodedKey(key)) {
             this.writeString(key);
         }
         writeMapSeparator();
     }
 
+    /**
+     * Write a common key as pre-encoded bytes if the output takes bytes.
+     *
+     * @return false if the key has to be written as a string
+     */
+    private boolean writeEncodedKey(Object key) throws IOException {
+        if (utf8Out == null || cacheableOut.isCapturing()) {
+            return false;
+        }
+        byte[] encoded = ENCODED_KEYS.get(key.toString());
+        if (encoded == null) {
+            return false;
+        }
+        utf8Out.writeBytes(encoded);
+        return true;
+    }
+
     /**
      * If formatting is on, or if at top level, write out a line break.
      *
@@ -836,7 +980,7 @@ public class JsonEncoder implements Json {
     }
 
     /**
-     * Writes out any buffered characters in the OutputStreamWriter to the
+     * Writes out any buffered characters in the Writer to the
      * binary OutputStream and then closes the OutputStream.<br>
      * <br>
      * Note that this method does nothing if Json was not created with an
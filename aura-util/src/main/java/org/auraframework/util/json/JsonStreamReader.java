@@ -42,7 +42,6 @@ import java.io.Closeable;
 import java.io.DataInputStream;
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.PushbackReader;
 import java.io.Reader;
 import java.io.StringReader;
 import java.math.BigDecimal;
@@ -129,7 +128,32 @@ public class JsonStreamReader implements Closeable {
         escapes.put('v', '\u000B');
     }
 
-    private final PushbackReader reader;
+    /** Characters that may be unread after a buffer refill, keep in sync with the deepest unreadChar sequence */
+    private static final int PUSHBACK = 2;
+    private static final int BUFFER_SIZE = 8192;
+
+    /** Integral numbers with at most this many digits fit in a long */
+    private static final int MAX_LONG_DIGITS = 18;
+
+    /** Keys found in most aura requests, shared by all readers */
+    private static final String[] WELL_KNOWN_KEYS = { "actions", "id", "descriptor", "callingDescriptor", "params",
+            "version", "storable", "mode", "fwuid", "app", "cmp", "loaded", "dn", "globals", "uad",
+            "serializationVersion", "ls", "c", "pathPrefix", "apce", "apck", "styleContext", "test" };
+    private static final KeyTable wellKnownKeys = new KeyTable();
+    static {
+        for (String key : WELL_KNOWN_KEYS) {
+            wellKnownKeys.add(key);
+        }
+    }
+
+    private final Reader reader;
+    private final char[] buffer;
+    private int position = 0;
+    private int limit = 0;
+    /** Reused for every string read, strings are copied out of it once complete */
+    private final StringBuilder text = new StringBuilder();
+    /** Keys seen in this stream, created on the first key */
+    private KeyTable keys;
 
     private JsonConstant currentToken;
     private Object current;
@@ -152,7 +176,9 @@ public class JsonStreamReader implements Closeable {
         if (reader == null) {
             throw new JsonParseException("Reader cannot be null");
         }
-        this.reader = new PushbackReader(reader, 2);
+        this.reader = reader;
+        // Binary data is read from the underlying stream, so characters must not be read ahead of the parser.
+        this.buffer = new char[PUSHBACK + (binaryInput == null ? BUFFER_SIZE : 1)];
         this.binaryInput = binaryInput == null ? null
                 : (binaryInput instanceof DataInputStream ? (DataInputStream) binaryInput : new DataInputStream(
                         binaryInput));
@@ -435,7 +461,7 @@ public class JsonStreamReader implements Closeable {
         case LITERAL_START:
             unreadChar(c);
             if (hint == STRING || Character.isJavaIdentifierStart(c)) {
-                String result = readLiteralString();
+                String result = readLiteralString(hint == STRING);
                 token = null;
                 // FIXME: we should probably check for more key words here.
                 if (result.equals("true")) {
@@ -481,7 +507,7 @@ public class JsonStreamReader implements Closeable {
             break;
         case QUOTE_SINGLE:
         case QUOTE_DOUBLE:
-            current = readString(token, false);
+            current = readString(token, false, hint == STRING);
             token = STRING;
             break;
         case BINARY_STREAM: {
@@ -694,13 +720,24 @@ public class JsonStreamReader implements Closeable {
     }
 
     private String readString(JsonConstant delim, boolean keepEscapers) throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+        return readString(delim, keepEscapers, false);
+    }
+
+    private String readString(JsonConstant delim, boolean keepEscapers, boolean isKey)
+            throws IOException, JsonEndOfStreamException {
+        StringBuilder sb = text;
+        sb.setLength(0);
+        char delimChar = delim.getToken();
         boolean isEscaped = false;
         markPosition(1);
         try {
             while (true) {
+                // Copy plain characters straight from the buffer, only the special ones go through readChar
+                if (readRun(sb, delimChar)) {
+                    isEscaped = false;
+                }
                 char c = readChar();
-                if (c == delim.getToken()) {
+                if (c == delimChar) {
                     if (!isEscaped) {
                         // We consume the delimiter and call it a day.
                         break;
@@ -724,7 +761,112 @@ public class JsonStreamReader implements Closeable {
         } catch (JsonEndOfStreamException e) {
             throw new JsonStreamParseException("Unterminated string", sb.toString(), getLineNum(), getColNum());
         }
-        return sb.toString();
+        return isKey ? toKey(sb) : sb.toString();
+    }
+
+    /**
+     * Append buffered characters up to the next delimiter, backslash or newline, keeping the position and length
+     * accounting of {@link #readChar()}.
+     *
+     * @return true if any character was appended
+     */
+    private boolean readRun(StringBuilder sb, char delim) {
+        int start = position;
+        int end = limit;
+        if (lengthLimitsEnabled) {
+            // leave the character over the limit to readChar, which reports it
+            end = (int) Math.min(end, start + Math.max(0L, (long) MAX_LENGTH - charNum));
+        }
+        int i = start;
+        while (i < end) {
+            char c = buffer[i];
+            if (c == delim || c == '\\' || c == '\n') {
+                break;
+            }
+            i++;
+        }
+        int count = i - start;
+        if (count == 0) {
+            return false;
+        }
+        sb.append(buffer, start, count);
+        position = i;
+        charNum += count;
+        colNum += count;
+        return true;
+    }
+
+    /**
+     * Get the string for an object key, reusing the instance of an equal key read before.
+     */
+    private String toKey(StringBuilder sb) {
+        String key = wellKnownKeys.find(sb);
+        if (key != null) {
+            return key;
+        }
+        if (keys == null) {
+            keys = new KeyTable();
+        }
+        key = keys.find(sb);
+        if (key == null) {
+            key = sb.toString();
+            keys.add(key);
+        }
+        return key;
+    }
+
+    /**
+     * A small open addressing table of strings, looked up by the characters of a {@link StringBuilder} so that a
+     * hit allocates nothing. Object keys repeat a lot in requests (the field names of every record in a list), but
+     * the table is bounded since the keys come from the client.
+     */
+    private static final class KeyTable {
+        private static final int SIZE = 512;
+        private static final int MAX_ENTRIES = SIZE / 2;
+        private static final int MAX_KEY_LENGTH = 64;
+
+        private final String[] entries = new String[SIZE];
+        private int count = 0;
+
+        private static int hash(CharSequence chars) {
+            // same as String.hashCode, which the entries cache
+            int h = 0;
+            for (int i = 0; i < chars.length(); i++) {
+                h = 31 * h + chars.charAt(i);
+            }
+            return h;
+        }
+
+        private static int slot(int hash) {
+            return (hash ^ (hash >>> 16)) & (SIZE - 1);
+        }
+
+        String find(StringBuilder chars) {
+            int length = chars.length();
+            if (length > MAX_KEY_LENGTH) {
+                return null;
+            }
+            int hash = hash(chars);
+            for (int i = slot(hash); entries[i] != null; i = (i + 1) & (SIZE - 1)) {
+                String entry = entries[i];
+                if (entry.length() == length && entry.hashCode() == hash && entry.contentEquals(chars)) {
+                    return entry;
+                }
+            }
+            return null;
+        }
+
+        void add(String key) {
+            if (count >= MAX_ENTRIES || key.length() > MAX_KEY_LENGTH) {
+                return;
+            }
+            int i = slot(key.hashCode());
+            while (entries[i] != null) {
+                i = (i + 1) & (SIZE - 1);
+            }
+            entries[i] = key;
+            count++;
+        }
     }
 
     /**
@@ -866,7 +1008,8 @@ public class JsonStreamReader implements Closeable {
     }
 
     private Number readNumber() throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+        StringBuilder sb = text;
+        sb.setLength(0);
         while (hasNext()) {
             char c = readChar();
             JsonConstant token = JsonConstant.valueOf(c);
@@ -877,7 +1020,10 @@ public class JsonStreamReader implements Closeable {
                 sb.append(c);
             }
         }
-        BigDecimal ret;
+        BigDecimal ret = readIntegral(sb);
+        if (ret != null) {
+            return ret;
+        }
         try {
             String s = sb.toString();
             if (s.equals("NaN")) {
@@ -888,7 +1034,7 @@ public class JsonStreamReader implements Closeable {
                     return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
                 }
             }
-            ret = new BigDecimal(sb.toString());
+            ret = new BigDecimal(s);
 
         } catch (NumberFormatException e) {
             throw new JsonStreamParseException("Could not parse a number", sb.toString(), getLineNum(), getColNum(), e);
@@ -896,6 +1042,32 @@ public class JsonStreamReader implements Closeable {
         return ret;
     }
 
+    /**
+     * Parse a plain integral number that fits in a long without going through a String.
+     *
+     * @return the number, or null if it is not a plain integral number, leaving it to the general parsing
+     */
+    private static BigDecimal readIntegral(StringBuilder sb) {
+        int length = sb.length();
+        int i = 0;
+        boolean negative = length > 0 && sb.charAt(0) == '-';
+        if (negative) {
+            i++;
+        }
+        if (length - i == 0 || length - i > MAX_LONG_DIGITS) {
+            return null;
+        }
+        long value = 0;
+        for (; i < length; i++) {
+            char c = sb.charAt(i);
+            if (c < '0' || c > '9') {
+                return null;
+            }
+            value = value * 10 + (c - '0');
+        }
+        return BigDecimal.valueOf(negative ? -value : value);
+    }
+
     /**
      * Literal Strings can only be used as keys in maps, so the entry separator
      * and whitespace chars are treated as the delimiters.
@@ -903,8 +1075,9 @@ public class JsonStreamReader implements Closeable {
      * @return
      * @throws IOException
      */
-    private String readLiteralString() throws IOException, JsonEndOfStreamException {
-        StringBuilder sb = new StringBuilder();
+    private String readLiteralString(boolean isKey) throws IOException, JsonEndOfStreamException {
+        StringBuilder sb = text;
+        sb.setLength(0);
         try {
             while (true) {
                 char c = readChar();
@@ -920,15 +1093,14 @@ public class JsonStreamReader implements Closeable {
         } catch (JsonEndOfStreamException eof) {
             // ignore, just return what we have.
         }
-        return sb.toString();
+        return isKey ? toKey(sb) : sb.toString();
     }
 
     private char readChar() throws IOException, JsonEndOfStreamException {
-        int i = reader.read();
-
-        if (i == -1) {
+        if (position >= limit && !fill()) {
             throw new JsonEndOfStreamException("End of stream unexpectedly reached.");
         }
+        char c = buffer[position++];
 
         charNum++;
 
@@ -941,8 +1113,6 @@ public class JsonStreamReader implements Closeable {
             throw new JsonStreamParseException("Input too long.");
         }
 
-        char c = (char) i;
-
         if (c == '\n') {
             prevColNum = colNum;
             lineNum++;
@@ -954,8 +1124,26 @@ public class JsonStreamReader implements Closeable {
         return c;
     }
 
+    /**
+     * Refill the buffer, keeping the last characters read so that they can still be unread.
+     *
+     * @return false at the end of the stream
+     */
+    private boolean fill() throws IOException {
+        int keep = Math.min(PUSHBACK, limit);
+        System.arraycopy(buffer, limit - keep, buffer, 0, keep);
+        position = keep;
+        limit = keep;
+        int read = reader.read(buffer, keep, buffer.length - keep);
+        if (read <= 0) {
+            return false;
+        }
+        limit += read;
+        return true;
+    }
+
     private void unreadChar(char c) throws IOException {
-        reader.unread(c);
+        buffer[--position] = c;
         charNum--;
         if (c == '\n') {
             colNum = prevColNum;
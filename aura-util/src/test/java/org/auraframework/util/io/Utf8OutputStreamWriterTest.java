@@ -0,0 +1,114 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.io;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+
+import org.auraframework.util.Utf8OutputStreamWriter;
+import org.junit.Test;
+
+import com.google.common.base.Charsets;
+
+/**
+ * Test cases for the Utf8OutputStreamWriter
+ */
+public class Utf8OutputStreamWriterTest {
+
+    private static final String MIXED = "abc \u00e9\u00fc \u4e2d\u6587 \ud83d\ude00 \ud800x \udc00 end\ud83d";
+
+    private static byte[] expected(String value) throws IOException {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new OutputStreamWriter(baos, Charsets.UTF_8)) {
+            writer.write(value);
+        }
+        return baos.toByteArray();
+    }
+
+    @Test
+    public void testMatchesOutputStreamWriter() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+            writer.write(MIXED);
+        }
+        assertArrayEquals(expected(MIXED), baos.toByteArray());
+    }
+
+    @Test
+    public void testSurrogatePairSplitAcrossWrites() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+            writer.append('\ud83d');
+            writer.flush();
+            writer.append(new StringBuilder("\ude00"));
+        }
+        assertEquals("\ud83d\ude00", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void testLargeOutputCrossesBuffer() throws Exception {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            sb.append(MIXED);
+        }
+        String value = sb.toString();
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Writer writer = new Utf8OutputStreamWriter(baos)) {
+            writer.write(value.toCharArray());
+        }
+        assertArrayEquals(expected(value), baos.toByteArray());
+    }
+
+    @Test
+    public void testWriteBytes() throws Exception {
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        try (Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(baos)) {
+            writer.write("{");
+            writer.writeBytes("\"descriptor\"".getBytes(Charsets.UTF_8));
+            writer.write(":\"\u00e9\"}");
+        }
+        assertEquals("{\"descriptor\":\"\u00e9\"}", new String(baos.toByteArray(), Charsets.UTF_8));
+    }
+
+    @Test
+    public void testFinishLeavesStreamOpen() throws Exception {
+        final boolean[] closed = { false };
+        ByteArrayOutputStream baos = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        Utf8OutputStreamWriter writer = new Utf8OutputStreamWriter(baos);
+        writer.write("done");
+        writer.finish();
+
+        assertEquals("done", new String(baos.toByteArray(), Charsets.UTF_8));
+        assertEquals(false, closed[0]);
+        try {
+            writer.write("more");
+            fail("Expected writes after finish to fail");
+        } catch (IOException expected) {
+            // expected
+        }
+    }
+}
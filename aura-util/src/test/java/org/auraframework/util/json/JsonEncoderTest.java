@@ -0,0 +1,130 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.util.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.util.AuraTextUtil;
+import org.auraframework.util.json.Json.ApplicationKey;
+import org.auraframework.util.test.util.UnitTestCase;
+import org.json.JSONObject;
+import org.junit.Test;
+
+/**
+ * Checks that the single pass string escaping of {@link JsonEncoder} produces the same output as the escaping it
+ * replaced, and that streaming to bytes produces the same output as writing to chars.
+ */
+public class JsonEncoderTest extends UnitTestCase {
+
+    private static String expected(String value) {
+        return JSONObject.quote(AuraTextUtil.escapeForJSONString(value));
+    }
+
+    private static String actual(String value) throws IOException {
+        StringBuilder out = new StringBuilder();
+        JsonEncoder.writeQuoted(out, value);
+        return out.toString();
+    }
+
+    private static void collect(File file, List<File> files) {
+        File[] children = file.listFiles();
+        if (children == null) {
+            files.add(file);
+            return;
+        }
+        for (File child : children) {
+            collect(child, files);
+        }
+    }
+
+    @Test
+    public void testWriteQuotedMatchesPreviousEscaping() throws Exception {
+        String[] values = {
+                "", "plain ascii", "quote \" and backslash \\", "</script>", "<\u0000/script>", "a\u0000\u0000b",
+                "line\u2028separator", "paragraph\u2029separator", "<\u2028/", "\b\t\n\f\r", "\u0001\u001f",
+                "\u007f\u0080\u009f\u00a0", "\u2000\u20ac\u2100", "\u901f\u3044", "\ud83d\ude00", "/", "<", "<</"
+        };
+        for (String value : values) {
+            assertEquals(expected(value), actual(value));
+        }
+    }
+
+    /**
+     * Real component sources are the largest strings we serialize, compare on all of the test data.
+     */
+    @Test
+    public void testWriteQuotedMatchesPreviousEscapingOnSources() throws Exception {
+        List<File> files = new ArrayList<>();
+        collect(getResourceFile("/testdata"), files);
+        assertFalse("no test data found", files.isEmpty());
+
+        for (File file : files) {
+            String source = new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+            assertEquals(file.getPath(), expected(source), actual(source));
+        }
+    }
+
+    @Test
+    public void testWriteStringQuotesUnescapedString() throws Exception {
+        StringBuilder out = new StringBuilder();
+        new JsonEncoder(out, false).writeString("nothing to escape here");
+
+        assertEquals("\"nothing to escape here\"", out.toString());
+    }
+
+    @Test
+    public void testJsonStreamMatchesStringOutput() throws Exception {
+        Map<Object, Object> attributes = new LinkedHashMap<>();
+        attributes.put("value", "caf\u00e9 \u4e2d\u6587 \ud83d\ude00 </script>");
+        attributes.put("not a common key", Arrays.asList(1, true, null, "x"));
+        Map<Object, Object> map = new LinkedHashMap<>();
+        map.put("descriptor", "markup://aura:text");
+        map.put(ApplicationKey.ATTRIBUTES, attributes);
+        map.put("\u00fcber", "key that needs encoding");
+        JsonSerializationContext context = new DefaultJsonSerializationContext(false, true);
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonEncoder json = JsonEncoder.createJsonStream(bytes, context);
+        json.writeValue(map);
+        json.close();
+
+        assertEquals(JsonEncoder.serialize(map, context), new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void testJsonStreamCapturesCommonKeys() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JsonEncoder json = JsonEncoder.createJsonStream(bytes, new DefaultJsonSerializationContext(false, true));
+        json.writeMapBegin();
+        json.startCapturing();
+        json.writeMapEntry("descriptor", "d");
+        String captured = json.stopCapturing();
+        json.writeMapEnd();
+        json.close();
+
+        assertEquals("\"descriptor\":\"d\"", captured);
+        assertEquals("{\"descriptor\":\"d\"}", new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+}
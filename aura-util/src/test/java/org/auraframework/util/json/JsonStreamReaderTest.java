@@ -765,6 +765,58 @@ public class JsonStreamReaderTest {
         assertEquals(1.2, ((BigDecimal) parseAndRetrieve("+1.2")).doubleValue(), DEFAULT_DELTA);
     }
 
+    /**
+     * Integral numbers are parsed without going through BigDecimal's string parsing, make sure they come out the
+     * same, including those too long for a long.
+     */
+    @Test
+    public void testReadIntegralNumbers() throws IOException {
+        String[] numbers = { "0", "-0", "007", "-1", "42", "999999999999999999", "-999999999999999999",
+                "9223372036854775807", "-9223372036854775808", "12345678901234567890123" };
+        for (String number : numbers) {
+            assertEquals(number, new BigDecimal(number), parseAndRetrieve(number));
+        }
+    }
+
+    /**
+     * Tokens straddling the read buffer must come out whole.
+     */
+    @Test
+    public void testReadAcrossBufferBoundaries() throws IOException {
+        StringBuilder json = new StringBuilder("[");
+        List<Object> expected = new ArrayList<>();
+        for (int i = 0; i < 5000; i++) {
+            json.append("/* c */\"s").append(i).append("\\n\",").append(i).append(",");
+            expected.add("s" + i + "\n");
+            expected.add(new BigDecimal(i));
+        }
+        json.append("true]");
+        expected.add(true);
+
+        jsonStreamReader = new JsonStreamReader(json.toString());
+        jsonStreamReader.next();
+        assertEquals(expected, jsonStreamReader.getList());
+    }
+
+    /**
+     * Repeated keys share a single String instance.
+     */
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testRepeatedKeysAreShared() throws IOException {
+        jsonStreamReader = new JsonStreamReader("[{\"someKey\":1,other:2},{\"someKey\":3,other:4}]");
+        jsonStreamReader.next();
+        List<Object> list = jsonStreamReader.getList();
+        List<String> first = new ArrayList<>(((Map<String, Object>) list.get(0)).keySet());
+        List<String> second = new ArrayList<>(((Map<String, Object>) list.get(1)).keySet());
+        Collections.sort(first);
+        Collections.sort(second);
+        assertEquals(Arrays.asList("other", "someKey"), first);
+        for (int i = 0; i < first.size(); i++) {
+            assertTrue(first.get(i) == second.get(i));
+        }
+    }
+
     /**
      * Test to cover JsonStreamReader.readObject(),
      * JsonStreamReader.readArray(), and JsonStreamReader.getHandlerProvider()
@@ -17,6 +17,7 @@
 package org.auraframework.adapter;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Set;
 
 import javax.servlet.http.HttpServletRequest;
@@ -25,6 +26,7 @@ import javax.servlet.http.HttpServletResponse;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
 
 public interface AppJsUtilAdapter {
 
@@ -54,4 +56,28 @@ public interface AppJsUtilAdapter {
      * @return a dependency set
      */
     Set<DefDescriptor<?>> getPartDependencies(Set<DefDescriptor<?>> dependencies, DefDescriptor<? extends BaseComponentDef> appDesc, int partIndex) throws IOException;
+
+    /**
+     * Split the full dependencies of an app into a fixed number of chunks.
+     *
+     * Chunk 0 holds the same framework namespaces as part 0, every other namespace is assigned to one of the
+     * remaining chunks by a stable hash of its name, so that a change in one namespace only changes one chunk.
+     *
+     * @param dependencies the dependency set to split
+     * @param appDesc descriptor of the app
+     * @param chunkCount the number of chunks, at least 2
+     * @return the ordered list of chunks, or null if there is nothing to split
+     */
+    List<Set<DefDescriptor<?>>> getChunks(Set<DefDescriptor<?>> dependencies, DefDescriptor<? extends BaseComponentDef> appDesc, int chunkCount);
+
+    /**
+     * Compute a content hash for a chunk of dependencies.
+     *
+     * The hash only depends on the descriptors in the chunk and their own hashes, so it is stable across
+     * apps and deploys as long as the chunk content does not change.
+     *
+     * @param chunk the chunk to hash
+     * @return a hex encoded hash
+     */
+    String getChunkHash(Set<DefDescriptor<?>> chunk) throws QuickFixException;
 }
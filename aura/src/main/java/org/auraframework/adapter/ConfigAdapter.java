@@ -208,6 +208,32 @@ public interface ConfigAdapter extends AuraAdapter {
      */
     boolean getXHRExclusivity();
 
+    /**
+     * @return number of worker threads used to run concurrent server actions of a request in parallel,
+     *         0 to run all actions serially on the request thread. Actions also run serially unless the
+     *         context and logging adapters support attaching their contexts to other threads.
+     */
+    default int getConcurrentActionThreadCount() {
+        return 0;
+    }
+
+    /**
+     * @return number of content addressed chunks app.js is split into, or less than 2 to keep the
+     *         single appcore.js / app.js split
+     */
+    default int getAppJsChunkCount() {
+        return 0;
+    }
+
+    /**
+     * @return number of worker threads used to render the style defs of app.css in parallel,
+     *         0 to render them serially on the request thread. They are also rendered serially unless
+     *         the context adapter supports attaching contexts to other threads.
+     */
+    default int getStyleWriterThreadCount() {
+        return 0;
+    }
+
     boolean cdnEnabled();
 
     /**
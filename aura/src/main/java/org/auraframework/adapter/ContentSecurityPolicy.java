@@ -136,4 +136,16 @@ public interface ContentSecurityPolicy {
 
     /** Gets the URL for reporting. */
     String getReportUrl();
+
+    /**
+     * Gets a key identifying the headers this policy produces, so that they can be built once and reused
+     * for every response with the same policy. Two policies of the same class returning the same key must
+     * produce the same headers, so a policy that changes must also change its key. A subclass inherits the
+     * key of the policy it extends only if that policy allows it, so check before relying on it.
+     *
+     * @return a key with few distinct values, or {@code null} to build the headers on every response.
+     */
+    default String getCacheKey() {
+        return null;
+    }
 }
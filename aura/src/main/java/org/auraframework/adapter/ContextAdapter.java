@@ -102,4 +102,30 @@ public interface ContextAdapter extends AuraAdapter {
      * @return the current context.
      */
     AuraContext getCurrentContext();
+
+    /**
+     * Can established contexts be attached to other threads?
+     *
+     * Features that run part of a request on other threads, such as concurrent actions, check this and keep to the
+     * request thread when it is false. An adapter returning true supports {@link #attach(AuraContext)}, and its
+     * contexts support {@link AuraContext#beginConcurrentWork()}.
+     *
+     * @return true if {@link #attach(AuraContext)} is supported.
+     */
+    default boolean isAttachSupported() {
+        return false;
+    }
+
+    /**
+     * Attach an established context to the current thread.
+     *
+     * This is used to run part of a request on a worker thread. The context is shared with the thread
+     * that established it, not copied. Attaching null detaches whatever context the thread had.
+     *
+     * This is only called when {@link #isAttachSupported()} is true.
+     *
+     * @param context the context to attach, or null.
+     */
+    default void attach(AuraContext context) {
+    }
 }
@@ -190,6 +190,18 @@ public class DefaultContentSecurityPolicy implements ContentSecurityPolicy {
         return header;
     }
 
+    /**
+     * The header value is memoized per inline setting, so that is all the headers depend on. Subclasses can
+     * change any of the sources, so they get no key unless they override this with one of their own.
+     */
+    @Override
+    public String getCacheKey() {
+        if (getClass() != DefaultContentSecurityPolicy.class) {
+            return null;
+        }
+        return nonCspInlineEnabled ? "inline" : "default";
+    }
+
     public static final String buildHeaderNormally(ContentSecurityPolicy csp) {
         CSP.PolicyBuilder builder = new CSP.PolicyBuilder();
 
@@ -28,4 +28,24 @@ public interface LoggingAdapter extends AuraAdapter {
     void release();
 
     LoggingContext getLoggingContext();
+
+    /**
+     * Can established logging contexts be attached to other threads? Parts of a request only run on other threads
+     * when this is true.
+     *
+     * @return true if {@link #attach(LoggingContext)} is supported.
+     */
+    default boolean isAttachSupported() {
+        return false;
+    }
+
+    /**
+     * Attach an established logging context to the current thread, or detach it when given null.
+     *
+     * This is only called when {@link #isAttachSupported()} is true.
+     *
+     * @param loggingContext the logging context to attach, or null.
+     */
+    default void attach(LoggingContext loggingContext) {
+    }
 }
@@ -150,6 +150,9 @@ public interface StyleAdapter extends AuraAdapter {
      * plugin, prefer to return the plugin from {@link #getRuntimePlugins()} instead. Plugins returned from this method
      * will not run during {@link StyleDef} compilation.
      * <p>
+     * When {@link ConfigAdapter#getStyleWriterThreadCount()} is positive, the {@link StyleDef}s are parsed in parallel
+     * and the same instances are used by several threads at once, so these plugins must be safe for concurrent use.
+     * <p>
      * These plugins run <em>after</em> any of the default plugins specified by Aura or by {@link #getRuntimePlugins()}.
      * <p>
      * You should include the default plugins returned from super (if you are extending the default impl) unless you
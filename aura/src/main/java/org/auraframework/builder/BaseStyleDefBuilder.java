@@ -47,6 +47,13 @@ public interface BaseStyleDefBuilder<D extends BaseStyleDef> extends DefBuilder<
      */
     BaseStyleDefBuilder<D> setTokenExpressions(Set<String> expressions);
 
+    /**
+     * Specifies the names of all tokens referenced from the token expressions.
+     * <p>
+     * In the example above these would be "color", "small" and "large". Cross references (aliases) are not followed.
+     */
+    BaseStyleDefBuilder<D> setTokenNames(Set<String> tokenNames);
+
     /**
      * tracks all properties that contain tokens to allow one to validate which are allowed to have tokens in them
      */
@@ -0,0 +1,85 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.css;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.auraframework.def.BaseStyleDef;
+import org.auraframework.def.DefDescriptor;
+
+/**
+ * An index from token names to the style defs referencing them.
+ * <p>
+ * Style defs are indexed by the token names recorded when they were compiled (see
+ * {@link BaseStyleDef#getTokenNames()}), so when a token changes only the output of the style defs depending on it has
+ * to be rendered again.
+ */
+public final class StyleTokenIndex {
+    private final Map<String, Set<DefDescriptor<? extends BaseStyleDef>>> dependents = new ConcurrentHashMap<>();
+
+    /**
+     * Records the tokens referenced by the given style def.
+     *
+     * @param def The style def.
+     * @return Whether the token names of the style def are known.
+     */
+    public boolean record(BaseStyleDef def) {
+        Set<String> tokenNames = def.getTokenNames();
+        if (tokenNames == null) {
+            return false;
+        }
+        for (String tokenName : tokenNames) {
+            dependents.computeIfAbsent(tokenName, k -> ConcurrentHashMap.newKeySet()).add(def.getDescriptor());
+        }
+        return true;
+    }
+
+    /**
+     * Gets the style defs referencing any of the given tokens.
+     *
+     * @param tokenNames The token names.
+     * @return The descriptors of the recorded style defs referencing the tokens.
+     */
+    public Set<DefDescriptor<? extends BaseStyleDef>> getDependents(Set<String> tokenNames) {
+        Set<DefDescriptor<? extends BaseStyleDef>> found = new HashSet<>();
+        for (String tokenName : tokenNames) {
+            Set<DefDescriptor<? extends BaseStyleDef>> styles = dependents.get(tokenName);
+            if (styles != null) {
+                found.addAll(styles);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Removes the style defs referencing any of the given tokens, which will be recorded again when next rendered.
+     *
+     * @param tokenNames The token names.
+     * @return The descriptors of the removed style defs.
+     */
+    public Set<DefDescriptor<? extends BaseStyleDef>> removeDependents(Set<String> tokenNames) {
+        Set<DefDescriptor<? extends BaseStyleDef>> removed = getDependents(tokenNames);
+        if (!removed.isEmpty()) {
+            for (Set<DefDescriptor<? extends BaseStyleDef>> styles : dependents.values()) {
+                styles.removeAll(removed);
+            }
+        }
+        return removed;
+    }
+}
@@ -138,4 +138,15 @@ public interface TokenCache extends Iterable<DefDescriptor<TokensDef>> {
      * @throws QuickFixException If there is a problem getting the uid for a TokensDef.
      */
     Optional<String> getTokensUid() throws QuickFixException;
+
+    /**
+     * Gets a hash of the token values, i.e., each token name with the value given by {@link #getToken(String)}.
+     * <p>
+     * Unlike {@link #getTokensUid()}, this doesn't depend on which defs give the values, so it only changes when a
+     * value does and is stable across servers. This makes it suitable for cache keys of output depending on the values.
+     *
+     * @return The hash, or {@link Optional#absent()} if there are no tokens.
+     * @throws QuickFixException If one of the contained defs is invalid.
+     */
+    Optional<String> getContentHash() throws QuickFixException;
 }
@@ -55,6 +55,13 @@ public interface ActionDef extends Definition {
      */
     default boolean isCacheable() { return false; }
 
+    /**
+     * Is this action safe to run concurrently with the other actions of a request.
+     *
+     * @return {@code true} if this action may be run in parallel on a worker thread
+     */
+    default boolean isConcurrent() { return false; }
+
     /**
      * Basic type system stuff
      * 
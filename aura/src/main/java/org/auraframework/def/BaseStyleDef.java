@@ -72,8 +72,16 @@ public interface BaseStyleDef extends Definition {
     Set<String> getExpressions();
 
     /**
-     * Gets the set of token names referenced from expressions within this {@link StyleDef}. This performs a
-     * calculation so cache the result if needed more than once.
+     * Gets the set of token names referenced from expressions within this {@link StyleDef}, as recorded when it was
+     * compiled. Cross references (aliases) are not followed.
+     *
+     * @return The set of token names, or null if they weren't recorded.
+     */
+    Set<String> getTokenNames();
+
+    /**
+     * Gets the set of token names referenced from expressions within this {@link StyleDef}. This returns the names
+     * recorded when it was compiled, otherwise it performs a calculation so cache the result if needed more than once.
      *
      * @param expressionBuilder The builder bean for processing expressions.
      * @return The set of token names.
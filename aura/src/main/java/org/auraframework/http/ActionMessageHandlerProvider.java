@@ -0,0 +1,328 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.def.ActionDef;
+import org.auraframework.def.ValueDef;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.throwable.AuraRequestInputException;
+import org.auraframework.throwable.AuraRuntimeException;
+import org.auraframework.throwable.quickfix.QuickFixException;
+import org.auraframework.util.json.JsonArrayHandler;
+import org.auraframework.util.json.JsonHandlerProvider;
+import org.auraframework.util.json.JsonHandlerProviderImpl;
+import org.auraframework.util.json.JsonObjectHandler;
+import org.auraframework.util.json.JsonValidationException;
+
+/**
+ * Handler provider for action messages, {@code {"actions":[{"descriptor":..., "params":{...}}, ...]}}.
+ *
+ * The message is read straight into {@link ActionHandler}s, one per action, as the JSON stream is parsed. The
+ * definition of an action is looked up as soon as its descriptor is read, and each param is converted to the type of
+ * its parameter as it is read. The top level value is a {@link MessageHandler} when the message is an object.
+ */
+class ActionMessageHandlerProvider extends JsonHandlerProviderImpl {
+
+    private final DefinitionService definitionService;
+    private final JsonHandlerProvider actionsProvider = new ActionsProvider();
+
+    ActionMessageHandlerProvider(DefinitionService definitionService) {
+        this.definitionService = definitionService;
+    }
+
+    @Override
+    public JsonHandlerProvider getObjectEntryHandlerProvider(String key) {
+        return "actions".equals(key) ? actionsProvider : null;
+    }
+
+    @Override
+    public JsonObjectHandler getObjectHandler() {
+        return new MessageHandler();
+    }
+
+    /**
+     * The top level of the message, only the actions are kept.
+     */
+    static class MessageHandler extends JsonObjectHandler {
+        private List<ActionHandler> actions;
+
+        @Override
+        public void put(String key, Object value) {
+            if (!"actions".equals(key) || value == null) {
+                return;
+            }
+            try {
+                actions = (ActionList) value;
+            } catch (final ClassCastException cce) {
+                throw new AuraRequestInputException(cce, String.valueOf(value), "Actions must be in an array format.");
+            }
+        }
+
+        @Override
+        public Object getValue() {
+            return this;
+        }
+
+        /**
+         * @return the actions that were not dropped, or null if the message had no actions.
+         */
+        List<ActionHandler> getActions() {
+            return actions;
+        }
+    }
+
+    private class ActionsProvider extends JsonHandlerProviderImpl {
+        private final JsonHandlerProvider actionProvider = new ActionProvider();
+
+        @Override
+        public JsonHandlerProvider getArrayEntryHandlerProvider() {
+            return actionProvider;
+        }
+
+        @Override
+        public JsonArrayHandler getArrayHandler() {
+            return new ActionListHandler();
+        }
+    }
+
+    /**
+     * Actions are not nested, so the entries read after an action handler is created belong to that action.
+     */
+    private class ActionProvider extends JsonHandlerProviderImpl {
+        private ActionHandler current;
+
+        @Override
+        public JsonHandlerProvider getObjectEntryHandlerProvider(String key) {
+            return "params".equals(key) ? current.paramsProvider : null;
+        }
+
+        @Override
+        public JsonObjectHandler getObjectHandler() {
+            current = new ActionHandler(definitionService);
+            return current;
+        }
+    }
+
+    /**
+     * The params of an action, each one converted as it is read.
+     */
+    private static class ParamsHandler extends JsonObjectHandler {
+        private final ActionHandler action;
+
+        ParamsHandler(ActionHandler action) {
+            this.action = action;
+        }
+
+        @Override
+        public void put(String key, Object value) throws JsonValidationException {
+            super.put(key, action.convertParam(key, value));
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private static class ActionList extends ArrayList<ActionHandler> {
+    }
+
+    private static class ActionListHandler extends JsonArrayHandler {
+        private final ActionList actions = new ActionList();
+
+        @Override
+        public void add(Object o) {
+            if (o == null) {
+                return;
+            }
+            final ActionHandler action;
+            try {
+                action = (ActionHandler) o;
+            } catch (final ClassCastException cce) {
+                throw new AuraRequestInputException(cce, String.valueOf(o), "Action must be in an object format.");
+            }
+            if (!action.isDropped()) {
+                actions.add(action);
+            }
+        }
+
+        @Override
+        public Object getValue() {
+            return actions;
+        }
+    }
+
+    /**
+     * A single action of the message.
+     */
+    static class ActionHandler extends JsonObjectHandler {
+        private final DefinitionService definitionService;
+        private String qualifiedName;
+        private ActionDef def;
+        private boolean defNotFound;
+        private Map<String, Object> params;
+        private boolean paramsConverted;
+        private final Map<String, Exception> paramErrors = new HashMap<>();
+        private final JsonHandlerProvider paramsProvider = new JsonHandlerProviderImpl() {
+            @Override
+            public JsonObjectHandler getObjectHandler() {
+                return new ParamsHandler(ActionHandler.this);
+            }
+        };
+        private String id;
+        private String callingDescriptor;
+        private String version;
+        private boolean storable;
+
+        ActionHandler(DefinitionService definitionService) {
+            this.definitionService = definitionService;
+        }
+
+        @SuppressWarnings("unchecked")
+        @Override
+        public void put(String key, Object value) {
+            switch (key) {
+            case "descriptor":
+                qualifiedName = asString(value, "Action descriptor must be in a valid component format.");
+                def = null;
+                defNotFound = false;
+                if (qualifiedName != null) {
+                    try {
+                        def = definitionService.getDefinition(qualifiedName, ActionDef.class);
+                    } catch (final QuickFixException qfe) {
+                        // If this fails, it means either we have incompatible versions, or the client
+                        // has been compromised, or the data is just messed up. In that case just drop
+                        // it on the floor and continue.
+                        defNotFound = true;
+                    } catch (final AuraRuntimeException are) {
+                        throw new AuraRequestInputException(are, qualifiedName,
+                                "Action descriptor must be in a valid component format.");
+                    }
+                }
+                if (def != null && params != null && !paramsConverted) {
+                    // the params came first
+                    params.replaceAll(this::convertParam);
+                    paramsConverted = true;
+                }
+                break;
+            case "params":
+                try {
+                    params = (Map<String, Object>) value;
+                } catch (final ClassCastException cce) {
+                    throw new AuraRequestInputException(cce, String.valueOf(value), "Action params must be in an object format.");
+                }
+                paramsConverted = def != null;
+                break;
+            case "id":
+                id = asString(value, "Action id must be in a String format.");
+                break;
+            case "callingDescriptor":
+                callingDescriptor = asString(value, "Action callingDescriptor must be in a String format.");
+                break;
+            case "version":
+                version = asString(value, "Action version must be in a String format.");
+                break;
+            case "storable":
+                storable = value != null;
+                break;
+            default:
+                // not part of an action
+            }
+        }
+
+        /**
+         * Convert a param to the type of the parameter with its name, once the definition is known.
+         *
+         * A value that cannot be converted is kept as it is, and the failure is kept to report when the action runs,
+         * so that bad input fails only its own action.
+         */
+        private Object convertParam(String name, Object value) {
+            if (def == null) {
+                return value;
+            }
+            for (ValueDef valueDef : def.getParameters()) {
+                if (valueDef.getName().equals(name)) {
+                    try {
+                        return valueDef.getType().valueOf(value);
+                    } catch (final Exception e) {
+                        paramErrors.put(name, e);
+                        return value;
+                    }
+                }
+            }
+            return value;
+        }
+
+        private static String asString(Object value, String expected) {
+            try {
+                return (String) value;
+            } catch (final ClassCastException cce) {
+                throw new AuraRequestInputException(cce, String.valueOf(value), expected);
+            }
+        }
+
+        @Override
+        public Object getValue() {
+            return this;
+        }
+
+        /**
+         * @return true for an action without a descriptor, or with one that could not be found.
+         */
+        boolean isDropped() {
+            return qualifiedName == null || defNotFound;
+        }
+
+        String getQualifiedName() {
+            return qualifiedName;
+        }
+
+        ActionDef getDef() {
+            return def;
+        }
+
+        /**
+         * @return the params, converted to the types of the parameters of the action.
+         */
+        Map<String, Object> getParams() {
+            return params;
+        }
+
+        /**
+         * @return the failure of each param that could not be converted, by name.
+         */
+        Map<String, Exception> getParamErrors() {
+            return paramErrors;
+        }
+
+        String getId() {
+            return id;
+        }
+
+        String getCallingDescriptor() {
+            return callingDescriptor;
+        }
+
+        String getVersion() {
+            return version;
+        }
+
+        boolean isStorable() {
+            return storable;
+        }
+    }
+}
@@ -16,18 +16,33 @@
 package org.auraframework.http;
 
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 
 import javax.inject.Inject;
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
 import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServlet;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.commons.lang3.math.NumberUtils;
+import org.auraframework.adapter.ContextAdapter;
+import org.auraframework.adapter.LoggingAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.service.LoggingService;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.LoggingContext;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.web.context.support.SpringBeanAutowiringSupport;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+
 @SuppressWarnings("serial")
 public abstract class AuraBaseServlet extends HttpServlet {
     public static final String AURA_PREFIX = "aura.";
@@ -47,12 +62,176 @@ public abstract class AuraBaseServlet extends HttpServlet {
     public static final long LONG_EXPIRE = 45 * SHORT_EXPIRE;
     public static final String UTF_ENCODING = "UTF-8";
 
+    /**
+     * Servlet init-param with the number of worker threads for async requests. Requests are served on the container
+     * thread, as before, unless it is positive and the context and logging adapters can attach their contexts to
+     * other threads.
+     */
+    public static final String ASYNC_THREADS_PARAM = "aura.asyncThreads";
+
+    /**
+     * Servlet init-param with the async request timeout in milliseconds. The default of zero means no timeout, the
+     * same as a synchronous request.
+     */
+    public static final String ASYNC_TIMEOUT_PARAM = "aura.asyncTimeout";
+
+    /**
+     * Request attribute set by filters that read or rewrite the response after the chain returns, which keeps the
+     * request synchronous so that the response is complete by then.
+     */
+    public static final String SYNCHRONOUS_ATTRIBUTE = AURA_PREFIX + "synchronous";
+
     protected ServletUtilAdapter servletUtilAdapter;
+    private ContextAdapter contextAdapter;
+    private LoggingAdapter loggingAdapter;
+    private ExecutorService asyncExecutor;
+    private long asyncTimeout;
 
     @Override
     public void init(ServletConfig config) throws ServletException {
         super.init(config);
         processInjection(config);
+        int asyncThreads = NumberUtils.toInt(config.getInitParameter(ASYNC_THREADS_PARAM), 0);
+        if (asyncThreads > 0) {
+            asyncTimeout = NumberUtils.toLong(config.getInitParameter(ASYNC_TIMEOUT_PARAM), 0);
+            asyncExecutor = Executors.newFixedThreadPool(asyncThreads, new ThreadFactoryBuilder()
+                    .setNameFormat(config.getServletName() + "-async-%d").setDaemon(true).build());
+        }
+    }
+
+    @Override
+    public void destroy() {
+        if (asyncExecutor != null) {
+            asyncExecutor.shutdown();
+        }
+        super.destroy();
+    }
+
+    @Override
+    protected void service(HttpServletRequest request, HttpServletResponse response)
+            throws ServletException, IOException {
+        if (!serviceAsync(request, response)) {
+            super.service(request, response);
+        }
+    }
+
+    /**
+     * Hand the request over to a worker thread, if async processing is enabled and possible, which needs adapters
+     * that support attaching contexts to other threads.
+     *
+     * The request's aura and logging contexts move to the worker, and are detached from the container thread so
+     * that the context filter finds nothing to release on the way out. The worker then does what the filter would
+     * have done: errors are reported through the servlet util adapter, and the status is logged before the
+     * contexts are released.
+     *
+     * @return true if the request will be completed asynchronously.
+     */
+    private boolean serviceAsync(HttpServletRequest request, HttpServletResponse response) {
+        ExecutorService executor = asyncExecutor;
+        if (executor == null || contextAdapter == null || !contextAdapter.isAttachSupported()
+                || (loggingAdapter != null && !loggingAdapter.isAttachSupported())
+                || !request.isAsyncSupported() || request.isAsyncStarted()
+                || request.getAttribute(SYNCHRONOUS_ATTRIBUTE) != null
+                || (request.getDispatcherType() != DispatcherType.REQUEST
+                        && request.getDispatcherType() != DispatcherType.FORWARD)) {
+            return false;
+        }
+        AuraContext context = contextAdapter.getCurrentContext();
+        if (context == null) {
+            return false;
+        }
+        LoggingContext loggingContext = loggingAdapter != null ? loggingAdapter.getLoggingContext() : null;
+        AsyncContext asyncContext = request.startAsync(request, response);
+        FencedResponseWrapper fencedResponse = new FencedResponseWrapper(response);
+        asyncContext.setTimeout(asyncTimeout);
+        asyncContext.addListener(new FencingListener(fencedResponse));
+
+        contextAdapter.attach(null);
+        if (loggingAdapter != null) {
+            loggingAdapter.attach(null);
+        }
+        Runnable work = () -> runAsync(asyncContext, request, fencedResponse, context, loggingContext);
+        try {
+            executor.execute(work);
+        } catch (RejectedExecutionException ree) {
+            // shutting down, finish here.
+            work.run();
+        }
+        return true;
+    }
+
+    private void runAsync(AsyncContext asyncContext, HttpServletRequest request, FencedResponseWrapper response,
+            AuraContext context, LoggingContext loggingContext) {
+        contextAdapter.attach(context);
+        if (loggingAdapter != null) {
+            loggingAdapter.attach(loggingContext);
+        }
+        try {
+            super.service(request, response);
+        } catch (Throwable t) {
+            try {
+                servletUtilAdapter.handleServletException(t, false, context, request, response, false);
+                response.flushBuffer();
+            } catch (Throwable ignored) {
+                // something really bad happened, and there is no filter left to fall back to.
+                if (!response.isCommitted()) {
+                    response.setStatus(HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+                }
+            }
+        } finally {
+            try {
+                if (loggingContext != null) {
+                    loggingContext.setValue(LoggingService.STATUS, String.valueOf(response.getStatus()));
+                    loggingContext.logRequestValues();
+                }
+            } finally {
+                contextAdapter.release();
+                if (loggingAdapter != null) {
+                    loggingAdapter.release();
+                }
+                try {
+                    if (response.fence(0)) {
+                        asyncContext.complete();
+                    }
+                } catch (IOException | IllegalStateException e) {
+                    // the container gave up on the request.
+                }
+            }
+        }
+    }
+
+    /**
+     * Fences the worker off the response when the container ends the request before it is done, answering 503 if
+     * it ran past the async timeout.
+     */
+    private static class FencingListener implements AsyncListener {
+        private final FencedResponseWrapper response;
+
+        FencingListener(FencedResponseWrapper response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) throws IOException {
+            if (response.fence(HttpServletResponse.SC_SERVICE_UNAVAILABLE)) {
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(AsyncEvent event) throws IOException {
+            if (response.fence(0)) {
+                event.getAsyncContext().complete();
+            }
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+        }
     }
     
     public void processInjection(ServletConfig config) {
@@ -69,4 +248,16 @@ public abstract class AuraBaseServlet extends HttpServlet {
     public void setServletUtilAdapter(ServletUtilAdapter servletUtilAdapter) {
         this.servletUtilAdapter = servletUtilAdapter;
     }
+
+    @Inject
+    @Lazy
+    public void setContextAdapter(ContextAdapter contextAdapter) {
+        this.contextAdapter = contextAdapter;
+    }
+
+    @Inject
+    @Lazy
+    public void setLoggingAdapter(LoggingAdapter loggingAdapter) {
+        this.loggingAdapter = loggingAdapter;
+    }
 }
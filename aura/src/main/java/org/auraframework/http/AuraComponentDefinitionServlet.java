@@ -27,6 +27,7 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 import javax.inject.Inject;
@@ -39,6 +40,7 @@ import org.apache.commons.lang3.LocaleUtils;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.http.HttpStatus;
 import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
@@ -49,6 +51,7 @@ import org.auraframework.def.module.ModuleDef;
 import org.auraframework.http.RequestParam.StringParam;
 import org.auraframework.instance.AuraValueProviderType;
 import org.auraframework.instance.GlobalValueProvider;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
@@ -86,6 +89,7 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
     protected ServerService serverService;
     protected ContextService contextService;
     protected ConfigAdapter configAdapter;
+    protected CachingService cachingService;
 
     @SuppressWarnings("unchecked")
     @Override
@@ -114,6 +118,21 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
     
                 updateContext(request);
 
+                // The URL is immutable for a given set of UIDs, so a previously rendered response can be replayed as is.
+                // Entries are dropped together with the definitions on source change, so a stale UID misses and
+                // falls through to the redirect below.
+                Cache<String, ComponentDefinitionResponse> responseCache = getResponseCache();
+                String responseCacheKey = null;
+                if (responseCache != null) {
+                    responseCacheKey = getResponseCacheKey(request, context, requestedDescriptors, requestedUID);
+                    ComponentDefinitionResponse cachedResponse = responseCache.getIfPresent(responseCacheKey);
+                    if (cachedResponse != null) {
+                        responseStringWriter.write(cachedResponse.payload);
+                        setCacheHeaders(response, cachedResponse.privateCache);
+                        return;
+                    }
+                }
+
                 // Thar be dragons.
                 // updating loaded in definitionService will avoid side affects of the definition's we're looking at to be affected by the application
                 // that we happen to be coming in to at this point.
@@ -225,10 +244,11 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
                     responseStringWriter.write(");");
                 }
     
-                if(containsRestrictedDefs(context, descriptors)) {
-                    servletUtilAdapter.setLongCachePrivate(response);
-                } else {
-                    servletUtilAdapter.setLongCache(response);
+                boolean privateCache = containsRestrictedDefs(context, descriptors);
+                setCacheHeaders(response, privateCache);
+
+                if (responseCacheKey != null) {
+                    responseCache.put(responseCacheKey, new ComponentDefinitionResponse(responseStringWriter.toString(), privateCache));
                 }
     
             } catch (Exception e) {
@@ -279,6 +299,54 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
         }
     }
 
+    private void setCacheHeaders(HttpServletResponse response, boolean privateCache) {
+        if (privateCache) {
+            servletUtilAdapter.setLongCachePrivate(response);
+        } else {
+            servletUtilAdapter.setLongCache(response);
+        }
+    }
+
+    private Cache<String, ComponentDefinitionResponse> getResponseCache() {
+        if (cachingService == null) {
+            return null;
+        }
+        return cachingService.getComponentDefinitionResponseCache();
+    }
+
+    /**
+     * Build the key for the response cache.
+     *
+     * Everything that can change the rendered payload or its cache headers must be part of the key. That is the
+     * request parameters that make up the URL (including customizations from {@link #generateAdditionalParameters})
+     * as well as the context state derived from the request rather than from the URL.
+     */
+    protected String getResponseCacheKey(HttpServletRequest request, AuraContext context, List<String> requestedDescriptors,
+            String requestedUID) {
+        List<String> sortedDescriptors = new ArrayList<>(requestedDescriptors);
+        sortedDescriptors.sort(null);
+
+        StringBuilder key = new StringBuilder(128);
+        key.append(appDescriptorParam.get(request));
+        key.append('|').append(StringUtils.join(sortedDescriptors, ','));
+        key.append('|').append(requestedUID);
+        key.append('|').append(localeParam.get(request));
+        key.append('|').append(context.getRequestedLocales());
+        key.append('|').append(styleParam.get(request));
+        key.append('|').append(formFactorParam.get(request));
+        key.append('|').append(context.getClient().getType());
+        key.append('|').append(configAdapter.isLockerServiceEnabled());
+        key.append('|').append(configAdapter.isCssVarTransformEnabled());
+        key.append('|').append(context.getMode());
+        key.append('|').append(context.useCompatSource());
+        key.append('|').append(new TreeSet<>(context.getRestrictedNamespaces()));
+        if (context.validateGlobal("srcdoc")) {
+            key.append('|').append(context.getGlobal("srcdoc"));
+        }
+        key.append('|').append(generateAdditionalParameters(request));
+        return key.toString();
+    }
+
     protected StringBuilder getHost(HttpServletRequest request) {
         StringBuilder sb = new StringBuilder("http");
         if (configAdapter.isSecureRequest(request)) {
@@ -511,4 +579,9 @@ public class AuraComponentDefinitionServlet extends AuraBaseServlet {
     public void setConfigAdapter(ConfigAdapter configAdapter) {
         this.configAdapter = configAdapter;
     }
+
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
 }
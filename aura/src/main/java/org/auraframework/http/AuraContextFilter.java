@@ -39,15 +39,16 @@ import org.apache.http.HttpStatus;
 import org.auraframework.AuraDeprecated;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.cache.Cache;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
 import org.auraframework.def.DefDescriptor;
-import org.auraframework.def.DefDescriptor.DefType;
 import org.auraframework.http.RequestParam.BooleanParam;
 import org.auraframework.http.RequestParam.EnumParam;
 import org.auraframework.http.RequestParam.InvalidParamException;
 import org.auraframework.http.RequestParam.StringParam;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
 import org.auraframework.service.DefinitionService;
 import org.auraframework.service.LoggingService;
@@ -65,7 +66,6 @@ import org.auraframework.util.json.JsonReader;
 import org.springframework.web.context.support.SpringBeanAutowiringSupport;
 
 import com.google.common.annotations.VisibleForTesting;
-import com.google.common.collect.Maps;
 
 @SuppressWarnings("deprecation")
 public class AuraContextFilter implements Filter {
@@ -96,6 +96,7 @@ public class AuraContextFilter implements Filter {
     protected SerializationService serializationService;
     private BrowserCompatibilityService browserCompatibilityService;
     protected ServletUtilAdapter servletUtilAdapter;
+    private CachingService cachingService;
 
     @Inject
     public void setContextService(ContextService service) {
@@ -139,6 +140,11 @@ public class AuraContextFilter implements Filter {
         this.testFilter = testFilter;
     }
 
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
+
     @Inject
     public void setServletUtilAdapter(ServletUtilAdapter servletUtilAdapter) {
         this.servletUtilAdapter = servletUtilAdapter;
@@ -245,7 +251,8 @@ public class AuraContextFilter implements Filter {
         Format f = getFormat(request);
         Authentication a = access.get(request, Authentication.AUTHENTICATED);
 
-        Map<String, Object> configMap = getConfigMap(request);
+        ParsedContextConfig parsedConfig = getParsedConfig(request);
+        Map<String, Object> configMap = parsedConfig != null ? parsedConfig.configMap : null;
         Mode m = getMode(request, configMap);
 
         DefDescriptor<? extends BaseComponentDef> appDesc = getAppParam(request, configMap);
@@ -261,14 +268,16 @@ public class AuraContextFilter implements Filter {
         context.setNum(num.get(request));
         context.setRequestedLocales(Collections.list(request.getLocales()));
         
-        context.setClient(new Client(request.getHeader(HttpHeaders.USER_AGENT)));
+        context.setClient(Client.get(request.getHeader(HttpHeaders.USER_AGENT)));
 
         context.setForceCompat(forceCompat(request, m));
         context.setUseCompatSource(context.forceCompat() || useCompatSource(request, configMap, m));
 
         context.setActionPublicCacheKey(getActionPublicCacheKey(configMap));
         if (configMap != null) {
-            getLoaded(context, configMap.get("loaded"));
+            if (configMap.get("loaded") instanceof Map) {
+                context.setClientLoaded(parsedConfig.getLoaded(definitionService));
+            }
             @SuppressWarnings("unchecked")
             List<Object> dns = (List<Object>) configMap.get("dn");
             if (dns != null) {
@@ -328,63 +337,50 @@ public class AuraContextFilter implements Filter {
         return f;
     }
 
-    /**
-     * Pull in the map of loaded defDescriptors and uids from the context.
-     */
-    private void getLoaded(AuraContext context, Object loadedEntry) {
-        if (loadedEntry == null || !(loadedEntry instanceof Map)) {
-            //
-            // If someone gives us bogus input, just ignore it.
-            //
-            return;
-        }
-        @SuppressWarnings("unchecked")
-        Map<String, String> loaded = (Map<String, String>) loadedEntry;
-        Map<DefDescriptor<?>, String> clientLoaded = Maps.newHashMapWithExpectedSize(loaded.size() * 3/2);
-
-        for (Map.Entry<String, String> entry : loaded.entrySet()) {
-            String uid = entry.getValue();
-            if (uid != null && !uid.equals("null")) {
-                String key = entry.getKey();
-                int posn = key.indexOf("@");
-                if (posn > 0) {
-                    String typeStr = key.substring(0, posn);
-                    String defStr = key.substring(posn + 1);
-                    DefType type = null;
-                    try {
-                        type = DefType.valueOf(typeStr);
-                    } catch (Throwable t) {
-                        // ignore unknown types...
-                        // We really should log these at a level where we can
-                        // see them, but, well, we don't have that now.
-                    }
-                    if (type != null) {
-                        DefDescriptor<?> ld = definitionService.getDefDescriptor(defStr, type.getPrimaryInterface());
-                        clientLoaded.put(ld, uid);
-                    }
-                }
-            }
-        }
-        context.setClientLoaded(clientLoaded);
+    private Map<String, Object> getConfigMap(HttpServletRequest request) {
+        ParsedContextConfig parsed = getParsedConfig(request);
+        return parsed != null ? parsed.configMap : null;
     }
 
+    /**
+     * Parse the aura.context parameter, or find it already parsed.
+     *
+     * Requests of a given app version send the same context over and over, so parsed contexts are cached by their
+     * raw string. Invalid contexts are not cached.
+     */
     @SuppressWarnings("unchecked")
-    private Map<String, Object> getConfigMap(HttpServletRequest request) {
-        Map<String, Object> configMap = null;
+    private ParsedContextConfig getParsedConfig(HttpServletRequest request) {
         String config = contextConfig.get(request);
-        if (!StringUtils.isBlank(config)) {
-            if (config.startsWith(AuraTextUtil.urlencode("{"))) {
-                // Decode encoded context json. Serialized AuraContext json always starts with "{"
-                config = AuraTextUtil.urldecode(config);
-            }
-            try {
-                configMap = (Map<String, Object>) new JsonReader().read(config);
-            } catch (Throwable throwable) {
-                //config map was invalid. log the bad json and move on. Callers are protected against null.
-                loggingService.warn("aura.config was invalid JSON:" + config, throwable);
-            }
+        if (StringUtils.isBlank(config)) {
+            return null;
+        }
+        Cache<String, ParsedContextConfig> cache = cachingService != null ? cachingService.getContextConfigCache()
+                : null;
+        ParsedContextConfig parsed = cache != null ? cache.getIfPresent(config) : null;
+        if (parsed != null) {
+            return parsed;
+        }
+        String decoded = config;
+        if (decoded.startsWith(AuraTextUtil.urlencode("{"))) {
+            // Decode encoded context json. Serialized AuraContext json always starts with "{"
+            decoded = AuraTextUtil.urldecode(decoded);
+        }
+        Map<String, Object> configMap;
+        try {
+            configMap = (Map<String, Object>) new JsonReader().read(decoded);
+        } catch (Throwable throwable) {
+            //config map was invalid. log the bad json and move on. Callers are protected against null.
+            loggingService.warn("aura.config was invalid JSON:" + decoded, throwable);
+            return null;
+        }
+        if (configMap == null) {
+            return null;
+        }
+        parsed = new ParsedContextConfig(configMap);
+        if (cache != null) {
+            cache.put(config, parsed);
         }
-        return configMap;
+        return parsed;
     }
 
     /**
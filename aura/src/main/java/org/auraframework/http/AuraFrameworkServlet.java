@@ -73,7 +73,8 @@ public class AuraFrameworkServlet extends AuraBaseServlet {
 
         //
         // Careful with race conditions here, we should only call regenerateAuraJS
-        // _before_ we get the nonce.
+        // _before_ we get the nonce. It does not block once a framework version has
+        // been served, changes are picked up in the background.
         //
         configAdapter.regenerateAuraJS();
         // framework uid is combination of aura js and resources uid
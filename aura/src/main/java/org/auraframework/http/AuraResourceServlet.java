@@ -16,20 +16,32 @@
 package org.auraframework.http;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 
 import javax.inject.Inject;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 
+import org.apache.http.HttpHeaders;
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.cache.Cache;
+import org.auraframework.def.BaseComponentDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.CachingService;
 import org.auraframework.service.ContextService;
+import org.auraframework.service.LoggingService;
 import org.auraframework.system.AuraContext;
 import org.auraframework.system.AuraResource;
 
+import com.google.common.base.Joiner;
 import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.hash.Hashing;
 
 /**
  * The aura resource servlet.
@@ -48,9 +60,22 @@ public class AuraResourceServlet extends AuraBaseServlet {
     private static final long serialVersionUID = -3642790050433142397L;
     public static final String ORIG_REQUEST_URI = "aura.origRequestURI";
 
+    /**
+     * Resources that can be revalidated with an ETag. Only responses written with cache headers ever get a 304, so
+     * resources that are always sent with no-cache simply never match.
+     */
+    private static final Set<String> ETAG_RESOURCES = ImmutableSet.of("app.css", "app.js", "appcore.js", "appchunk.js", "inline.js",
+            "bootstrap.js");
+
+    private static final String ETAG_HITS = "resourceETagHits";
+    private static final String ETAG_CHECKS = "resourceETagChecks";
+
     private Map<String, AuraResource> nameToResource;
 
     private ContextService contextService;
+    private ConfigAdapter configAdapter;
+    private LoggingService loggingService;
+    private CachingService cachingService;
 
     protected AuraResource findResource(String fullName) {
         if (fullName == null) {
@@ -92,16 +117,135 @@ public class AuraResourceServlet extends AuraBaseServlet {
         if (servletUtilAdapter.resourceServletGetPre(request, response, resource)) {
             return;
         }
+        Cache<String, Long> eTagCache = getETagCache(resource);
+        String eTag = null;
+        if (eTagCache != null) {
+            eTag = getETag(request, context);
+            boolean notModified = isNotModified(request, eTag, eTagCache);
+            loggingService.incrementNum(ETAG_CHECKS);
+            if (notModified) {
+                loggingService.incrementNum(ETAG_HITS);
+                response.setHeader(HttpHeaders.ETAG, eTag);
+                response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+                return;
+            }
+            response.setHeader(HttpHeaders.ETAG, eTag);
+        }
         resource.setContentType(response);
 
         resource.write(request, response, context);
+
+        if (eTag != null) {
+            recordETag(response, eTag, eTagCache);
+        }
     }
-    
+
+    private Cache<String, Long> getETagCache(AuraResource resource) {
+        if (cachingService == null || !ETAG_RESOURCES.contains(resource.getName())) {
+            return null;
+        }
+        return cachingService.getResourceETagCache();
+    }
+
+    /**
+     * Compute a strong ETag for a resource request.
+     *
+     * The URL carries the full context the resource is written for, to which we add what the server may vary
+     * without the URL changing: the client type, the framework nonce and the app UID. This must stay cheap, it is
+     * computed before any definition is loaded.
+     */
+    protected String getETag(HttpServletRequest request, AuraContext context) {
+        DefDescriptor<? extends BaseComponentDef> app = context.getApplicationDescriptor();
+        String key = Joiner.on('|').useForNull("").join(
+                request.getAttribute(ORIG_REQUEST_URI),
+                request.getQueryString(),
+                context.getClient().getType(),
+                configAdapter.getAuraFrameworkNonce(),
+                context.getUid(app));
+        //note per rfc7232 etags are a opaque quoted string
+        return '"' + Hashing.sha256().hashString(key, StandardCharsets.UTF_8).toString() + '"';
+    }
+
+    /**
+     * Check If-None-Match against an ETag the server vouched for.
+     *
+     * Matching the header is not enough: the UID in the URL is only what the client claims. An ETag is only
+     * recorded once a response for it was written with cache headers, and all of them are dropped on source
+     * change, so a recorded ETag means the content the client holds is still current.
+     */
+    private static boolean isNotModified(HttpServletRequest request, String eTag, Cache<String, Long> eTagCache) {
+        String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
+        if (ifNoneMatch == null || !matches(ifNoneMatch, eTag)) {
+            return false;
+        }
+        Long expiresAt = eTagCache.getIfPresent(eTag);
+        if (expiresAt == null) {
+            return false;
+        }
+        if (expiresAt.longValue() <= System.currentTimeMillis()) {
+            eTagCache.invalidate(eTag);
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Remember an ETag if the resource was written successfully with cache headers, for as long as it may be cached.
+     */
+    private static void recordETag(HttpServletResponse response, String eTag, Cache<String, Long> eTagCache) {
+        if (response.getStatus() != HttpServletResponse.SC_OK) {
+            return;
+        }
+        String cacheControl = response.getHeader(HttpHeaders.CACHE_CONTROL);
+        if (cacheControl == null || !cacheControl.startsWith("max-age=")) {
+            return;
+        }
+        int end = cacheControl.indexOf(',');
+        long maxAge;
+        try {
+            maxAge = Long.parseLong(cacheControl.substring("max-age=".length(), end < 0 ? cacheControl.length() : end));
+        } catch (NumberFormatException nfe) {
+            return;
+        }
+        if (maxAge > 0) {
+            eTagCache.put(eTag, Long.valueOf(System.currentTimeMillis() + maxAge * 1000));
+        }
+    }
+
+
     @Inject
     public void setContextService(ContextService contextService) {
         this.contextService = contextService;
     }
 
+    @Inject
+    public void setConfigAdapter(ConfigAdapter configAdapter) {
+        this.configAdapter = configAdapter;
+    }
+
+    @Inject
+    public void setLoggingService(LoggingService loggingService) {
+        this.loggingService = loggingService;
+    }
+
+    @Inject
+    public void setCachingService(CachingService cachingService) {
+        this.cachingService = cachingService;
+    }
+
     private static Map<String, AuraResource> buildNameToResourceMap(final List<AuraResource> auraResources) {
         final Map<String, AuraResource> nameToResource = new HashMap<>(auraResources.size());
         auraResources.stream().filter(r -> r.getName() != null).forEach(r -> {
@@ -33,12 +33,12 @@ import javax.servlet.ServletConfig;
 import javax.servlet.ServletException;
 import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
 
 import org.apache.http.HttpHeaders;
 import org.auraframework.adapter.ConfigAdapter;
 import org.auraframework.adapter.ExceptionAdapter;
 import org.auraframework.adapter.ServletUtilAdapter;
-import org.auraframework.def.ActionDef;
 import org.auraframework.def.ApplicationDef;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.ComponentDef;
@@ -67,7 +67,8 @@ import org.auraframework.throwable.AuraRuntimeException;
 import org.auraframework.throwable.ClientOutOfSyncException;
 import org.auraframework.throwable.SystemErrorException;
 import org.auraframework.throwable.quickfix.QuickFixException;
-import org.auraframework.util.json.JsonReader;
+import org.auraframework.util.Utf8OutputStreamWriter;
+import org.auraframework.util.json.JsonStreamReader;
 import org.auraframework.util.json.JsonStreamReader.JsonParseException;
 
 /**
@@ -216,19 +217,25 @@ public class AuraServlet extends AuraBaseServlet {
     /**
      * Translate a string into a message.
      *
+     * The message is read in a single pass, straight into the actions, see {@link ActionMessageHandlerProvider}.
+     *
      * @param input the input from the customer (unsanitized) to read into a message.
      * @return a message, or null.
      * @throws QuickFixException if there is an error instantiating the action (not action not found).
      */
-    @SuppressWarnings("unchecked")
     public Message readMessage(String input) throws QuickFixException {
         if (input == null) {
             return null;
         }
         // this throws a json parse exception if it can't read.
-        final Map<String, List<Map<String, ?>>> message;
+        final ActionMessageHandlerProvider.MessageHandler message;
+        JsonStreamReader reader = new JsonStreamReader(new StringReader(input),
+                new ActionMessageHandlerProvider(definitionService));
         try {
-            message = (Map<String, List<Map<String, ?>>>) new JsonReader().read(new StringReader(input));
+            reader.next();
+            message = (ActionMessageHandlerProvider.MessageHandler) reader.getValue();
+        } catch (final IOException e) {
+            throw new JsonParseException(e);
         } catch(final ClassCastException cce) {
             throw new AuraRequestInputException(cce, input, "Data in a request must be a map of name-value pairs in JSON format");
         }
@@ -236,85 +243,40 @@ public class AuraServlet extends AuraBaseServlet {
         if (message == null) {
             return null;
         }
-        List<Map<String, ?>> actions = message.get("actions");
+        List<ActionMessageHandlerProvider.ActionHandler> actions = message.getActions();
         final List<Action> actionList;
         if (actions != null) {
-            actionList = new ArrayList<>();
-            for (final Object actionObject : actions) {
-                final Map<String, ?> actionMap;
-                try {
-                    actionMap = (Map<String, ?>)actionObject;
-                } catch(final ClassCastException cce) {
-                    throw new AuraRequestInputException(cce, String.valueOf(actionObject), "Action must be in an object format.");
-                }
-                if (actionMap != null) {
-                    final String qualifiedName;
-                    try {
-                        qualifiedName = (String)actionMap.get("descriptor");
-                    } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("descriptor")), "Action descriptor must be in a valid component format.");
-                    }
-                    if (qualifiedName == null) {
-                        // this should never happen, we should not get an empty descriptor.
-                        // If we do, just ignore it, and continue;
-                        continue;
-                    }
-                    ActionDef def;
-                    try {
-                        def = definitionService.getDefinition(qualifiedName, ActionDef.class);
-                    } catch (final QuickFixException qfe) {
-                        // If this fails, it means either we have incompatible versions, or the client
-                        // has been compromised, or the data is just messed up. In that case just drop
-                        // it on the floor and continue.
-                        continue;
-                    } catch (final AuraRuntimeException are) {
-                        throw new AuraRequestInputException(are, qualifiedName, "Action descriptor must be in a valid component format.");
-                    }
-                    Action instance;
-                    // FIXME: ints are getting translated into BigDecimals here.
-                    final Map<String, Object> params = (Map<String, Object>) actionMap.get("params");
-                    
-                    // instanceService.getInstance can throw a QFE. Don't ignore this. In this case, we have
-                    // a broken server. It should never really happen in production, but it will likely occur
-                    // during development. In that case we'd rather break and let someone figure the breakage
-                    // out. Note that this is the _only_ place we can throw a QFE.
-                    instance = (Action) instanceService.getInstance(def, params);
-                    try {
-                        instance.setId((String) actionMap.get("id"));
-                    } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("id")), "Action id must be in a String format.");
-                    }
-                    final String cd;
-                    try {
-                        cd = (String) actionMap.get("callingDescriptor");
-                    } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("callingDescriptor")), "Action callingDescriptor must be in a String format.");
-                    }
-                    if (cd != null && !"UNKNOWN".equals(cd)) {
-                        final DefDescriptor<? extends BaseComponentDef> callingDescriptor;
-                        try {
-                            callingDescriptor = definitionService.getDefDescriptor(cd, ComponentDef.class);
-                        } catch(final AuraRuntimeException are) {
-                            throw new AuraRequestInputException(are, qualifiedName, "Component descriptor must be in a valid component format.");
-                        }
-                        instance.setCallingDescriptor(callingDescriptor);
-                    }
-                    final String v;
+            actionList = new ArrayList<>(actions.size());
+            for (final ActionMessageHandlerProvider.ActionHandler actionMessage : actions) {
+                final Map<String, Object> params = actionMessage.getParams();
+
+                // instanceService.getInstance can throw a QFE. Don't ignore this. In this case, we have
+                // a broken server. It should never really happen in production, but it will likely occur
+                // during development. In that case we'd rather break and let someone figure the breakage
+                // out. Note that this is the _only_ place we can throw a QFE.
+                Action instance = (Action) instanceService.getInstance(actionMessage.getDef(), params);
+                instance.setParamConversionErrors(actionMessage.getParamErrors());
+                instance.setId(actionMessage.getId());
+                final String cd = actionMessage.getCallingDescriptor();
+                if (cd != null && !"UNKNOWN".equals(cd)) {
+                    final DefDescriptor<? extends BaseComponentDef> callingDescriptor;
                     try {
-                        v = (String) actionMap.get("version");
-                    } catch(final ClassCastException cce) {
-                        throw new AuraRequestInputException(cce, String.valueOf(actionMap.get("version")), "Action version must be in a String format.");
+                        callingDescriptor = definitionService.getDefDescriptor(cd, ComponentDef.class);
+                    } catch(final AuraRuntimeException are) {
+                        throw new AuraRequestInputException(are, actionMessage.getQualifiedName(), "Component descriptor must be in a valid component format.");
                     }
-                    if (v != null) {
-                        instance.setCallerVersion(v);
-                    }
-    
-                    if (actionMap.get("storable") != null) {
-                        instance.setStorable();
-                    }
-    
-                    actionList.add(instance);
+                    instance.setCallingDescriptor(callingDescriptor);
                 }
+                final String v = actionMessage.getVersion();
+                if (v != null) {
+                    instance.setCallerVersion(v);
+                }
+
+                if (actionMessage.isStorable()) {
+                    instance.setStorable();
+                }
+
+                actionList.add(instance);
             }
         } else {
             actionList = Collections.emptyList();
@@ -543,6 +505,9 @@ public class AuraServlet extends AuraBaseServlet {
         AuraContext context = contextService.getCurrentContext();
         response.setCharacterEncoding(UTF_ENCODING);
         boolean written = false;
+        // once the response is written as bytes, errors have to be written through the same stream
+        HttpServletResponse errorResponse = response;
+        Utf8OutputStreamWriter utf8Out = null;
 
         servletUtilAdapter.setNoCache(response);
 
@@ -643,8 +608,6 @@ public class AuraServlet extends AuraBaseServlet {
             // some of the CSP headers depend on the app, so pass in the app descriptor here
             servletUtilAdapter.setCSPHeaders(applicationDescriptor, request, response);
 
-            @SuppressWarnings("resource")
-    	        PrintWriter servletOut = response.getWriter();
             final Writer out;
             boolean publiclyCacheable = isGet && context.getActionPublicCacheKey() != null
                     && context.getActionPublicCacheKey().equals(configAdapter.getActionPublicCacheKey());
@@ -659,30 +622,60 @@ public class AuraServlet extends AuraBaseServlet {
                 // Remove the Browser GVP as we don't want browser-specific in the cache.
                 context.getGlobalProviders().remove(AuraValueProviderType.BROWSER.getPrefix());
             } else {
-                out = servletOut;
+                // Encode the response straight to bytes rather than through the container's writer.
+                utf8Out = new Utf8OutputStreamWriter(response.getOutputStream());
+                errorResponse = new Utf8ResponseWrapper(response, utf8Out);
+                out = utf8Out;
                 written = true;
             }
 
-            serverService.run(message, context, out, attributes);
+            long publicCacheExpiration = 0;
+            if (publiclyCacheable) {
+                publicCacheExpiration = servletUtilAdapter.getPubliclyCacheableActionExpiration(message);
+                serverService.runPubliclyCacheable(message, context, out, attributes, publicCacheExpiration);
+            } else {
+                serverService.run(message, context, out, attributes);
+            }
 
             if (publiclyCacheable) {
                 // Set cache headers if no errors
                 if (message.getActions().get(0).getErrors() == null
                         || message.getActions().get(0).getErrors().size() == 0) {
-                    servletUtilAdapter.setCacheTimeout(response,
-                            servletUtilAdapter.getPubliclyCacheableActionExpiration(message) * 1000, false);
+                    servletUtilAdapter.setCacheTimeout(response, publicCacheExpiration * 1000, false);
                 }
 
                 // Write the response body after we are done writing cache headers
                 written = true;
-                servletOut.write(out.toString());
+                response.getWriter().write(out.toString());
             }
         } catch (final InvalidParamException | MissingParamException | JsonParseException ipe) {
-            servletUtilAdapter.handleServletException(new SystemErrorException(ipe), false, context, request, response, false);
+            servletUtilAdapter.handleServletException(new SystemErrorException(ipe), false, context, request, errorResponse, false);
         } catch (final AuraRequestInputException arie) {
-            servletUtilAdapter.handleServletException(arie, false, context, request, response, false);
+            servletUtilAdapter.handleServletException(arie, false, context, request, errorResponse, false);
         } catch (final Exception e) {
-            servletUtilAdapter.handleServletException(e, false, context, request, response, written);
+            servletUtilAdapter.handleServletException(e, false, context, request, errorResponse, written);
+        } finally {
+            if (utf8Out != null) {
+                utf8Out.finish();
+            }
+        }
+    }
+
+    /**
+     * Hands out a writer on the UTF-8 stream the response is already being written to, since the servlet
+     * response cannot give out a writer once its output stream is in use.
+     */
+    private static class Utf8ResponseWrapper extends HttpServletResponseWrapper {
+        private final PrintWriter writer;
+
+        Utf8ResponseWrapper(HttpServletResponse response, Utf8OutputStreamWriter out) {
+            super(response);
+            this.writer = new PrintWriter(out);
+        }
+
+        @Override
+        public PrintWriter getWriter() {
+            return writer;
         }
     }
 
@@ -179,6 +179,9 @@ public class AuraTestFilter {
         if ((testCaseFilters != null) && !testCaseFilters.isEmpty()) {
             final AtomicBoolean handled = new AtomicBoolean(false);
 
+            // Test case filters may look at the response once the chain returns.
+            request.setAttribute(AuraBaseServlet.SYNCHRONOUS_ATTRIBUTE, Boolean.TRUE);
+
             for (HttpFilter filter : testCaseFilters) {
                 if (filter == null) {
                     continue;
@@ -541,6 +544,8 @@ public class AuraTestFilter {
         if (dispatcher == null) {
             return null;
         }
+        // The captured response is read once the forward returns.
+        req.setAttribute(AuraBaseServlet.SYNCHRONOUS_ATTRIBUTE, Boolean.TRUE);
         dispatcher.forward(req, responseWrapper);
         if (responseWrapper.getRedirectUrl() != null) {
             return null;
@@ -0,0 +1,41 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+/**
+ * A rendered bootstrap.js response.
+ *
+ * The payload is the full body, digest included, and expiresAt is the time (in milliseconds) until which the app
+ * allows it to be publicly cached. All values are final.
+ */
+public class BootstrapResponse {
+    public final String payload;
+    public final long expiresAt;
+
+    public BootstrapResponse(String payload, long expiresAt) {
+        this.payload = payload;
+        this.expiresAt = expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("BootstrapResponse[%d chars, expires %d]", payload.length(), expiresAt);
+    }
+}
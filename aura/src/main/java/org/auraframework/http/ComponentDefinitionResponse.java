@@ -0,0 +1,38 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+/**
+ * A fully rendered response of the {@link AuraComponentDefinitionServlet}.
+ *
+ * The payload is everything written to the body for a successful request, and privateCache records
+ * whether the response was sent with private or public cache headers. All values are final.
+ */
+public class ComponentDefinitionResponse {
+    public final String payload;
+    public final boolean privateCache;
+
+    public ComponentDefinitionResponse(String payload, boolean privateCache) {
+        this.payload = payload;
+        this.privateCache = privateCache;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ComponentDefinitionResponse[%d chars, %s]", payload.length(),
+                privateCache ? "private" : "public");
+    }
+}
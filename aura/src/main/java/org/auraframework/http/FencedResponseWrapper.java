@@ -0,0 +1,338 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.Writer;
+
+import javax.annotation.concurrent.ThreadSafe;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.Cookie;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+
+/**
+ * The response an async request is served with, which can be fenced off from the worker writing it.
+ *
+ * Once the request is completed by someone other than the worker, e.g. on a timeout, the container may recycle the
+ * underlying response for another request. Every change to the response therefore checks the fence under a lock:
+ * writes fail with an {@link IOException}, so that the worker stops early, and everything else is ignored. Whoever
+ * raises the fence holds the same lock, so no write is in progress once it is up.
+ */
+@ThreadSafe
+final class FencedResponseWrapper extends HttpServletResponseWrapper {
+    private final Object lock = new Object();
+    private boolean fenced = false;
+    private int fencedStatus;
+    private ServletOutputStream outputStream;
+    private PrintWriter writer;
+
+    FencedResponseWrapper(HttpServletResponse response) {
+        super(response);
+    }
+
+    /**
+     * Fence the response off. Only the caller that raised the fence may complete the request.
+     *
+     * @param errorStatus an error to send before raising the fence, if nothing was committed yet, or 0 for none.
+     * @return true if the fence was raised by this call, false if it was already up.
+     */
+    boolean fence(int errorStatus) throws IOException {
+        synchronized (lock) {
+            if (fenced) {
+                return false;
+            }
+            fenced = true;
+            try {
+                if (errorStatus > 0 && !super.isCommitted()) {
+                    super.sendError(errorStatus);
+                }
+            } finally {
+                fencedStatus = super.getStatus();
+            }
+            return true;
+        }
+    }
+
+    private void checkFence() throws IOException {
+        if (fenced) {
+            throw new IOException("Response was already completed");
+        }
+    }
+
+    @Override
+    public ServletOutputStream getOutputStream() throws IOException {
+        synchronized (lock) {
+            checkFence();
+            if (outputStream == null) {
+                ServletOutputStream out = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.write(b);
+                        }
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.write(b, off, len);
+                        }
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.flush();
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.close();
+                        }
+                    }
+                };
+            }
+            return outputStream;
+        }
+    }
+
+    @Override
+    public PrintWriter getWriter() throws IOException {
+        synchronized (lock) {
+            checkFence();
+            if (writer == null) {
+                PrintWriter out = super.getWriter();
+                writer = new PrintWriter(new Writer() {
+                    @Override
+                    public void write(char[] cbuf, int off, int len) throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.write(cbuf, off, len);
+                        }
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.flush();
+                        }
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        synchronized (lock) {
+                            checkFence();
+                            out.close();
+                        }
+                    }
+                });
+            }
+            return writer;
+        }
+    }
+
+    @Override
+    public void flushBuffer() throws IOException {
+        synchronized (lock) {
+            checkFence();
+            super.flushBuffer();
+        }
+    }
+
+    @Override
+    public void sendError(int sc, String msg) throws IOException {
+        synchronized (lock) {
+            checkFence();
+            super.sendError(sc, msg);
+        }
+    }
+
+    @Override
+    public void sendError(int sc) throws IOException {
+        synchronized (lock) {
+            checkFence();
+            super.sendError(sc);
+        }
+    }
+
+    @Override
+    public void sendRedirect(String location) throws IOException {
+        synchronized (lock) {
+            checkFence();
+            super.sendRedirect(location);
+        }
+    }
+
+    @Override
+    public boolean isCommitted() {
+        synchronized (lock) {
+            return fenced || super.isCommitted();
+        }
+    }
+
+    @Override
+    public void reset() {
+        synchronized (lock) {
+            if (!fenced) {
+                super.reset();
+            }
+        }
+    }
+
+    @Override
+    public void resetBuffer() {
+        synchronized (lock) {
+            if (!fenced) {
+                super.resetBuffer();
+            }
+        }
+    }
+
+    @Override
+    public void setBufferSize(int size) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setBufferSize(size);
+            }
+        }
+    }
+
+    @Override
+    public void setStatus(int sc) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setStatus(sc);
+            }
+        }
+    }
+
+    @Override
+    @Deprecated
+    public void setStatus(int sc, String sm) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setStatus(sc, sm);
+            }
+        }
+    }
+
+    @Override
+    public int getStatus() {
+        synchronized (lock) {
+            return fenced ? fencedStatus : super.getStatus();
+        }
+    }
+
+    @Override
+    public void setContentType(String type) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setContentType(type);
+            }
+        }
+    }
+
+    @Override
+    public void setContentLength(int len) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setContentLength(len);
+            }
+        }
+    }
+
+    @Override
+    public void setCharacterEncoding(String charset) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setCharacterEncoding(charset);
+            }
+        }
+    }
+
+    @Override
+    public void addCookie(Cookie cookie) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.addCookie(cookie);
+            }
+        }
+    }
+
+    @Override
+    public void setHeader(String name, String value) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void addHeader(String name, String value) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.addHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void setDateHeader(String name, long date) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setDateHeader(name, date);
+            }
+        }
+    }
+
+    @Override
+    public void addDateHeader(String name, long date) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.addDateHeader(name, date);
+            }
+        }
+    }
+
+    @Override
+    public void setIntHeader(String name, int value) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.setIntHeader(name, value);
+            }
+        }
+    }
+
+    @Override
+    public void addIntHeader(String name, int value) {
+        synchronized (lock) {
+            if (!fenced) {
+                super.addIntHeader(name, value);
+            }
+        }
+    }
+}
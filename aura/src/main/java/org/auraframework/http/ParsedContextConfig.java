@@ -0,0 +1,115 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.DefDescriptor.DefType;
+import org.auraframework.service.DefinitionService;
+
+import com.google.common.collect.Maps;
+
+/**
+ * A parsed aura.context request parameter, shared by all requests that send the same context.
+ *
+ * The config map is deeply unmodifiable. The loaded descriptors are resolved on first use and then kept, since
+ * they are the same for every request of a given app version.
+ */
+public class ParsedContextConfig {
+    public final Map<String, Object> configMap;
+
+    private volatile Map<DefDescriptor<?>, String> loaded;
+
+    public ParsedContextConfig(Map<String, Object> configMap) {
+        this.configMap = freeze(configMap);
+    }
+
+    /**
+     * Get the loaded descriptors and their uids.
+     *
+     * Entries with unknown types or without a uid are dropped, and bogus input gives an empty map.
+     */
+    public Map<DefDescriptor<?>, String> getLoaded(DefinitionService definitionService) {
+        Map<DefDescriptor<?>, String> result = loaded;
+        if (result == null) {
+            result = Collections.unmodifiableMap(resolveLoaded(configMap.get("loaded"), definitionService));
+            loaded = result;
+        }
+        return result;
+    }
+
+    private static Map<DefDescriptor<?>, String> resolveLoaded(Object loadedEntry,
+            DefinitionService definitionService) {
+        if (loadedEntry == null || !(loadedEntry instanceof Map)) {
+            //
+            // If someone gives us bogus input, just ignore it.
+            //
+            return Collections.emptyMap();
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> loadedMap = (Map<String, String>) loadedEntry;
+        Map<DefDescriptor<?>, String> clientLoaded = Maps.newHashMapWithExpectedSize(loadedMap.size() * 3/2);
+
+        for (Map.Entry<String, String> entry : loadedMap.entrySet()) {
+            String uid = entry.getValue();
+            if (uid != null && !uid.equals("null")) {
+                String key = entry.getKey();
+                int posn = key.indexOf("@");
+                if (posn > 0) {
+                    String typeStr = key.substring(0, posn);
+                    String defStr = key.substring(posn + 1);
+                    DefType type = null;
+                    try {
+                        type = DefType.valueOf(typeStr);
+                    } catch (Throwable t) {
+                        // ignore unknown types...
+                        // We really should log these at a level where we can
+                        // see them, but, well, we don't have that now.
+                    }
+                    if (type != null) {
+                        DefDescriptor<?> ld = definitionService.getDefDescriptor(defStr, type.getPrimaryInterface());
+                        clientLoaded.put(ld, uid);
+                    }
+                }
+            }
+        }
+        return clientLoaded;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static <T> T freeze(T value) {
+        if (value instanceof Map) {
+            Map<Object, Object> copy = new LinkedHashMap<>();
+            for (Map.Entry<?, ?> entry : ((Map<?, ?>) value).entrySet()) {
+                copy.put(entry.getKey(), freeze(entry.getValue()));
+            }
+            return (T) Collections.unmodifiableMap(copy);
+        }
+        if (value instanceof List) {
+            List<Object> copy = new ArrayList<>();
+            for (Object item : (List<?>) value) {
+                copy.add(freeze(item));
+            }
+            return (T) Collections.unmodifiableList(copy);
+        }
+        return value;
+    }
+}
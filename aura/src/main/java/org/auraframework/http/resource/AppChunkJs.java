@@ -0,0 +1,105 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.Set;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.adapter.AppJsUtilAdapter;
+import org.auraframework.annotations.Annotations.ServiceComponent;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.AuraResourceRewriteFilter;
+import org.auraframework.service.ServerService.HYDRATION_TYPE;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+
+/**
+ * One content addressed chunk of app.js.
+ *
+ * The chunk is requested as /l/{context}/{index}_{hash}/appchunk.js, where the hash is the content hash of the
+ * chunk. Chunks that did not change keep their URL across deploys, so clients only download what changed.
+ */
+@ServiceComponent
+public class AppChunkJs extends AuraResourceImpl {
+
+    private AppJsUtilAdapter appJsUtilAdapter;
+
+    public AppChunkJs() {
+        super("appchunk.js", Format.JS);
+    }
+
+    @Override
+    public void write(HttpServletRequest request, HttpServletResponse response, AuraContext context) throws IOException {
+        int chunkCount = configAdapter.getAppJsChunkCount();
+        String lookup = request.getParameter(AuraResourceRewriteFilter.LOOKUP_PARAM);
+        int separator = lookup != null ? lookup.indexOf('_') : -1;
+        int index;
+        try {
+            index = separator > 0 ? Integer.parseInt(lookup.substring(0, separator)) : -1;
+        } catch (NumberFormatException nfe) {
+            index = -1;
+        }
+        if (index < 0 || index >= chunkCount) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+        String requestedHash = lookup.substring(separator + 1);
+
+        Set<DefDescriptor<?>> dependencies = servletUtilAdapter.verifyTopLevel(request, response, context);
+        List<Set<DefDescriptor<?>>> chunks = appJsUtilAdapter.getChunks(dependencies, context.getApplicationDescriptor(), chunkCount);
+        if (chunks == null) {
+            return;
+        }
+
+        try {
+            Set<DefDescriptor<?>> chunk = chunks.get(index);
+            String hash = appJsUtilAdapter.getChunkHash(chunk);
+            if (!hash.equals(requestedHash)) {
+                // The client asked for content we no longer have, serve the current chunk but
+                // make sure it is never cached under the stale address.
+                servletUtilAdapter.setNoCache(response);
+            }
+
+            @SuppressWarnings("resource")
+            PrintWriter writer = response.getWriter();
+            writer.append(AppJsUtilAdapter.APPJS_PREREQ);
+            serverService.writeDefinitions(chunk, writer, true, index, HYDRATION_TYPE.all, true,
+                    "chunk" + chunkCount + ":" + hash);
+            writer.append(AppJsUtilAdapter.APPJS_APPEND);
+
+            // chunks are loaded in order, the last one signals that all definitions are there
+            if (index == chunkCount - 1) {
+                writer.append(AppJsUtilAdapter.APPCOREJS_READY);
+                writer.append(AppJsUtilAdapter.APPJS_READY);
+                writer.append(AppJsUtilAdapter.EXECUTE_APPDEFSREADY);
+            }
+        } catch (Throwable t) {
+            servletUtilAdapter.handleServletException(t, false, context, request, response, false);
+            exceptionAdapter.handleException(new AuraResourceException(getName(), response.getStatus(), t));
+        }
+    }
+
+    @Inject
+    public void setAppJsUtilAdapter(AppJsUtilAdapter appJsUtilAdapter) {
+        this.appJsUtilAdapter = appJsUtilAdapter;
+    }
+}
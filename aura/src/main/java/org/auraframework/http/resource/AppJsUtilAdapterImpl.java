@@ -17,8 +17,14 @@
 package org.auraframework.http.resource;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 
 import javax.inject.Inject;
@@ -30,9 +36,15 @@ import org.auraframework.adapter.ServletUtilAdapter;
 import org.auraframework.annotations.Annotations.ServiceComponent;
 import org.auraframework.def.BaseComponentDef;
 import org.auraframework.def.DefDescriptor;
+import org.auraframework.def.Definition;
+import org.auraframework.service.DefinitionService;
 import org.auraframework.system.AuraContext;
+import org.auraframework.throwable.quickfix.QuickFixException;
 import org.springframework.context.annotation.Lazy;
 
+import com.google.common.base.Joiner;
+import com.google.common.hash.Hashing;
+
 @ServiceComponent
 public class AppJsUtilAdapterImpl implements AppJsUtilAdapter {
 
@@ -40,6 +52,9 @@ public class AppJsUtilAdapterImpl implements AppJsUtilAdapter {
     @Lazy
     private ServletUtilAdapter servletUtilAdapter; 
 
+    @Inject
+    private DefinitionService definitionService;
+
     @Override
     public Set<DefDescriptor<?>> getPartDependencies(HttpServletRequest request, HttpServletResponse response, AuraContext context, int partIndex) throws IOException {
         Set<DefDescriptor<?>> deps = servletUtilAdapter.verifyTopLevel(request, response, context);
@@ -71,6 +86,48 @@ public class AppJsUtilAdapterImpl implements AppJsUtilAdapter {
         return (partIndex == 0) ? dependenciesPart1 : dependenciesPart2;
     }
 
+    @Override
+    public List<Set<DefDescriptor<?>>> getChunks(Set<DefDescriptor<?>> dependencies, DefDescriptor<? extends BaseComponentDef> appDesc, int chunkCount) {
+        if ((dependencies == null) || (appDesc == null) || (chunkCount < 2)) {
+            return null;
+        }
+
+        String appName = appDesc.getQualifiedName();
+        List<Set<DefDescriptor<?>>> chunks = new ArrayList<>(chunkCount);
+        for (int i = 0; i < chunkCount; i++) {
+            chunks.add(new LinkedHashSet<>());
+        }
+        for (DefDescriptor<?> descriptor : dependencies) {
+            chunks.get(getChunkIndex(descriptor, appName, chunkCount)).add(descriptor);
+        }
+        return chunks;
+    }
+
+    @Override
+    public String getChunkHash(Set<DefDescriptor<?>> chunk) throws QuickFixException {
+        List<String> entries = new ArrayList<>(chunk.size());
+        for (DefDescriptor<?> descriptor : chunk) {
+            Definition def = definitionService.getDefinition(descriptor);
+            entries.add(descriptor.getDefType() + "@" + descriptor.getQualifiedName() + "=" + def.getOwnHash());
+        }
+        // dependency order is not stable across apps, the content is
+        Collections.sort(entries);
+        return Hashing.sha256().hashString(Joiner.on('\n').join(entries), StandardCharsets.UTF_8).toString();
+    }
+
+    /**
+     * Pick the chunk for a descriptor.
+     *
+     * String.hashCode is specified, so the assignment is the same on every server.
+     */
+    protected int getChunkIndex(DefDescriptor<?> dependencyDescriptor, String appName, int chunkCount) {
+        if (filterCriteria(dependencyDescriptor, appName)) {
+            return 0;
+        }
+        String componentNamespace = dependencyDescriptor.getNamespace().toLowerCase(Locale.ROOT);
+        return 1 + Math.floorMod(componentNamespace.hashCode(), chunkCount - 1);
+    }
+
     @SuppressWarnings("static-method")
     protected boolean filterCriteria(DefDescriptor<?> dependencyDescriptor, String appName) {
         String componentNamespace = dependencyDescriptor.getNamespace();
@@ -118,6 +118,11 @@ public abstract class AbstractActionImpl<T extends ActionDef> implements Action
         storable = true;
     }
 
+    @Override
+    public boolean isConcurrent() {
+        return actionDef != null && actionDef.isConcurrent();
+    }
+
     @Override
     public boolean isOfflineAction() {
         return offlineAction;
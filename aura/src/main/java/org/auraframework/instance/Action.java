@@ -135,6 +135,13 @@ public interface Action extends Instance<ActionDef> {
 
     boolean isStorable();
 
+    /**
+     * Can this action be run concurrently with the other actions of a request.
+     */
+    default boolean isConcurrent() {
+        return false;
+    }
+
     void setStorable();
 
     boolean isOfflineAction();
@@ -143,6 +150,15 @@ public interface Action extends Instance<ActionDef> {
 
     Map<String, Object> getParams();
 
+    /**
+     * Tell the action that its params were converted to the types of its parameters when the request was read, so
+     * that it uses them as they are.
+     *
+     * @param errors the failure of each param that could not be converted, by name, to report when the action runs.
+     */
+    default void setParamConversionErrors(Map<String, Exception> errors) {
+    }
+
     /**
      * Get the instance stack for this action.
      */
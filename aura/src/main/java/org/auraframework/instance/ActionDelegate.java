@@ -106,6 +106,11 @@ public class ActionDelegate implements Action {
         original.setStorable();
     }
 
+    @Override
+    public void setParamConversionErrors(Map<String, Exception> errors) {
+        original.setParamConversionErrors(errors);
+    }
+
     @Override
     public boolean isOfflineAction() {
         return original.isOfflineAction();
@@ -0,0 +1,52 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.instance;
+
+/**
+ * The serialized result of a publicly cacheable action.
+ *
+ * The payload is the JSON written for the action in the actions array of a response, without the value of its id,
+ * which differs between requests: the id goes between head and tail. expiresAt is the time (in milliseconds) after
+ * which it must not be reused. All values are final.
+ */
+public class CachedActionResult {
+    public final String head;
+    public final String tail;
+    public final long expiresAt;
+
+    public CachedActionResult(String head, String tail, long expiresAt) {
+        this.head = head;
+        this.tail = tail;
+        this.expiresAt = expiresAt;
+    }
+
+    /**
+     * @param serializedId the id of the action being answered, as JSON.
+     * @return the payload for the action.
+     */
+    public String getPayload(String serializedId) {
+        return head + serializedId + tail;
+    }
+
+    public boolean isExpired(long now) {
+        return now >= expiresAt;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("CachedActionResult[%d chars, expires %d]", head.length() + tail.length(), expiresAt);
+    }
+}
@@ -22,8 +22,13 @@ import java.util.concurrent.locks.Lock;
 
 import org.auraframework.builder.CacheBuilder;
 import org.auraframework.cache.Cache;
+import org.auraframework.css.StyleTokenIndex;
 import org.auraframework.def.DefDescriptor;
 import org.auraframework.def.Definition;
+import org.auraframework.http.BootstrapResponse;
+import org.auraframework.http.ParsedContextConfig;
+import org.auraframework.http.ComponentDefinitionResponse;
+import org.auraframework.instance.CachedActionResult;
 import org.auraframework.system.DependencyEntry;
 import org.auraframework.system.RegistrySet;
 import org.auraframework.system.SourceListener;
@@ -66,6 +71,26 @@ public interface CachingService {
         return null; // FIXME remove default method...
     }
 
+    /**
+     * Gets the cache for the rendered CSS of single style defs, shared by the app.css of every app.
+     * <p>
+     * Entries are keyed by style def descriptor, own hash, the values of the tokens it references and the runtime parse
+     * context, so a changed source or token value never hits an old entry. A null return disables the cache.
+     */
+    default Cache<String, String> getStyleDefOutputCache() {
+        return null;
+    }
+
+    /**
+     * Gets the index of the tokens referenced by the style defs in the style def output cache.
+     * <p>
+     * When a tokens source changes, the entries of the style defs referencing its tokens are dropped, leaving the rest
+     * for the next app.css. A null return disables the index.
+     */
+    default StyleTokenIndex getStyleTokenIndex() {
+        return null;
+    }
+
     Cache<String, Set<DefDescriptor<?>>> getDescriptorFilterCache();
 
     Cache<String, DependencyEntry> getDepsCache();
@@ -73,6 +98,57 @@ public interface CachingService {
     Cache<String, String> getClientLibraryOutputCache();
 
     Cache<RegistrySet.RegistrySetKey, RegistrySet> getRegistrySetCache();
+
+    /**
+     * Gets the cache for fully rendered responses of the component definition servlet (/auraCmpDef).
+     * <p>
+     * Entries are keyed by everything that contributes to the response (app, requested descriptors, uid, locale,
+     * style, locker, ...) and are invalidated together with the definitions they contain. A null return disables
+     * response caching.
+     */
+    default Cache<String, ComponentDefinitionResponse> getComponentDefinitionResponseCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for serialized results of publicly cacheable actions.
+     * <p>
+     * Entries are keyed by action, parameters, app, locale and action public cache key, and each one carries its
+     * own expiration. A null return disables the cache.
+     */
+    default Cache<String, CachedActionResult> getActionResultCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache of ETags handed out by the resource servlet, mapped to the time they expire.
+     * <p>
+     * An ETag is only present while the content it was issued for is current, so a match can be answered with a 304
+     * without loading anything. A null return disables conditional requests.
+     */
+    default Cache<String, Long> getResourceETagCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for rendered bootstrap.js responses of apps that declare a public cache expiration.
+     * <p>
+     * Entries are keyed by app, UID, locale and request, and each one carries its own expiration. A null return
+     * disables the cache.
+     */
+    default Cache<String, BootstrapResponse> getBootstrapResponseCache() {
+        return null;
+    }
+
+    /**
+     * Gets the cache for parsed aura.context request parameters, keyed by the raw parameter value.
+     * <p>
+     * Entries also hold the resolved loaded descriptors, so they must be dropped when sources change. A null
+     * return disables the cache.
+     */
+    default Cache<String, ParsedContextConfig> getContextConfigCache() {
+        return null;
+    }
     
     Lock getReadLock();
 
@@ -63,6 +63,23 @@ public interface ServerService {
     void run(Message message, AuraContext context, Writer out, Map<?, ?> extras)
             throws QuickFixException, IOException;
 
+    /**
+     * Run a message for a publicly cacheable request and write out the results.
+     *
+     * If the message holds a single action, its serialized result is kept on the server for the given expiration
+     * and reused for identical requests, so that the action runs once however many requests arrive together.
+     *
+     * @param message non-null, The message containing the actions.
+     * @param context non-null, the context to use.
+     * @param out non-null, where to write the output.
+     * @param extras (can be null) the extras to write.
+     * @param expiration how long, in seconds, the result may be reused.
+     * @throws QuickFixException if there was a problem instantiating components.
+     * @throws IOException if it is unable to write the output.
+     */
+    void runPubliclyCacheable(Message message, AuraContext context, Writer out, Map<?, ?> extras, long expiration)
+            throws QuickFixException, IOException;
+
     /**
      * write out CSS.
      * 
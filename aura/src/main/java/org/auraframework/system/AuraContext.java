@@ -588,6 +588,11 @@ public interface AuraContext {
          * Similar to {@link #Normal}, except no FWUID and includes {@code serializationVersion}
          */
         AppResource,
+        /**
+         * Similar to {@link #AppResource}, except no loaded UIDs, so that the URL of an app.js chunk only changes
+         * when the content of the chunk does.
+         */
+        AppChunk,
         /**
          * Standard encoding, include UIDs
          */
@@ -752,6 +757,25 @@ public interface AuraContext {
      */
     boolean isSystemMode();
 
+    /**
+     * Give the current thread its own action state until {@link #endConcurrentWork()}.
+     *
+     * This is used by worker threads running part of a request alongside other threads, with the context attached
+     * (see {@link org.auraframework.adapter.ContextAdapter#attach(AuraContext)}). The current action and component,
+     * the calling descriptors and system mode then belong to the worker, which starts in the system mode of the
+     * context, and everything else is shared. Calls may be nested.
+     *
+     * Contexts of an adapter that does not support attaching them to other threads never need to do anything.
+     */
+    default void beginConcurrentWork() {
+    }
+
+    /**
+     * Drop the action state given to the current thread by the matching {@link #beginConcurrentWork()}.
+     */
+    default void endConcurrentWork() {
+    }
+
     void setUseCompatSource(boolean useCompatSource);
     void setForceCompat(boolean forceCompat);
 
@@ -19,6 +19,8 @@ public class Client {
 
     public static final Client OTHER = new Client();
 
+    private static final UserAgentCache<Client> cache = new UserAgentCache<>(Client::new);
+
     private final String userAgent;
 
     public enum Type {
@@ -66,6 +68,22 @@ public class Client {
         }
     }
 
+    /**
+     * Get the client for a user agent.
+     *
+     * Traffic is dominated by a few identical user agents, so clients are kept in a bounded cache. Clients are
+     * immutable, so the returned instance is shared.
+     *
+     * @param ua the raw User-Agent header, may be null
+     * @return the client
+     */
+    public static Client get(String ua) {
+        if (ua == null) {
+            return OTHER;
+        }
+        return cache.get(ua);
+    }
+
     public Type getType() {
         return type;
     }
@@ -0,0 +1,73 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.system;
+
+import java.util.function.Function;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.google.common.cache.CacheStats;
+
+/**
+ * A bounded cache of values parsed from a raw User-Agent header.
+ *
+ * Traffic is dominated by a few identical user agents, so parsing each once and sharing the result saves work on
+ * every request. The parsed values are shared, so they must be immutable.
+ *
+ * @param <T> the type parsed from a user agent
+ */
+public class UserAgentCache<T> {
+    /** Number of distinct user agents whose parsed value is kept */
+    public static final int MAX_CACHED_USER_AGENTS = 1000;
+    /** User agents longer than this are parsed on every call rather than kept, so they cannot churn the cache */
+    public static final int MAX_CACHED_USER_AGENT_LENGTH = 512;
+
+    private final Function<String, T> parser;
+    private final Cache<String, T> cache = CacheBuilder.newBuilder()
+            .maximumSize(MAX_CACHED_USER_AGENTS).recordStats().build();
+
+    /**
+     * @param parser creates the value for a user agent that is not cached
+     */
+    public UserAgentCache(Function<String, T> parser) {
+        this.parser = parser;
+    }
+
+    /**
+     * Get the parsed value for a user agent, parsing it if it is not cached.
+     *
+     * @param userAgent the raw User-Agent header, not null
+     * @return the shared parsed value
+     */
+    public T get(String userAgent) {
+        if (userAgent.length() > MAX_CACHED_USER_AGENT_LENGTH) {
+            return parser.apply(userAgent);
+        }
+        T value = cache.getIfPresent(userAgent);
+        if (value == null) {
+            value = parser.apply(userAgent);
+            cache.put(userAgent, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return hit and miss statistics of the cache
+     */
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,229 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.servlet.AsyncContext;
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.DispatcherType;
+import javax.servlet.ServletConfig;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.adapter.ContextAdapter;
+import org.auraframework.adapter.LoggingAdapter;
+import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.LoggingContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.instanceOf;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Simple (non-integration) test case for async requests in {@link AuraBaseServlet}.
+ */
+public class AuraBaseServletUnitTest {
+
+    @Mock
+    HttpServletRequest request;
+
+    @Mock
+    HttpServletResponse response;
+
+    @Mock
+    AsyncContext asyncContext;
+
+    @Mock
+    ServletConfig config;
+
+    @Mock
+    ContextAdapter contextAdapter;
+
+    @Mock
+    LoggingAdapter loggingAdapter;
+
+    @Mock
+    ServletUtilAdapter servletUtilAdapter;
+
+    @Mock
+    AuraContext context;
+
+    @Mock
+    LoggingContext loggingContext;
+
+    private final AtomicReference<Thread> servedBy = new AtomicReference<>();
+
+    private TestServlet servlet;
+
+    @SuppressWarnings("serial")
+    class TestServlet extends AuraBaseServlet {
+        RuntimeException failure;
+        CountDownLatch started;
+        CountDownLatch resume;
+        final AtomicReference<Throwable> lateWrite = new AtomicReference<>();
+
+        @Override
+        public void processInjection(ServletConfig servletConfig) {
+        }
+
+        @Override
+        protected void doGet(HttpServletRequest req, HttpServletResponse res) {
+            servedBy.set(Thread.currentThread());
+            if (failure != null) {
+                throw failure;
+            }
+            if (started != null) {
+                started.countDown();
+                try {
+                    resume.await(5, TimeUnit.SECONDS);
+                    res.getWriter().write("late");
+                } catch (Throwable t) {
+                    lateWrite.set(t);
+                }
+            }
+        }
+    }
+
+    @Before
+    public void setUp() throws Exception {
+        MockitoAnnotations.initMocks(this);
+        Mockito.when(request.getMethod()).thenReturn("GET");
+        Mockito.when(request.getDispatcherType()).thenReturn(DispatcherType.REQUEST);
+        Mockito.when(request.isAsyncSupported()).thenReturn(true);
+        Mockito.when(request.startAsync(request, response)).thenReturn(asyncContext);
+        Mockito.when(contextAdapter.getCurrentContext()).thenReturn(context);
+        Mockito.when(contextAdapter.isAttachSupported()).thenReturn(true);
+        Mockito.when(loggingAdapter.getLoggingContext()).thenReturn(loggingContext);
+        Mockito.when(loggingAdapter.isAttachSupported()).thenReturn(true);
+        Mockito.when(config.getServletName()).thenReturn("test");
+        Mockito.when(config.getInitParameter(AuraBaseServlet.ASYNC_THREADS_PARAM)).thenReturn("1");
+
+        servlet = new TestServlet();
+        servlet.init(config);
+        servlet.setContextAdapter(contextAdapter);
+        servlet.setLoggingAdapter(loggingAdapter);
+        servlet.setServletUtilAdapter(servletUtilAdapter);
+    }
+
+    @After
+    public void tearDown() {
+        servlet.destroy();
+    }
+
+    @Test
+    public void testRequestIsServedOnWorkerWithContexts() throws Exception {
+        servlet.service(request, response);
+
+        Mockito.verify(asyncContext, Mockito.timeout(5000)).complete();
+        assertThat("Expected the request to be served off the container thread", servedBy.get(),
+                not(sameInstance(Thread.currentThread())));
+        Mockito.verify(contextAdapter).attach(null);
+        Mockito.verify(contextAdapter).attach(context);
+        Mockito.verify(loggingAdapter).attach(loggingContext);
+        Mockito.verify(contextAdapter).release();
+        Mockito.verify(loggingAdapter).release();
+        Mockito.verify(loggingContext).logRequestValues();
+    }
+
+    @Test
+    public void testWorkerErrorsAreHandledLikeTheFilterDoes() throws Exception {
+        RuntimeException failure = new RuntimeException("boom");
+        servlet.failure = failure;
+
+        servlet.service(request, response);
+
+        Mockito.verify(asyncContext, Mockito.timeout(5000)).complete();
+        Mockito.verify(servletUtilAdapter).handleServletException(Matchers.same(failure), Matchers.eq(false),
+                Matchers.same(context), Matchers.same(request), Matchers.any(HttpServletResponse.class),
+                Matchers.eq(false));
+        Mockito.verify(contextAdapter).release();
+    }
+
+    @Test
+    public void testTimeoutFencesWorkerOffTheResponse() throws Exception {
+        StringWriter written = new StringWriter();
+        Mockito.when(response.getWriter()).thenReturn(new PrintWriter(written));
+        servlet.started = new CountDownLatch(1);
+        servlet.resume = new CountDownLatch(1);
+
+        servlet.service(request, response);
+        assertTrue("Expected the worker to start", servlet.started.await(5, TimeUnit.SECONDS));
+        ArgumentCaptor<AsyncListener> listener = ArgumentCaptor.forClass(AsyncListener.class);
+        Mockito.verify(asyncContext).addListener(listener.capture());
+        listener.getValue().onTimeout(new AsyncEvent(asyncContext, request, response));
+        servlet.resume.countDown();
+
+        Mockito.verify(contextAdapter, Mockito.timeout(5000)).release();
+        Mockito.verify(response).sendError(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+        Mockito.verify(asyncContext, Mockito.times(1)).complete();
+        assertThat("Expected the worker's write to fail", servlet.lateWrite.get(), instanceOf(IOException.class));
+        assertThat("Expected nothing written after the timeout", written.toString(), equalTo(""));
+    }
+
+    @Test
+    public void testRequestIsServedInlineWhenAFilterNeedsItSynchronous() throws Exception {
+        Mockito.when(request.getAttribute(AuraBaseServlet.SYNCHRONOUS_ATTRIBUTE)).thenReturn(Boolean.TRUE);
+
+        servlet.service(request, response);
+
+        assertThat("Expected the request to be served on the container thread", servedBy.get(),
+                equalTo(Thread.currentThread()));
+        Mockito.verify(request, Mockito.never()).startAsync(request, response);
+    }
+
+    @Test
+    public void testRequestIsServedInlineWhenAsyncIsNotSupported() throws Exception {
+        Mockito.when(request.isAsyncSupported()).thenReturn(false);
+
+        servlet.service(request, response);
+
+        assertThat("Expected the request to be served on the container thread", servedBy.get(),
+                equalTo(Thread.currentThread()));
+        Mockito.verify(request, Mockito.never()).startAsync(request, response);
+        Mockito.verify(contextAdapter, Mockito.never()).release();
+    }
+
+    @Test
+    public void testRequestIsServedInlineWhenContextsCannotBeAttached() throws Exception {
+        Mockito.when(contextAdapter.isAttachSupported()).thenReturn(false);
+
+        servlet.service(request, response);
+
+        assertThat("Expected the request to be served on the container thread", servedBy.get(),
+                equalTo(Thread.currentThread()));
+        Mockito.verify(request, Mockito.never()).startAsync(request, response);
+        Mockito.verify(contextAdapter, Mockito.never()).attach(Matchers.any(AuraContext.class));
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http;
+
+import java.util.Map;
+
+import org.auraframework.def.ApplicationDef;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.service.DefinitionService;
+import org.auraframework.util.json.JsonReader;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.Matchers;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.runners.MockitoJUnitRunner;
+
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit test for the {@link ParsedContextConfig} class.
+ */
+@RunWith(MockitoJUnitRunner.class)
+public class ParsedContextConfigTest {
+
+    @Mock
+    private DefinitionService definitionService;
+
+    @SuppressWarnings("unchecked")
+    private ParsedContextConfig parse(String json) {
+        return new ParsedContextConfig((Map<String, Object>) new JsonReader().read(json));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testLoadedIsResolvedOnce() {
+        // Arrange
+        final DefDescriptor<ApplicationDef> appDesc = mock(DefDescriptor.class);
+        when(definitionService.getDefDescriptor("foo:bar", ApplicationDef.class)).thenReturn(appDesc);
+        final ParsedContextConfig config = parse(
+                "{\"loaded\":{\"APPLICATION@foo:bar\":\"abc\",\"BOGUS@foo:baz\":\"def\",\"COMPONENT@foo:nouid\":null}}");
+
+        // Act
+        final Map<DefDescriptor<?>, String> first = config.getLoaded(definitionService);
+        final Map<DefDescriptor<?>, String> second = config.getLoaded(definitionService);
+
+        // Assert
+        assertThat("Expected only the valid entry to be resolved", first.size(), equalTo(1));
+        assertThat("Expected the uid of the loaded app", first.get(appDesc), equalTo("abc"));
+        assertThat("Expected the resolved map to be reused", second, sameInstance(first));
+        Mockito.verify(definitionService, Mockito.only()).getDefDescriptor(Matchers.eq("foo:bar"),
+                Matchers.eq(ApplicationDef.class));
+    }
+
+    @SuppressWarnings("unchecked")
+    @Test
+    public void testConfigMapIsUnmodifiable() {
+        // Arrange
+        final ParsedContextConfig config = parse("{\"mode\":\"PROD\",\"dn\":[\"a\"],\"globals\":{\"g\":1}}");
+
+        // Act
+        try {
+            ((Map<String, Object>) config.configMap.get("globals")).put("h", 2);
+            fail("Expected nested maps to be unmodifiable");
+        } catch (final UnsupportedOperationException expected) {
+            // Assert
+            assertThat("Expected the value to be kept", config.configMap.get("mode"), equalTo("PROD"));
+        }
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * Copyright (C) 2013 salesforce.com, inc.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *         http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.auraframework.http.resource;
+
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyString;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+import org.auraframework.adapter.AppJsUtilAdapter;
+import org.auraframework.adapter.ConfigAdapter;
+import org.auraframework.adapter.ServletUtilAdapter;
+import org.auraframework.def.DefDescriptor;
+import org.auraframework.http.AuraResourceRewriteFilter;
+import org.auraframework.service.ServerService;
+import org.auraframework.service.ServerService.HYDRATION_TYPE;
+import org.auraframework.system.AuraContext;
+import org.auraframework.system.AuraContext.Format;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+public class AppChunkJsTest {
+    private ServletUtilAdapter servletUtilAdapter;
+    private ServerService serverService;
+    private AppJsUtilAdapter appJsUtilAdapter;
+    private AuraContext context;
+    private AppChunkJs appChunkJs;
+
+    @Before
+    public void setUp() throws Exception {
+        servletUtilAdapter = mock(ServletUtilAdapter.class);
+        serverService = mock(ServerService.class);
+        appJsUtilAdapter = mock(AppJsUtilAdapter.class);
+        ConfigAdapter configAdapter = mock(ConfigAdapter.class);
+        when(configAdapter.getAppJsChunkCount()).thenReturn(2);
+        context = mock(AuraContext.class);
+
+        Set<DefDescriptor<?>> dependencies = Collections.emptySet();
+        List<Set<DefDescriptor<?>>> chunks = Arrays.asList(Collections.<DefDescriptor<?>>emptySet(),
+                Collections.<DefDescriptor<?>>emptySet());
+        when(servletUtilAdapter.verifyTopLevel(any(HttpServletRequest.class), any(HttpServletResponse.class), eq(context)))
+            .thenReturn(dependencies);
+        when(appJsUtilAdapter.getChunks(eq(dependencies), any(), eq(2))).thenReturn(chunks);
+        when(appJsUtilAdapter.getChunkHash(any())).thenReturn("abc");
+
+        appChunkJs = new AppChunkJs();
+        appChunkJs.setServletUtilAdapter(servletUtilAdapter);
+        appChunkJs.setServerService(serverService);
+        appChunkJs.setConfigAdapter(configAdapter);
+        appChunkJs.setAppJsUtilAdapter(appJsUtilAdapter);
+    }
+
+    /**
+     * Name is API!.
+     */
+    @Test
+    public void testName() {
+        Assert.assertEquals("appchunk.js", new AppChunkJs().getName());
+    }
+
+    /**
+     * Format is API!.
+     */
+    @Test
+    public void testFormat() {
+        Assert.assertEquals(Format.JS, new AppChunkJs().getFormat());
+    }
+
+    @Test
+    public void testUnknownChunkIsNotFound() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        appChunkJs.write(requestFor("2_abc"), response, context);
+
+        Assert.assertEquals(HttpServletResponse.SC_NOT_FOUND, response.getStatus());
+        verify(serverService, never()).writeDefinitions(any(), any(Writer.class), eq(true), eq(2),
+                any(HYDRATION_TYPE.class), eq(true), anyString());
+    }
+
+    @Test
+    public void testOnlyLastChunkSignalsReady() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        appChunkJs.write(requestFor("0_abc"), first, context);
+        MockHttpServletResponse last = new MockHttpServletResponse();
+        appChunkJs.write(requestFor("1_abc"), last, context);
+
+        Assert.assertFalse(first.getContentAsString().contains(AppJsUtilAdapter.APPJS_READY));
+        Assert.assertTrue(last.getContentAsString().endsWith(AppJsUtilAdapter.EXECUTE_APPDEFSREADY));
+        verify(serverService).writeDefinitions(any(), any(Writer.class), eq(true), eq(1),
+                any(HYDRATION_TYPE.class), eq(true), eq("chunk2:abc"));
+        verify(servletUtilAdapter, never()).setNoCache(any(HttpServletResponse.class));
+    }
+
+    @Test
+    public void testStaleHashIsNotCached() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        appChunkJs.write(requestFor("1_stale"), response, context);
+
+        verify(servletUtilAdapter).setNoCache(response);
+        verify(serverService).writeDefinitions(any(), any(Writer.class), eq(true), eq(1),
+                any(HYDRATION_TYPE.class), eq(true), eq("chunk2:abc"));
+    }
+
+    private static MockHttpServletRequest requestFor(String lookup) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setParameter(AuraResourceRewriteFilter.LOOKUP_PARAM, lookup);
+        return request;
+    }
+}
@@ -53,4 +53,6 @@ public interface MockConfigAdapter extends ConfigAdapter, MockBean {
     void setIsBootstrapInliningEnabled(boolean isBootstrapInliningEnabled);
 
     void setIsCssVarTransformEnabled(boolean isCssVarTransformEnabled);
+
+    void setConcurrentActionThreadCount(int concurrentActionThreadCount);
 }